@@ -0,0 +1,217 @@
+package org.ofbiz.accounting.accounting;
+
+import java.util.Map;
+
+import org.ofbiz.service.DispatchContext;
+import org.ofbiz.service.LocalDispatcher;
+import org.ofbiz.service.ServiceUtil;
+
+public class InvoiceServices {
+
+    public static Map<String, Object> createInvoice0(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateInvoice1(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getInvoice2(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteInvoice3(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("createInvoice4", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createInvoice4(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateInvoice5(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getInvoice6(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteInvoice7(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createInvoice8(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateInvoice9(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getInvoice10(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("deleteInvoice11", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteInvoice11(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createInvoice12(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateInvoice13(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getInvoice14(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteInvoice15(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createInvoice16(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateInvoice17(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("getInvoice18", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getInvoice18(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteInvoice19(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createInvoice20(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateInvoice21(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getInvoice22(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteInvoice23(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createInvoice24(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("updateInvoice25", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateInvoice25(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getInvoice26(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteInvoice27(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createInvoice28(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateInvoice29(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getInvoice30(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteInvoice31(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("createInvoice32", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createInvoice32(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateInvoice33(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getInvoice34(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteInvoice35(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createInvoice36(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateInvoice37(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getInvoice38(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("deleteInvoice39", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteInvoice39(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+}
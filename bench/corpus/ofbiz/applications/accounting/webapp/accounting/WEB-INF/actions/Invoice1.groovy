@@ -0,0 +1,7 @@
+import org.ofbiz.base.util.*;
+import org.ofbiz.entity.*;
+
+delegator = request.getAttribute("delegator");
+invoiceId = parameters.get("invoiceId");
+list = delegator.findByAnd("Invoice", UtilMisc.toMap("statusId", "INVOICE_CREATED"));
+context.put("invoiceList", list);
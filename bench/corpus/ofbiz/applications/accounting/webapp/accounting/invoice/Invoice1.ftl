@@ -0,0 +1,35 @@
+<#-- Invoice page 1 -->
+<#import "../common/macros.ftl" as m/>
+<div class="screenlet">
+  <h3>${uiLabelMap.InvoiceTitle}</h3>
+  <tr><td>${invoice.invoiceField0!}</td><td><a href="<@ofbizUrl>invoice0</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField1!}</td><td><a href="<@ofbizUrl>invoice1</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField2!}</td><td><a href="<@ofbizUrl>invoice2</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField3!}</td><td><a href="<@ofbizUrl>invoice3</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField4!}</td><td><a href="<@ofbizUrl>invoice4</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField5!}</td><td><a href="<@ofbizUrl>invoice5</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField6!}</td><td><a href="<@ofbizUrl>invoice6</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField7!}</td><td><a href="<@ofbizUrl>invoice7</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField8!}</td><td><a href="<@ofbizUrl>invoice8</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField9!}</td><td><a href="<@ofbizUrl>invoice9</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField10!}</td><td><a href="<@ofbizUrl>invoice10</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField11!}</td><td><a href="<@ofbizUrl>invoice11</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField12!}</td><td><a href="<@ofbizUrl>invoice12</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField13!}</td><td><a href="<@ofbizUrl>invoice13</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField14!}</td><td><a href="<@ofbizUrl>invoice14</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField15!}</td><td><a href="<@ofbizUrl>invoice15</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField16!}</td><td><a href="<@ofbizUrl>invoice16</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField17!}</td><td><a href="<@ofbizUrl>invoice17</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField18!}</td><td><a href="<@ofbizUrl>invoice18</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField19!}</td><td><a href="<@ofbizUrl>invoice19</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField20!}</td><td><a href="<@ofbizUrl>invoice20</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField21!}</td><td><a href="<@ofbizUrl>invoice21</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField22!}</td><td><a href="<@ofbizUrl>invoice22</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField23!}</td><td><a href="<@ofbizUrl>invoice23</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField24!}</td><td><a href="<@ofbizUrl>invoice24</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField25!}</td><td><a href="<@ofbizUrl>invoice25</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField26!}</td><td><a href="<@ofbizUrl>invoice26</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField27!}</td><td><a href="<@ofbizUrl>invoice27</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField28!}</td><td><a href="<@ofbizUrl>invoice28</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${invoice.invoiceField29!}</td><td><a href="<@ofbizUrl>invoice29</@ofbizUrl>">edit</a></td></tr>
+</div>
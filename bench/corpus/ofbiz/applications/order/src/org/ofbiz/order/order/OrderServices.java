@@ -0,0 +1,217 @@
+package org.ofbiz.order.order;
+
+import java.util.Map;
+
+import org.ofbiz.service.DispatchContext;
+import org.ofbiz.service.LocalDispatcher;
+import org.ofbiz.service.ServiceUtil;
+
+public class OrderServices {
+
+    public static Map<String, Object> createOrder0(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateOrder1(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getOrder2(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteOrder3(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("createOrder4", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createOrder4(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateOrder5(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getOrder6(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteOrder7(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createOrder8(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateOrder9(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getOrder10(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("deleteOrder11", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteOrder11(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createOrder12(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateOrder13(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getOrder14(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteOrder15(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createOrder16(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateOrder17(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("getOrder18", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getOrder18(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteOrder19(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createOrder20(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateOrder21(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getOrder22(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteOrder23(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createOrder24(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("updateOrder25", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateOrder25(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getOrder26(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteOrder27(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createOrder28(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateOrder29(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getOrder30(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteOrder31(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("createOrder32", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createOrder32(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateOrder33(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getOrder34(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteOrder35(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createOrder36(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateOrder37(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getOrder38(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("deleteOrder39", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteOrder39(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+}
@@ -0,0 +1,7 @@
+import org.ofbiz.base.util.*;
+import org.ofbiz.entity.*;
+
+delegator = request.getAttribute("delegator");
+orderId = parameters.get("orderId");
+list = delegator.findByAnd("Order", UtilMisc.toMap("statusId", "ORDER_CREATED"));
+context.put("orderList", list);
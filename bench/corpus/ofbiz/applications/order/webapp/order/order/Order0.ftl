@@ -0,0 +1,36 @@
+<#-- Order page 0 -->
+<#include "component://order/webapp/order/order/inc0.ftl"/>
+<div class="screenlet">
+  <h3>${uiLabelMap.OrderTitle}</h3>
+  <tr><td>${order.orderField0!}</td><td><a href="<@ofbizUrl>order0</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField1!}</td><td><a href="<@ofbizUrl>order1</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField2!}</td><td><a href="<@ofbizUrl>order2</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField3!}</td><td><a href="<@ofbizUrl>order3</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField4!}</td><td><a href="<@ofbizUrl>order4</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField5!}</td><td><a href="<@ofbizUrl>order5</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField6!}</td><td><a href="<@ofbizUrl>order6</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField7!}</td><td><a href="<@ofbizUrl>order7</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField8!}</td><td><a href="<@ofbizUrl>order8</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField9!}</td><td><a href="<@ofbizUrl>order9</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField10!}</td><td><a href="<@ofbizUrl>order10</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField11!}</td><td><a href="<@ofbizUrl>order11</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField12!}</td><td><a href="<@ofbizUrl>order12</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField13!}</td><td><a href="<@ofbizUrl>order13</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField14!}</td><td><a href="<@ofbizUrl>order14</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField15!}</td><td><a href="<@ofbizUrl>order15</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField16!}</td><td><a href="<@ofbizUrl>order16</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField17!}</td><td><a href="<@ofbizUrl>order17</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField18!}</td><td><a href="<@ofbizUrl>order18</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField19!}</td><td><a href="<@ofbizUrl>order19</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField20!}</td><td><a href="<@ofbizUrl>order20</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField21!}</td><td><a href="<@ofbizUrl>order21</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField22!}</td><td><a href="<@ofbizUrl>order22</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField23!}</td><td><a href="<@ofbizUrl>order23</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField24!}</td><td><a href="<@ofbizUrl>order24</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField25!}</td><td><a href="<@ofbizUrl>order25</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField26!}</td><td><a href="<@ofbizUrl>order26</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField27!}</td><td><a href="<@ofbizUrl>order27</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField28!}</td><td><a href="<@ofbizUrl>order28</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${order.orderField29!}</td><td><a href="<@ofbizUrl>order29</@ofbizUrl>">edit</a></td></tr>
+  ${screens.render("component://order/widget/OrderScreens.xml#Order1")}
+</div>
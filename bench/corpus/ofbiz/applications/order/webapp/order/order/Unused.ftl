@@ -0,0 +1 @@
+<div>not used</div>
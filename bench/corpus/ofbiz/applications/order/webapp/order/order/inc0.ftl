@@ -0,0 +1 @@
+<#macro row r>${r}</#macro>
@@ -0,0 +1,217 @@
+package org.ofbiz.party.party;
+
+import java.util.Map;
+
+import org.ofbiz.service.DispatchContext;
+import org.ofbiz.service.LocalDispatcher;
+import org.ofbiz.service.ServiceUtil;
+
+public class PartyServices {
+
+    public static Map<String, Object> createParty0(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateParty1(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getParty2(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteParty3(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("createParty4", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createParty4(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateParty5(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getParty6(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteParty7(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createParty8(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateParty9(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getParty10(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("deleteParty11", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteParty11(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createParty12(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateParty13(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getParty14(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteParty15(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createParty16(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateParty17(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("getParty18", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getParty18(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteParty19(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createParty20(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateParty21(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getParty22(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteParty23(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createParty24(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("updateParty25", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateParty25(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getParty26(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteParty27(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createParty28(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateParty29(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getParty30(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteParty31(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("createParty32", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createParty32(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateParty33(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getParty34(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteParty35(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createParty36(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateParty37(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getParty38(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("deleteParty39", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteParty39(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+}
@@ -0,0 +1,7 @@
+import org.ofbiz.base.util.*;
+import org.ofbiz.entity.*;
+
+delegator = request.getAttribute("delegator");
+partyId = parameters.get("partyId");
+list = delegator.findByAnd("Party", UtilMisc.toMap("statusId", "PARTY_CREATED"));
+context.put("partyList", list);
@@ -0,0 +1,35 @@
+<#-- Party page 1 -->
+<#import "../common/macros.ftl" as m/>
+<div class="screenlet">
+  <h3>${uiLabelMap.PartyTitle}</h3>
+  <tr><td>${party.partyField0!}</td><td><a href="<@ofbizUrl>party0</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField1!}</td><td><a href="<@ofbizUrl>party1</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField2!}</td><td><a href="<@ofbizUrl>party2</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField3!}</td><td><a href="<@ofbizUrl>party3</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField4!}</td><td><a href="<@ofbizUrl>party4</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField5!}</td><td><a href="<@ofbizUrl>party5</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField6!}</td><td><a href="<@ofbizUrl>party6</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField7!}</td><td><a href="<@ofbizUrl>party7</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField8!}</td><td><a href="<@ofbizUrl>party8</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField9!}</td><td><a href="<@ofbizUrl>party9</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField10!}</td><td><a href="<@ofbizUrl>party10</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField11!}</td><td><a href="<@ofbizUrl>party11</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField12!}</td><td><a href="<@ofbizUrl>party12</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField13!}</td><td><a href="<@ofbizUrl>party13</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField14!}</td><td><a href="<@ofbizUrl>party14</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField15!}</td><td><a href="<@ofbizUrl>party15</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField16!}</td><td><a href="<@ofbizUrl>party16</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField17!}</td><td><a href="<@ofbizUrl>party17</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField18!}</td><td><a href="<@ofbizUrl>party18</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField19!}</td><td><a href="<@ofbizUrl>party19</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField20!}</td><td><a href="<@ofbizUrl>party20</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField21!}</td><td><a href="<@ofbizUrl>party21</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField22!}</td><td><a href="<@ofbizUrl>party22</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField23!}</td><td><a href="<@ofbizUrl>party23</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField24!}</td><td><a href="<@ofbizUrl>party24</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField25!}</td><td><a href="<@ofbizUrl>party25</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField26!}</td><td><a href="<@ofbizUrl>party26</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField27!}</td><td><a href="<@ofbizUrl>party27</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField28!}</td><td><a href="<@ofbizUrl>party28</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${party.partyField29!}</td><td><a href="<@ofbizUrl>party29</@ofbizUrl>">edit</a></td></tr>
+</div>
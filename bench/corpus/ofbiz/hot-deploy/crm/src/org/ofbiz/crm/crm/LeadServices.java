@@ -0,0 +1,217 @@
+package org.ofbiz.crm.crm;
+
+import java.util.Map;
+
+import org.ofbiz.service.DispatchContext;
+import org.ofbiz.service.LocalDispatcher;
+import org.ofbiz.service.ServiceUtil;
+
+public class LeadServices {
+
+    public static Map<String, Object> createLead0(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateLead1(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getLead2(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteLead3(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("createLead4", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createLead4(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateLead5(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getLead6(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteLead7(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createLead8(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateLead9(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getLead10(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("deleteLead11", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteLead11(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createLead12(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateLead13(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getLead14(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteLead15(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createLead16(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateLead17(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("getLead18", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getLead18(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteLead19(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createLead20(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateLead21(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getLead22(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteLead23(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createLead24(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("updateLead25", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateLead25(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getLead26(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteLead27(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createLead28(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateLead29(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getLead30(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteLead31(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("createLead32", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createLead32(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateLead33(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getLead34(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteLead35(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> createLead36(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> updateLead37(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> getLead38(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        dispatcher.runSync("deleteLead39", context);
+        return ServiceUtil.returnSuccess();
+    }
+
+    public static Map<String, Object> deleteLead39(DispatchContext dctx, Map<String, ? extends Object> context) {
+        LocalDispatcher dispatcher = dctx.getDispatcher();
+        return ServiceUtil.returnSuccess();
+    }
+
+}
@@ -0,0 +1,7 @@
+import org.ofbiz.base.util.*;
+import org.ofbiz.entity.*;
+
+delegator = request.getAttribute("delegator");
+leadId = parameters.get("leadId");
+list = delegator.findByAnd("Lead", UtilMisc.toMap("statusId", "LEAD_CREATED"));
+context.put("leadList", list);
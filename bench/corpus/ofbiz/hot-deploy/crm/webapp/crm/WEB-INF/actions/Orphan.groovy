@@ -0,0 +1 @@
+context.orphan = true
@@ -0,0 +1 @@
+<#macro field f>${f!}</#macro>
@@ -0,0 +1,34 @@
+<#-- Lead page 2 -->
+<div class="screenlet">
+  <h3>${uiLabelMap.LeadTitle}</h3>
+  <tr><td>${lead.leadField0!}</td><td><a href="<@ofbizUrl>lead0</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField1!}</td><td><a href="<@ofbizUrl>lead1</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField2!}</td><td><a href="<@ofbizUrl>lead2</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField3!}</td><td><a href="<@ofbizUrl>lead3</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField4!}</td><td><a href="<@ofbizUrl>lead4</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField5!}</td><td><a href="<@ofbizUrl>lead5</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField6!}</td><td><a href="<@ofbizUrl>lead6</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField7!}</td><td><a href="<@ofbizUrl>lead7</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField8!}</td><td><a href="<@ofbizUrl>lead8</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField9!}</td><td><a href="<@ofbizUrl>lead9</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField10!}</td><td><a href="<@ofbizUrl>lead10</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField11!}</td><td><a href="<@ofbizUrl>lead11</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField12!}</td><td><a href="<@ofbizUrl>lead12</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField13!}</td><td><a href="<@ofbizUrl>lead13</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField14!}</td><td><a href="<@ofbizUrl>lead14</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField15!}</td><td><a href="<@ofbizUrl>lead15</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField16!}</td><td><a href="<@ofbizUrl>lead16</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField17!}</td><td><a href="<@ofbizUrl>lead17</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField18!}</td><td><a href="<@ofbizUrl>lead18</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField19!}</td><td><a href="<@ofbizUrl>lead19</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField20!}</td><td><a href="<@ofbizUrl>lead20</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField21!}</td><td><a href="<@ofbizUrl>lead21</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField22!}</td><td><a href="<@ofbizUrl>lead22</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField23!}</td><td><a href="<@ofbizUrl>lead23</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField24!}</td><td><a href="<@ofbizUrl>lead24</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField25!}</td><td><a href="<@ofbizUrl>lead25</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField26!}</td><td><a href="<@ofbizUrl>lead26</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField27!}</td><td><a href="<@ofbizUrl>lead27</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField28!}</td><td><a href="<@ofbizUrl>lead28</@ofbizUrl>">edit</a></td></tr>
+  <tr><td>${lead.leadField29!}</td><td><a href="<@ofbizUrl>lead29</@ofbizUrl>">edit</a></td></tr>
+</div>
@@ -0,0 +1,127 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ucdetector.headless.HeadlessScanner;
+import org.ucdetector.search.FileBytes;
+import org.ucdetector.util.OfbizPaths;
+import org.ucdetector.util.OfbizScriptScanner;
+import org.ucdetector.util.OfbizScriptScanner.ScriptReferences;
+
+/**
+ * The component:// references: the scan of ftl/bsh files (see OfbizScriptScanner) in their text and in their bytes
+ * (FileBytes), with and without reading the file, and the conversion of the locations of the xml files into item
+ * names.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ComponentUriBenchmark {
+  private static final Pattern LOCATION_PATTERN = Pattern.compile("component://[^\"#]+");
+
+  private String ftlContent;
+  private String bshContent;
+  private HeadlessScanner scanner;
+  private File ftlFile;
+  private File bshFile;
+  private FileBytes ftlBytes;
+  private FileBytes bshBytes;
+  private String[] locations;
+
+  @Setup
+  public void setUp() throws IOException {
+    ftlContent = Corpus.read(Corpus.FTL);
+    bshContent = Corpus.read(Corpus.BSH);
+    scanner = Corpus.createScanner();
+    ftlFile = new File(Corpus.getOfbizHome(), Corpus.FTL);
+    bshFile = new File(Corpus.getOfbizHome(), Corpus.BSH);
+    ftlBytes = FileBytes.read(ftlFile, Corpus.ENCODING);
+    bshBytes = FileBytes.read(bshFile, Corpus.ENCODING);
+    List<String> locationList = new ArrayList<String>();
+    for (String relativePath : new String[] { Corpus.SCREENS, Corpus.CONTROLLER }) {
+      Matcher matcher = LOCATION_PATTERN.matcher(Corpus.read(relativePath));
+      while (matcher.find()) {
+        locationList.add(matcher.group());
+      }
+    }
+    locations = locationList.toArray(new String[locationList.size()]);
+  }
+
+  /** rendered screens, component:// locations and include directives */
+  @Benchmark
+  public ScriptReferences scanFtl() {
+    return OfbizScriptScanner.scan(ftlContent, true);
+  }
+
+  /** rendered screens, component:// locations and service names */
+  @Benchmark
+  public ScriptReferences scanBsh() {
+    return OfbizScriptScanner.scan(bshContent, false);
+  }
+
+  @Benchmark
+  public ScriptReferences scanFtlBytes() {
+    return OfbizScriptScanner.scan(ftlBytes, true);
+  }
+
+  @Benchmark
+  public ScriptReferences scanBshBytes() {
+    return OfbizScriptScanner.scan(bshBytes, false);
+  }
+
+  /** like the headless analyzer before FileBytes: the file is decoded and scanned */
+  @Benchmark
+  public ScriptReferences readAndScanFtl() throws IOException {
+    return OfbizScriptScanner.scan(scanner.readContent(ftlFile), true);
+  }
+
+  @Benchmark
+  public ScriptReferences readAndScanFtlBytes() throws IOException {
+    return OfbizScriptScanner.scan(FileBytes.read(ftlFile, Corpus.ENCODING), true);
+  }
+
+  @Benchmark
+  public ScriptReferences readAndScanBsh() throws IOException {
+    return OfbizScriptScanner.scan(scanner.readContent(bshFile), false);
+  }
+
+  @Benchmark
+  public ScriptReferences readAndScanBshBytes() throws IOException {
+    return OfbizScriptScanner.scan(FileBytes.read(bshFile, Corpus.ENCODING), false);
+  }
+
+  /** getPathOfLocation and getScreenFileOfLocation for every component:// location of a screen and controller file */
+  @Benchmark
+  public void locations(Blackhole blackhole) {
+    for (String location : locations) {
+      blackhole.consume(OfbizPaths.getPathOfLocation(location));
+      blackhole.consume(OfbizPaths.getScreenFileOfLocation(location));
+    }
+  }
+}
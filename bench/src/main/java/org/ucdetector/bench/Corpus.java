@@ -0,0 +1,49 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.bench;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.ucdetector.headless.HeadlessScanner;
+
+/**
+ * The fixed corpus of the benchmarks (bench/corpus/ofbiz). Another ofbiz home can be used with
+ * -jvmArgsAppend -Dorg.ucdetector.bench.corpus=/path/to/ofbiz, the file benchmarks need the files of the corpus.
+ */
+final class Corpus {
+  static final String ENCODING = "UTF-8";
+
+  static final String SERVICES = "applications/accounting/servicedef/services.xml";
+  static final String SECA = "applications/accounting/servicedef/secas.xml";
+  static final String CONTROLLER = "applications/accounting/webapp/accounting/WEB-INF/controller.xml";
+  static final String SCREENS = "applications/accounting/widget/AccountingScreens.xml";
+  static final String FTL = "applications/accounting/webapp/accounting/invoice/Invoice0.ftl";
+  static final String BSH = "applications/accounting/webapp/accounting/WEB-INF/actions/Invoice0.bsh";
+  static final String JAVA = "applications/accounting/src/org/ofbiz/accounting/accounting/InvoiceServices.java";
+
+  private Corpus() {
+    //only static methods
+  }
+
+  static File getOfbizHome() throws IOException {
+    File ofbizHome = new File(System.getProperty("org.ucdetector.bench.corpus", "corpus/ofbiz")).getCanonicalFile();
+    if (!ofbizHome.isDirectory()) {
+      throw new IOException("Corpus not found: " + ofbizHome + " (run from the bench folder or set "
+          + "-Dorg.ucdetector.bench.corpus)");
+    }
+    return ofbizHome;
+  }
+
+  static HeadlessScanner createScanner() throws IOException {
+    return new HeadlessScanner(getOfbizHome().getName(), ENCODING);
+  }
+
+  static String read(String relativePath) throws IOException {
+    return createScanner().readContent(new File(getOfbizHome(), relativePath));
+  }
+}
@@ -0,0 +1,799 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.bench;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.ucdetector.util.OfbizMessages;
+
+/**
+ * Writes a synthetic ofbiz home: components with services (and their java implementations), secas,
+ * controllers, views, screens, ftls and groovy/bsh scripts, in the layout of an ofbiz checkout.
+ *
+ * Every live item is referenced referenceDensity times on average, deadRatio of the items are not referenced at
+ * all. These dead items are written to expected-dead.txt in the format of the headless analyzer's report, so the
+ * report of the generated home can be compared with it. Items referenced only from unused items (e.g. the screen of
+ * a dead view) are expected with the message of the transitive check, see OfbizReferenceGraph.
+ *
+ * The same parameters and seed write the same files.
+ */
+public class CorpusGenerator {
+  public static final String EXPECTED_FILE_NAME = "expected-dead.txt";
+
+  private static final String[] VERBS = { "create", "update", "get", "delete", "find", "expire" };
+  private static final String[] SCRIPT_EXTENSIONS = { "groovy", "bsh" };
+
+  //kinds of the items
+  private static final int SERVICE = 0;
+  private static final int VIEW = 1;
+  private static final int SCREEN = 2;
+  private static final int FTL = 3;
+  private static final int SCRIPT = 4;
+
+  /** Just a container, the size and shape of the generated home */
+  public static final class Parameters {
+    public int components = 10;
+    public int services = 1000;
+    /** -1: derived from the number of services */
+    public int views = -1;
+    public int screens = -1;
+    public int ftls = -1;
+    public int scripts = -1;
+    /** average number of references of a live item, at least 1 */
+    public double referenceDensity = 2.0;
+    public double deadRatio = 0.1;
+    /** ratio of the views referencing a screen that does not exist */
+    public double missingScreenRatio = 0.02;
+    public long seed = 1;
+
+    int getViews() {
+      return views < 0 ? services / 2 : views;
+    }
+
+    int getScreens() {
+      return screens < 0 ? services / 2 : screens;
+    }
+
+    int getFtls() {
+      return ftls < 0 ? services / 4 : ftls;
+    }
+
+    int getScripts() {
+      return scripts < 0 ? services / 8 : scripts;
+    }
+  }
+
+  //--- model ---
+
+  /** Just a container, a service/view/screen/ftl/script */
+  private static final class Item {
+    final int kind;
+    /** index in the list of the component */
+    final int index;
+    final String name;
+    final Component component;
+    boolean dead;
+    /**
+     * screen: ftls, scripts and decorator screens, ftl: included ftls and rendered screens, script: rendered
+     * screens, view: the screen (empty if missing)
+     */
+    final List<Item> referenceList = new ArrayList<Item>();
+    /** line of the definition, set while writing */
+    int line;
+
+    Item(int kind, int index, String name, Component component) {
+      this.kind = kind;
+      this.index = index;
+      this.name = name;
+      this.component = component;
+    }
+  }
+
+  /** Just a container, a request-map with an optional service event and view response */
+  private static final class RequestMap {
+    final String uri;
+    Item service;
+    Item view;
+
+    RequestMap(String uri) {
+      this.uri = uri;
+    }
+  }
+
+  /** Just a container */
+  private static final class Component {
+    final String name;
+    /** applications or hot-deploy */
+    final String folder;
+    final List<Item> serviceList = new ArrayList<Item>();
+    final List<Item> viewList = new ArrayList<Item>();
+    final List<Item> screenList = new ArrayList<Item>();
+    final List<Item> ftlList = new ArrayList<Item>();
+    final List<Item> scriptList = new ArrayList<Item>();
+    final List<RequestMap> requestMapList = new ArrayList<RequestMap>();
+    /** trigger service, action service */
+    final List<Item[]> ecaList = new ArrayList<Item[]>();
+    /** services called from the java code */
+    final List<Item> javaCallList = new ArrayList<Item>();
+
+    Component(String name, String folder) {
+      this.name = name;
+      this.folder = folder;
+    }
+
+    String getCapitalizedName() {
+      return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    String getScreenFile() {
+      return name + "/widget/" + getCapitalizedName() + "Screens.xml";
+    }
+
+    String getWebappFolder() {
+      return name + "/webapp/" + name;
+    }
+
+    String getJavaClass() {
+      return "org.ofbiz." + name + "." + getCapitalizedName() + "Services";
+    }
+
+    String getFtlFile(Item ftl) {
+      return getWebappFolder() + "/ftl/" + ftl.name + ".ftl";
+    }
+
+    String getScriptFile(Item script) {
+      return getWebappFolder() + "/WEB-INF/actions/" + script.name + "." + SCRIPT_EXTENSIONS[script.index % 2];
+    }
+  }
+
+  /** Just a container, ordered like the report of the headless analyzer */
+  private static final class ExpectedFinding implements Comparable<ExpectedFinding> {
+    final String path;
+    final int line;
+    final String message;
+
+    ExpectedFinding(String path, int line, String message) {
+      this.path = path;
+      this.line = line;
+      this.message = message;
+    }
+
+    public int compareTo(ExpectedFinding other) {
+      int result = path.compareTo(other.path);
+      if (result == 0) {
+        result = line < other.line ? -1 : (line == other.line ? 0 : 1);
+      }
+      return result == 0 ? message.compareTo(other.message) : result;
+    }
+
+    @Override
+    public String toString() {
+      return path + ":" + line + ": " + message;
+    }
+  }
+
+  /** Counts the lines, so the definitions know their line */
+  private static final class LineWriter {
+    private final StringBuilder text = new StringBuilder();
+    private int line;
+
+    /** @return number of the written line */
+    int println(String s) {
+      text.append(s).append('\n');
+      return ++line;
+    }
+  }
+
+  private final Parameters parameters;
+  private final Random random;
+  private final List<Component> componentList = new ArrayList<Component>();
+  private final List<ExpectedFinding> expectedList = new ArrayList<ExpectedFinding>();
+  private int requestMapCount;
+
+  public CorpusGenerator(Parameters parameters) {
+    this.parameters = parameters;
+    this.random = new Random(parameters.seed);
+  }
+
+  public static void main(String[] args) throws IOException {
+    Parameters parameters = new Parameters();
+    File ofbizHome = null;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        if (!args[i].startsWith("-")) {
+          if (ofbizHome != null) {
+            throw new IllegalArgumentException(args[i]);
+          }
+          ofbizHome = new File(args[i]);
+        }
+        else if (i + 1 >= args.length) {
+          throw new IllegalArgumentException(args[i]);
+        }
+        else if ("-components".equals(args[i])) {
+          parameters.components = Math.max(1, Integer.parseInt(args[++i]));
+        }
+        else if ("-services".equals(args[i])) {
+          parameters.services = Integer.parseInt(args[++i]);
+        }
+        else if ("-views".equals(args[i])) {
+          parameters.views = Integer.parseInt(args[++i]);
+        }
+        else if ("-screens".equals(args[i])) {
+          parameters.screens = Integer.parseInt(args[++i]);
+        }
+        else if ("-ftls".equals(args[i])) {
+          parameters.ftls = Integer.parseInt(args[++i]);
+        }
+        else if ("-scripts".equals(args[i])) {
+          parameters.scripts = Integer.parseInt(args[++i]);
+        }
+        else if ("-density".equals(args[i])) {
+          parameters.referenceDensity = Math.max(1.0, Double.parseDouble(args[++i]));
+        }
+        else if ("-dead".equals(args[i])) {
+          parameters.deadRatio = Double.parseDouble(args[++i]);
+        }
+        else if ("-missingScreens".equals(args[i])) {
+          parameters.missingScreenRatio = Double.parseDouble(args[++i]);
+        }
+        else if ("-seed".equals(args[i])) {
+          parameters.seed = Long.parseLong(args[++i]);
+        }
+        else {
+          throw new IllegalArgumentException(args[i]);
+        }
+      }
+    }
+    catch (IllegalArgumentException e) {
+      ofbizHome = null;
+    }
+    if (ofbizHome == null || (ofbizHome.exists() && !isEmptyFolder(ofbizHome))) {
+      System.err.println("Usage: " + CorpusGenerator.class.getName() + " [-components n] [-services n] [-views n]"
+          + " [-screens n] [-ftls n] [-scripts n] [-density d] [-dead ratio] [-missingScreens ratio] [-seed n]"
+          + " ofbizHome\nofbizHome must not exist or be empty");
+      System.exit(2);
+    }
+    long start = System.currentTimeMillis();
+    int expectedCount = new CorpusGenerator(parameters).generate(ofbizHome);
+    System.err.println(expectedCount + " dead items written to " + new File(ofbizHome, EXPECTED_FILE_NAME) + ", "
+        + (System.currentTimeMillis() - start) + " ms");
+  }
+
+  private static boolean isEmptyFolder(File folder) {
+    String[] names = folder.list();
+    return names != null && names.length == 0;
+  }
+
+  /**
+   * Writes the ofbiz home and expected-dead.txt into it
+   * @return number of expected findings
+   */
+  @SuppressWarnings("javadoc")
+  public int generate(File ofbizHome) throws IOException {
+    createItems();
+    referenceServices();
+    referenceViewsAndScreens();
+    referenceFtlsAndScripts();
+    for (Component component : componentList) {
+      writeComponent(ofbizHome, component);
+    }
+    collectExpected();
+    Collections.sort(expectedList);
+    LineWriter expected = new LineWriter();
+    for (ExpectedFinding finding : expectedList) {
+      expected.println(finding.toString());
+    }
+    write(new File(ofbizHome, EXPECTED_FILE_NAME), expected);
+    return expectedList.size();
+  }
+
+  //--- items and references ---
+
+  private void createItems() {
+    for (int i = 0; i < parameters.components; i++) {
+      //like opentaps: most components in applications, some in hot-deploy
+      componentList.add(new Component("comp" + i, i % 4 == 3 ? "hot-deploy" : "applications"));
+    }
+    for (int i = 0; i < parameters.services; i++) {
+      addItem(SERVICE, VERBS[i % VERBS.length] + "C" + (i % componentList.size()) + "Item" + i, i);
+    }
+    for (int i = 0; i < parameters.getViews(); i++) {
+      addItem(VIEW, "View" + i, i);
+    }
+    for (int i = 0; i < parameters.getScreens(); i++) {
+      addItem(SCREEN, "Screen" + i, i);
+    }
+    for (int i = 0; i < parameters.getFtls(); i++) {
+      addItem(FTL, "Page" + i, i);
+    }
+    for (int i = 0; i < parameters.getScripts(); i++) {
+      addItem(SCRIPT, "Script" + i, i);
+    }
+  }
+
+  /** The items are spread round robin over the components */
+  private void addItem(int kind, String name, int itemIndex) {
+    Component component = componentList.get(itemIndex % componentList.size());
+    List<Item> itemList = getItems(component, kind);
+    Item item = new Item(kind, itemList.size(), name, component);
+    item.dead = random.nextDouble() < parameters.deadRatio;
+    itemList.add(item);
+  }
+
+  private static List<Item> getItems(Component component, int kind) {
+    switch (kind) {
+      case SERVICE:
+        return component.serviceList;
+      case VIEW:
+        return component.viewList;
+      case SCREEN:
+        return component.screenList;
+      case FTL:
+        return component.ftlList;
+      default:
+        return component.scriptList;
+    }
+  }
+
+  /** @return referenceDensity on average, at least 1 */
+  private int getReferenceCount() {
+    double density = parameters.referenceDensity;
+    int count = (int) density;
+    if (random.nextDouble() < density - count) {
+      count++;
+    }
+    return Math.max(1, count);
+  }
+
+  private <T> T pick(List<T> list) {
+    return list.get(random.nextInt(list.size()));
+  }
+
+  private List<Item> getItems(int kind, boolean onlyLive) {
+    List<Item> itemList = new ArrayList<Item>();
+    for (Component component : componentList) {
+      for (Item item : getItems(component, kind)) {
+        if (!onlyLive || !item.dead) {
+          itemList.add(item);
+        }
+      }
+    }
+    return itemList;
+  }
+
+  private RequestMap addRequestMap(Component component) {
+    RequestMap requestMap = new RequestMap("request" + requestMapCount++);
+    component.requestMapList.add(requestMap);
+    return requestMap;
+  }
+
+  /** From a controller event, a seca action or a dispatcher.runSync call in the java code of any component */
+  private void referenceServices() {
+    List<Item> liveServiceList = getItems(SERVICE, true);
+    for (Item service : liveServiceList) {
+      for (int i = getReferenceCount(); i > 0; i--) {
+        Component component = pick(componentList);
+        int site = random.nextInt(3);
+        if (site == 0) {
+          addRequestMap(component).service = service;
+        }
+        else if (site == 1) {
+          component.ecaList.add(new Item[] { pick(liveServiceList), service });
+        }
+        else {
+          component.javaCallList.add(service);
+        }
+      }
+    }
+  }
+
+  /**
+   * Views from request-maps of their controller. Screens from the pages of the views, from decorator-screens of
+   * other screens and rendered from ftls and scripts (screens.render("component://...#name")), every view has a page
+   */
+  private void referenceViewsAndScreens() {
+    List<Item> screenReferenceList = new ArrayList<Item>();
+    for (Item screen : getItems(SCREEN, true)) {
+      for (int i = getReferenceCount(); i > 0; i--) {
+        screenReferenceList.add(screen);
+      }
+    }
+    Collections.shuffle(screenReferenceList, random);
+    List<Item> liveScreenList = getItems(SCREEN, true);
+
+    for (Component component : componentList) {
+      for (Item view : component.viewList) {
+        if (!view.dead) {
+          for (int i = getReferenceCount(); i > 0; i--) {
+            addRequestMap(component).view = view;
+          }
+        }
+        if (random.nextDouble() < parameters.missingScreenRatio || liveScreenList.isEmpty()) {
+          continue;//no page
+        }
+        if (!screenReferenceList.isEmpty()) {
+          view.referenceList.add(screenReferenceList.remove(screenReferenceList.size() - 1));
+        }
+        else {
+          view.referenceList.add(pick(liveScreenList));
+        }
+      }
+    }
+    List<Item> allScreenList = getItems(SCREEN, false);
+    List<Item> renderingItemList = getItems(FTL, false);
+    renderingItemList.addAll(getItems(SCRIPT, false));
+    for (Item screen : screenReferenceList) {
+      if (!renderingItemList.isEmpty() && random.nextBoolean()) {
+        pick(renderingItemList).referenceList.add(screen);
+      }
+      else {
+        pick(allScreenList).referenceList.add(screen);
+      }
+    }
+  }
+
+  /** ftls from html-templates of screens or from includes of other ftls, scripts from screens */
+  private void referenceFtlsAndScripts() {
+    List<Item> allScreenList = getItems(SCREEN, false);
+    List<Item> allFtlList = getItems(FTL, false);
+    for (Component component : componentList) {
+      for (Item ftl : component.ftlList) {
+        if (ftl.dead) {
+          continue;
+        }
+        if (allScreenList.isEmpty() && allFtlList.size() < 2) {
+          ftl.dead = true;//nothing can reference it
+          continue;
+        }
+        for (int i = getReferenceCount(); i > 0; i--) {
+          if (allScreenList.isEmpty() || (allFtlList.size() > 1 && random.nextBoolean())) {
+            Item includingFtl = pick(allFtlList);
+            while (includingFtl == ftl) {
+              includingFtl = pick(allFtlList);
+            }
+            includingFtl.referenceList.add(ftl);
+          }
+          else {
+            pick(allScreenList).referenceList.add(ftl);
+          }
+        }
+      }
+      for (Item script : component.scriptList) {
+        if (!script.dead && allScreenList.isEmpty()) {
+          script.dead = true;
+        }
+        for (int i = script.dead ? 0 : getReferenceCount(); i > 0; i--) {
+          pick(allScreenList).referenceList.add(script);
+        }
+      }
+    }
+  }
+
+  private void collectExpected() {
+    Set<Item> usedOnlyByUnusedItemSet = getItemsUsedOnlyByUnusedItems();
+    for (Component component : componentList) {
+      String prefix = component.folder + "/";
+      for (Item service : component.serviceList) {
+        if (service.dead) {
+          expectedList.add(new ExpectedFinding(prefix + component.name + "/servicedef/services.xml", service.line,
+              OfbizMessages.getUnusedServiceMessage(service.name)));
+        }
+      }
+      String controller = prefix + component.getWebappFolder() + "/WEB-INF/controller.xml";
+      for (Item view : component.viewList) {
+        if (view.dead) {
+          expectedList.add(new ExpectedFinding(controller, view.line, OfbizMessages.UNUSED_VIEW_MESSAGE));
+        }
+        if (view.referenceList.isEmpty()) {
+          expectedList.add(new ExpectedFinding(controller, view.line, OfbizMessages.VIEW_WITHOUT_SCREEN_MESSAGE));
+        }
+      }
+      for (Item screen : component.screenList) {
+        if (screen.dead) {
+          expectedList.add(new ExpectedFinding(prefix + component.getScreenFile(), screen.line,
+              OfbizMessages.UNUSED_SCREEN_MESSAGE));
+        }
+        else if (usedOnlyByUnusedItemSet.contains(screen)) {
+          expectedList.add(new ExpectedFinding(prefix + component.getScreenFile(), screen.line, OfbizMessages
+              .getOnlyUsedByUnusedItemsMessage("screen")));
+        }
+      }
+      for (Item ftl : component.ftlList) {
+        if (ftl.dead) {
+          expectedList.add(new ExpectedFinding(prefix + component.getFtlFile(ftl), 1,
+              OfbizMessages.UNUSED_FTL_MESSAGE));
+        }
+        else if (usedOnlyByUnusedItemSet.contains(ftl)) {
+          expectedList.add(new ExpectedFinding(prefix + component.getFtlFile(ftl), 1, OfbizMessages
+              .getOnlyUsedByUnusedItemsMessage("file")));
+        }
+      }
+      for (Item script : component.scriptList) {
+        if (script.dead) {
+          expectedList.add(new ExpectedFinding(prefix + component.getScriptFile(script), 1,
+              OfbizMessages.UNUSED_BSH_OR_GROOVY_MESSAGE));
+        }
+        else if (usedOnlyByUnusedItemSet.contains(script)) {
+          expectedList.add(new ExpectedFinding(prefix + component.getScriptFile(script), 1, OfbizMessages
+              .getOnlyUsedByUnusedItemsMessage("file")));
+        }
+      }
+    }
+  }
+
+  /**
+   * The items that are referenced, but not reachable from the live views (the roots, like the request-maps for
+   * OfbizReferenceGraph). The services are called from outside and reference nothing, dead items are not referenced.
+   */
+  private Set<Item> getItemsUsedOnlyByUnusedItems() {
+    Set<Item> reachableSet = new HashSet<Item>();
+    LinkedList<Item> queue = new LinkedList<Item>(getItems(VIEW, true));
+    while (!queue.isEmpty()) {
+      Item item = queue.removeFirst();
+      if (reachableSet.add(item)) {
+        queue.addAll(item.referenceList);
+      }
+    }
+    Set<Item> usedOnlyByUnusedItemSet = new HashSet<Item>();
+    for (int kind : new int[] { VIEW, SCREEN, FTL, SCRIPT }) {
+      for (Item item : getItems(kind, false)) {
+        usedOnlyByUnusedItemSet.addAll(item.referenceList);
+      }
+    }
+    usedOnlyByUnusedItemSet.removeAll(reachableSet);
+    return usedOnlyByUnusedItemSet;
+  }
+
+  //--- files ---
+
+  private void writeComponent(File ofbizHome, Component component) throws IOException {
+    File componentFolder = new File(new File(ofbizHome, component.folder), component.name);
+    String location = "component://" + component.name;
+
+    LineWriter out = new LineWriter();
+    out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+    out.println("<ofbiz-component name=\"" + component.name + "\"");
+    out.println("        xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"");
+    out.println("        xsi:noNamespaceSchemaLocation=\"http://ofbiz.apache.org/dtds/ofbiz-component.xsd\">");
+    out.println("    <resource-loader name=\"main\" type=\"component\"/>");
+    out.println("    <classpath type=\"jar\" location=\"build/lib/*\"/>");
+    out.println("    <service-resource type=\"model\" loader=\"main\" location=\"servicedef/services.xml\"/>");
+    out.println("    <service-resource type=\"eca\" loader=\"main\" location=\"servicedef/secas.xml\"/>");
+    out.println("    <webapp name=\"" + component.name + "\" title=\"" + component.getCapitalizedName()
+        + "\" server=\"default-server\" location=\"webapp/" + component.name + "\" mount-point=\"/"
+        + component.name + "\"/>");
+    out.println("</ofbiz-component>");
+    write(new File(componentFolder, "ofbiz-component.xml"), out);
+
+    writeServices(componentFolder, component);
+    writeJava(componentFolder, component);
+    writeController(componentFolder, component, location);
+    writeScreens(componentFolder, component);
+    for (Item ftl : component.ftlList) {
+      out = new LineWriter();
+      out.println("<#-- " + ftl.name + " -->");
+      for (Item reference : ftl.referenceList) {
+        if (reference.kind == FTL) {
+          out.println("<#include \"component://" + reference.component.getFtlFile(reference) + "\"/>");
+        }
+      }
+      out.println("<div class=\"screenlet\">");
+      out.println("  <div class=\"screenlet-title-bar\">${uiLabelMap." + ftl.name + "Title}</div>");
+      for (int i = 0; i < 10; i++) {
+        out.println("  <tr><td>${item.field" + i + "!}</td><td><a href=\"<@ofbizUrl>edit" + ftl.name
+            + "</@ofbizUrl>\">${uiLabelMap.CommonEdit}</a></td></tr>");
+      }
+      for (Item reference : ftl.referenceList) {
+        if (reference.kind == SCREEN) {
+          out.println("  ${screens.render(\"" + getScreenLocation(reference) + "\")}");
+        }
+      }
+      out.println("</div>");
+      write(new File(componentFolder.getParentFile(), component.getFtlFile(ftl)), out);
+    }
+    for (Item script : component.scriptList) {
+      out = new LineWriter();
+      out.println("import org.ofbiz.base.util.UtilMisc;");
+      out.println("");
+      out.println("delegator = request.getAttribute(\"delegator\");");
+      out.println("list = delegator.findByAnd(\"" + script.name
+          + "Entity\", UtilMisc.toMap(\"statusId\", \"ACTIVE\"));");
+      out.println("context.put(\"" + script.name.toLowerCase() + "List\", list);");
+      for (Item screen : script.referenceList) {
+        out.println("screens.render(\"" + getScreenLocation(screen) + "\");");
+      }
+      write(new File(componentFolder.getParentFile(), component.getScriptFile(script)), out);
+    }
+  }
+
+  private static String getScreenLocation(Item screen) {
+    return "component://" + screen.component.getScreenFile() + "#" + screen.name;
+  }
+
+  private void writeServices(File componentFolder, Component component) throws IOException {
+    LineWriter out = new LineWriter();
+    out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+    out.println("<services xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"");
+    out.println("        xsi:noNamespaceSchemaLocation=\"http://ofbiz.apache.org/dtds/services.xsd\">");
+    out.println("    <description>" + component.getCapitalizedName() + " Services</description>");
+    for (Item service : component.serviceList) {
+      service.line = out.println("    <service name=\"" + service.name + "\" engine=\"java\" location=\""
+          + component.getJavaClass() + "\" invoke=\"" + service.name + "Impl\" auth=\"true\">");
+      out.println("        <description>" + service.name + "</description>");
+      out.println("        <attribute name=\"itemId\" type=\"String\" mode=\"INOUT\" optional=\"true\"/>");
+      out.println("    </service>");
+    }
+    out.println("</services>");
+    write(new File(componentFolder, "servicedef/services.xml"), out);
+
+    out = new LineWriter();
+    out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+    out.println("<service-eca xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"");
+    out.println("        xsi:noNamespaceSchemaLocation=\"http://ofbiz.apache.org/dtds/service-eca.xsd\">");
+    for (Item[] eca : component.ecaList) {
+      out.println("    <eca service=\"" + eca[0].name + "\" event=\"commit\">");
+      out.println("        <condition field-name=\"itemId\" operator=\"is-not-empty\"/>");
+      out.println("        <action service=\"" + eca[1].name + "\" mode=\"sync\"/>");
+      out.println("    </eca>");
+    }
+    out.println("</service-eca>");
+    write(new File(componentFolder, "servicedef/secas.xml"), out);
+  }
+
+  private void writeJava(File componentFolder, Component component) throws IOException {
+    String javaClass = component.getJavaClass();
+    int lastDot = javaClass.lastIndexOf('.');
+    LineWriter out = new LineWriter();
+    out.println("package " + javaClass.substring(0, lastDot) + ";");
+    out.println("");
+    out.println("import java.util.Map;");
+    out.println("");
+    out.println("import org.ofbiz.service.DispatchContext;");
+    out.println("import org.ofbiz.service.GenericServiceException;");
+    out.println("import org.ofbiz.service.LocalDispatcher;");
+    out.println("import org.ofbiz.service.ServiceUtil;");
+    out.println("");
+    out.println("public class " + javaClass.substring(lastDot + 1) + " {");
+    int methodCount = Math.max(1, component.serviceList.size());
+    for (int i = 0; i < methodCount; i++) {
+      out.println("");
+      if (component.serviceList.isEmpty()) {
+        out.println("    public static void callServices(DispatchContext dctx, Map<String, ? extends Object> context)");
+        out.println("            throws GenericServiceException {");
+      }
+      else {
+        out.println("    public static Map<String, Object> " + component.serviceList.get(i).name
+            + "Impl(DispatchContext dctx, Map<String, ? extends Object> context) throws GenericServiceException {");
+      }
+      out.println("        LocalDispatcher dispatcher = dctx.getDispatcher();");
+      for (int call = i; call < component.javaCallList.size(); call += methodCount) {
+        out.println("        dispatcher.runSync(\"" + component.javaCallList.get(call).name + "\", context);");
+      }
+      if (!component.serviceList.isEmpty()) {
+        out.println("        return ServiceUtil.returnSuccess();");
+      }
+      out.println("    }");
+    }
+    out.println("}");
+    write(new File(componentFolder, "src/" + javaClass.replace('.', '/') + ".java"), out);
+  }
+
+  private void writeController(File componentFolder, Component component, String location) throws IOException {
+    LineWriter out = new LineWriter();
+    out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+    out.println("<site-conf xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"");
+    out.println("        xsi:noNamespaceSchemaLocation=\"http://ofbiz.apache.org/dtds/site-conf.xsd\">");
+    out.println("    <include location=\"component://common/webcommon/WEB-INF/common-controller.xml\"/>");
+    for (RequestMap requestMap : component.requestMapList) {
+      out.println("    <request-map uri=\"" + requestMap.uri + "\">");
+      out.println("        <security https=\"true\" auth=\"true\"/>");
+      if (requestMap.service != null) {
+        out.println("        <event type=\"service\" invoke=\"" + requestMap.service.name + "\"/>");
+      }
+      if (requestMap.view != null) {
+        out.println("        <response name=\"success\" type=\"view\" value=\"" + requestMap.view.name + "\"/>");
+      }
+      else {
+        out.println("        <response name=\"success\" type=\"request\" value=\"main\"/>");
+      }
+      out.println("    </request-map>");
+    }
+    for (Item view : component.viewList) {
+      String page;
+      if (view.referenceList.isEmpty()) {
+        page = location + "/widget/MissingScreens.xml#Missing" + view.name;
+      }
+      else {
+        Item screen = view.referenceList.get(0);
+        page = "component://" + screen.component.getScreenFile() + "#" + screen.name;
+      }
+      view.line = out.println("    <view-map name=\"" + view.name + "\" type=\"screen\" page=\"" + page + "\"/>");
+    }
+    out.println("</site-conf>");
+    write(new File(componentFolder, "webapp/" + component.name + "/WEB-INF/controller.xml"), out);
+  }
+
+  /** The decorator-screens are written where the parser looks for them (screen/widgets) */
+  private void writeScreens(File componentFolder, Component component) throws IOException {
+    LineWriter out = new LineWriter();
+    out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+    out.println("<screens xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"");
+    out.println("        xsi:noNamespaceSchemaLocation=\"http://ofbiz.apache.org/dtds/widget-screen.xsd\">");
+    for (Item screen : component.screenList) {
+      List<Item> scriptList = new ArrayList<Item>();
+      List<Item> ftlList = new ArrayList<Item>();
+      List<Item> decoratorList = new ArrayList<Item>();
+      for (Item reference : screen.referenceList) {
+        if (reference.kind == SCRIPT) {
+          scriptList.add(reference);
+        }
+        else if (reference.kind == FTL) {
+          ftlList.add(reference);
+        }
+        else {
+          decoratorList.add(reference);
+        }
+      }
+      screen.line = out.println("    <screen name=\"" + screen.name + "\">");
+      out.println("        <section>");
+      out.println("            <actions>");
+      out.println("                <set field=\"titleProperty\" value=\"Page" + screen.name + "\"/>");
+      for (Item script : scriptList) {
+        out.println("                <script location=\"component://" + script.component.getScriptFile(script)
+            + "\"/>");
+      }
+      out.println("            </actions>");
+      out.println("            <widgets>");
+      out.println("                <platform-specific>");
+      out.println("                    <html>");
+      for (Item ftl : ftlList) {
+        out.println("                        <html-template location=\"component://" + ftl.component.getFtlFile(ftl)
+            + "\"/>");
+      }
+      out.println("                    </html>");
+      out.println("                </platform-specific>");
+      out.println("            </widgets>");
+      out.println("        </section>");
+      if (!decoratorList.isEmpty()) {
+        out.println("        <widgets>");
+        for (Item decorator : decoratorList) {
+          out.println("            <decorator-screen name=\"" + decorator.name + "\" location=\"component://"
+              + decorator.component.getScreenFile() + "\"/>");
+        }
+        out.println("        </widgets>");
+      }
+      out.println("    </screen>");
+    }
+    out.println("</screens>");
+    write(new File(componentFolder, "widget/" + component.getCapitalizedName() + "Screens.xml"), out);
+  }
+
+  private static void write(File file, LineWriter out) throws IOException {
+    File folder = file.getParentFile();
+    if (!folder.isDirectory() && !folder.mkdirs()) {
+      throw new IOException("Can not create folder " + folder);
+    }
+    Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+    try {
+      writer.write(out.text.toString());
+    }
+    finally {
+      writer.close();
+    }
+  }
+}
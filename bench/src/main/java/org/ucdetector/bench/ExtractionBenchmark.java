@@ -0,0 +1,101 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ucdetector.headless.HeadlessScanner;
+import org.ucdetector.util.OfbizDefinitions;
+
+/**
+ * Extraction of the definitions of one file per file type by OfbizDefinitionsExtractor, which
+ * OfbizSpecificXmlParser.extractDefinitions uses for each file of the project (the xml files through
+ * OfbizXmlHandler).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExtractionBenchmark {
+
+  @Param( { "services", "controller", "screens", "seca", "ftl", "bsh" })
+  public String fileType;
+
+  private HeadlessScanner scanner;
+  private File file;
+  private String relativePath;
+  private byte[] bytes;
+  private String content;
+  private OfbizDefinitions fileDefinitions;
+
+  @Setup
+  public void setUp() throws IOException {
+    if ("services".equals(fileType)) {
+      relativePath = Corpus.SERVICES;
+    }
+    else if ("controller".equals(fileType)) {
+      relativePath = Corpus.CONTROLLER;
+    }
+    else if ("screens".equals(fileType)) {
+      relativePath = Corpus.SCREENS;
+    }
+    else if ("seca".equals(fileType)) {
+      relativePath = Corpus.SECA;
+    }
+    else if ("ftl".equals(fileType)) {
+      relativePath = Corpus.FTL;
+    }
+    else {
+      relativePath = Corpus.BSH;
+    }
+    scanner = Corpus.createScanner();
+    file = new File(Corpus.getOfbizHome(), relativePath);
+    bytes = Files.readAllBytes(file.toPath());
+    content = scanner.readContent(file);
+    fileDefinitions = extract();
+  }
+
+  /** Only the extraction, the xml files are parsed from their bytes, the text of the other files is scanned */
+  @Benchmark
+  public OfbizDefinitions extract() throws IOException {
+    if (relativePath.endsWith(".xml")) {
+      return scanner.extractDefinitionsFromXml(relativePath, new ByteArrayInputStream(bytes));
+    }
+    return scanner.extractDefinitionsFromScript(relativePath, content);
+  }
+
+  /** Root element check, reading and extraction, like the scan of the headless analyzer */
+  @Benchmark
+  public OfbizDefinitions readAndExtract() throws IOException {
+    return scanner.scan(file, relativePath);
+  }
+
+  /** Adding the definitions of the file to the ones of the project, like the shards of the search are merged */
+  @Benchmark
+  public OfbizDefinitions merge() {
+    OfbizDefinitions definitions = new OfbizDefinitions();
+    definitions.addAll(fileDefinitions);
+    return definitions;
+  }
+}
@@ -0,0 +1,67 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ucdetector.search.LineOffsetTable;
+
+/**
+ * getLineNumber of the offsets of the service names in a services file, like the markers of searchServicesDefinitions
+ * need them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LineNumberBenchmark {
+
+  private String content;
+  private LineOffsetTable lineOffsetTable;
+  private int[] offsets;
+
+  @Setup
+  public void setUp() throws IOException {
+    content = Corpus.read(Corpus.SERVICES);
+    lineOffsetTable = LineOffsetTable.create(content);
+    int count = 0;
+    for (int offset = content.indexOf("name=\""); offset >= 0; offset = content.indexOf("name=\"", offset + 1)) {
+      count++;
+    }
+    offsets = new int[count];
+    count = 0;
+    for (int offset = content.indexOf("name=\""); offset >= 0; offset = content.indexOf("name=\"", offset + 1)) {
+      offsets[count++] = offset;
+    }
+  }
+
+  @Benchmark
+  public LineOffsetTable createTable() {
+    return LineOffsetTable.create(content);
+  }
+
+  @Benchmark
+  public void getLineNumber(Blackhole blackhole) {
+    for (int offset : offsets) {
+      blackhole.consume(lineOffsetTable.getLineNumber(offset));
+    }
+  }
+}
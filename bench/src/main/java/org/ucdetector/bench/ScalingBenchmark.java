@@ -0,0 +1,104 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ucdetector.headless.OfbizHeadlessAnalyzer;
+
+/**
+ * The whole analysis of generated homes of growing size (see CorpusGenerator), for the growth curve. Larger sizes
+ * can be given with -p services=100000. The setup fails if the report is not the expected dead set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ScalingBenchmark {
+
+  @Param( { "100", "1000", "10000" })
+  public int services;
+
+  @Param( { "1" })
+  public int threads;
+
+  private File folder;
+  private File ofbizHome;
+
+  @Setup
+  public void setUp() throws IOException {
+    folder = File.createTempFile("ucdetector-corpus", "");
+    if (!folder.delete() || !folder.mkdir()) {
+      throw new IOException("Can not create folder " + folder);
+    }
+    ofbizHome = new File(folder, "ofbiz");
+    CorpusGenerator.Parameters parameters = new CorpusGenerator.Parameters();
+    parameters.services = services;
+    parameters.components = Math.max(1, services / 500);
+    new CorpusGenerator(parameters).generate(ofbizHome);
+
+    List<String> expectedList = readLines(new File(ofbizHome, CorpusGenerator.EXPECTED_FILE_NAME));
+    if (!expectedList.equals(analyze())) {
+      throw new IllegalStateException("The report of " + ofbizHome + " is not " + CorpusGenerator.EXPECTED_FILE_NAME);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    delete(folder);
+  }
+
+  @Benchmark
+  public List<String> analyze() throws IOException {
+    return new OfbizHeadlessAnalyzer(ofbizHome, Corpus.ENCODING, threads).analyze();
+  }
+
+  private static List<String> readLines(File file) throws IOException {
+    List<String> lineList = new ArrayList<String>();
+    BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), Corpus.ENCODING));
+    try {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        lineList.add(line);
+      }
+    }
+    finally {
+      reader.close();
+    }
+    return lineList;
+  }
+
+  private static void delete(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+}
@@ -0,0 +1,124 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.bench;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ucdetector.headless.OfbizHeadlessAnalyzer;
+import org.ucdetector.headless.OfbizHeadlessAnalyzer.Finding;
+import org.ucdetector.search.OfbizReferenceGraph;
+import org.ucdetector.search.OfbizUsageRules;
+
+/**
+ * The phases of the analysis of the whole corpus. The search* methods of OfbizSpecificSearchManager create eclipse
+ * markers, so their checks are measured through the headless analyzer, both decide by the same OfbizUsageRules.
+ * searchServices is measured in ServiceBenchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+  /** scanned and indexed once */
+  private OfbizHeadlessAnalyzer analyzer;
+
+  @Setup
+  public void setUp() throws IOException {
+    analyzer = createAnalyzer();
+    analyzer.scan();
+    analyzer.indexServiceNameLiterals();
+  }
+
+  private static OfbizHeadlessAnalyzer createAnalyzer() throws IOException {
+    return new OfbizHeadlessAnalyzer(Corpus.getOfbizHome(), Corpus.ENCODING, 1);
+  }
+
+  //--- phases ---
+
+  @Benchmark
+  public OfbizHeadlessAnalyzer scan() throws IOException {
+    OfbizHeadlessAnalyzer scanAnalyzer = createAnalyzer();
+    scanAnalyzer.scan();
+    return scanAnalyzer;
+  }
+
+  /** scan and index, the index needs the service names */
+  @Benchmark
+  public OfbizHeadlessAnalyzer scanAndIndex() throws IOException {
+    OfbizHeadlessAnalyzer indexAnalyzer = createAnalyzer();
+    indexAnalyzer.scan();
+    indexAnalyzer.indexServiceNameLiterals();
+    return indexAnalyzer;
+  }
+
+  @Benchmark
+  public List<String> analyze() throws IOException {
+    return createAnalyzer().analyze();
+  }
+
+  //--- checks ---
+
+  @Benchmark
+  public List<Finding> searchServicesDefinitions() {
+    return analyzer.searchServicesDefinitions();
+  }
+
+  @Benchmark
+  public List<Finding> searchFtls() {
+    return analyzer.searchFtls();
+  }
+
+  @Benchmark
+  public List<Finding> searchBshOrGroovyFiles() {
+    return analyzer.searchBshOrGroovyFiles();
+  }
+
+  @Benchmark
+  public List<Finding> searchViews() {
+    return analyzer.searchViews();
+  }
+
+  @Benchmark
+  public List<Finding> searchScreens() {
+    return analyzer.searchScreens();
+  }
+
+  @Benchmark
+  public List<Finding> searchTransitivelyUnused() {
+    return analyzer.searchTransitivelyUnused();
+  }
+
+  //--- shared with eclipse ---
+
+  /** The rules are created once per search, before the checks */
+  @Benchmark
+  public OfbizUsageRules createRules() {
+    OfbizUsageRules rules = analyzer.getRules();
+    return new OfbizUsageRules(rules.getDefinitions(), rules.getServiceNameLiteralIndex());
+  }
+
+  /** Only building the graph, searchTransitivelyUnused also walks it */
+  @Benchmark
+  public OfbizReferenceGraph createReferenceGraph() {
+    return analyzer.getRules().createReferenceGraph();
+  }
+}
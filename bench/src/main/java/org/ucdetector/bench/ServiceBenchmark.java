@@ -0,0 +1,130 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ucdetector.util.OfbizServiceSignature;
+
+/**
+ * The checks of the java methods: isOfbizService of the iterator (signature) and searchServices (service
+ * definition of the method). The methods of the corpus are read with a regex, the parameter types are converted
+ * to the signatures IMethod.getParameterTypes() returns.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+  private static final Pattern METHOD_PATTERN = Pattern
+      .compile("public static [\\w<>, ?]+ (\\w+)\\(([\\w<>, ?]+) \\w+, ([\\w<>, ?]+) \\w+\\)");
+  private static final Pattern SERVICE_PATTERN = Pattern
+      .compile("<service name=\"([^\"]+)\"[^>]*?location=\"([^\"]+)\" invoke=\"([^\"]+)\"");
+  /** the parameters of methods that are no services */
+  private static final String[][] OTHER_PARAMETER_TYPES = { {}, { "QString;" }, { "QDelegator;", "QString;" },
+      { "QDispatchContext;", "QList<QString;>;" }, { "QHttpServletRequest;", "QHttpServletResponse;" } };
+
+  private String declaringType;
+  private String[] methodNames;
+  private String[][] parameterTypes;
+  private final Map<String, String> serviceMethodToNameMap = new HashMap<String, String>();
+
+  @Setup
+  public void setUp() throws IOException {
+    String javaContent = Corpus.read(Corpus.JAVA);
+    Matcher packageMatcher = Pattern.compile("package ([\\w.]+);").matcher(javaContent);
+    Matcher classMatcher = Pattern.compile("public class (\\w+)").matcher(javaContent);
+    if (!packageMatcher.find() || !classMatcher.find()) {
+      throw new IOException("No class in " + Corpus.JAVA);
+    }
+    declaringType = packageMatcher.group(1) + "." + classMatcher.group(1);
+
+    List<String> methodNameList = new ArrayList<String>();
+    List<String[]> parameterTypeList = new ArrayList<String[]>();
+    Matcher methodMatcher = METHOD_PATTERN.matcher(javaContent);
+    for (int i = 0; methodMatcher.find(); i++) {
+      methodNameList.add(methodMatcher.group(1));
+      parameterTypeList.add(new String[] { toSignature(methodMatcher.group(2)), toSignature(methodMatcher.group(3)) });
+      methodNameList.add(methodMatcher.group(1) + "Helper");
+      parameterTypeList.add(OTHER_PARAMETER_TYPES[i % OTHER_PARAMETER_TYPES.length]);
+    }
+    methodNames = methodNameList.toArray(new String[methodNameList.size()]);
+    parameterTypes = parameterTypeList.toArray(new String[parameterTypeList.size()][]);
+
+    Matcher serviceMatcher = SERVICE_PATTERN.matcher(Corpus.read(Corpus.SERVICES));
+    while (serviceMatcher.find()) {
+      serviceMethodToNameMap.put(serviceMatcher.group(2) + "." + serviceMatcher.group(3), serviceMatcher.group(1));
+    }
+  }
+
+  /** @return "QMap<QString;+QObject;>;" for "Map<String, ? extends Object>" */
+  private static String toSignature(String type) {
+    String trimmed = type.trim();
+    if ("?".equals(trimmed)) {
+      return "*";
+    }
+    if (trimmed.startsWith("? extends ")) {
+      return "+" + toSignature(trimmed.substring("? extends ".length()));
+    }
+    int start = trimmed.indexOf('<');
+    if (start < 0) {
+      return "Q" + trimmed + ";";
+    }
+    StringBuilder signature = new StringBuilder("Q").append(trimmed.substring(0, start)).append('<');
+    int depth = 0;
+    int argumentStart = start + 1;
+    for (int i = argumentStart; i < trimmed.length(); i++) {
+      char c = trimmed.charAt(i);
+      if (c == '<') {
+        depth++;
+      }
+      else if ((c == ',' && depth == 0) || (c == '>' && depth-- == 0)) {
+        signature.append(toSignature(trimmed.substring(argumentStart, i)));
+        argumentStart = i + 1;
+      }
+    }
+    return signature.append(">;").toString();
+  }
+
+  /** isOfbizService of OfbizSpecificUCDetectorIterator, without isStatic/isPublic */
+  @Benchmark
+  public void isServiceSignature(Blackhole blackhole) {
+    for (String[] types : parameterTypes) {
+      blackhole.consume(OfbizServiceSignature.isServiceParameterTypes(types));
+    }
+  }
+
+  /** Signature check and the lookup of hasOfbizServiceReference for the methods looking like a service */
+  @Benchmark
+  public void searchServices(Blackhole blackhole) {
+    for (int i = 0; i < methodNames.length; i++) {
+      if (OfbizServiceSignature.isServiceParameterTypes(parameterTypes[i])) {
+        blackhole.consume(serviceMethodToNameMap.get(declaringType + "." + methodNames[i]));
+      }
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileBytesTest {
+
+  private static final byte[] BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+  /** a with diaeresis, 2 bytes in UTF-8 */
+  private static final byte[] A_UMLAUT = { (byte) 0xC3, (byte) 0xA4 };
+  /** an emoji, 4 bytes in UTF-8 and a surrogate pair in java */
+  private static final byte[] EMOJI = { (byte) 0xF0, (byte) 0x9F, (byte) 0x98, (byte) 0x80 };
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static byte[] concat(Object... parts) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (Object part : parts) {
+      out.write(part instanceof String ? ((String) part).getBytes("US-ASCII") : (byte[]) part);
+    }
+    return out.toByteArray();
+  }
+
+  private static FileBytes create(byte[] bytes, String charset) {
+    return FileBytes.create(ByteBuffer.wrap(bytes), charset);
+  }
+
+  @Test
+  public void testBom() throws IOException {
+    FileBytes fileBytes = create(concat(BOM, "<a/>"), "UTF-8");
+    assertEquals(4, fileBytes.length());
+    assertEquals('<', fileBytes.charAt(0));
+    assertEquals("<a/>", fileBytes.subSequence(0, 4).toString());
+    assertEquals(0, fileBytes.getCharOffset(0));
+  }
+
+  /** Only UTF-8 has a byte order mark, in ISO-8859-1 the bytes are characters */
+  @Test
+  public void testBomBytesInSingleByteCharset() throws IOException {
+    assertEquals(7, create(concat(BOM, "<a/>"), "ISO-8859-1").length());
+  }
+
+  @Test
+  public void testCharOffsets() throws IOException {
+    FileBytes fileBytes = create(concat(A_UMLAUT, "x", EMOJI, "y"), "UTF-8");
+    assertEquals(8, fileBytes.length());
+    assertEquals(1, fileBytes.getCharOffset(2));
+    assertEquals(2, fileBytes.getCharOffset(3));
+    assertEquals(4, fileBytes.getCharOffset(7));
+    //backwards
+    assertEquals(1, fileBytes.getCharOffset(2));
+    assertEquals(0, fileBytes.getCharOffset(0));
+    assertEquals(new String(concat(A_UMLAUT, "x"), "UTF-8"), fileBytes.decode(0, 3));
+  }
+
+  @Test
+  public void testCharOffsetsInSingleByteCharset() throws IOException {
+    FileBytes fileBytes = create(concat(new byte[] { (byte) 0xE4 }, "x"), "windows-1252");
+    assertEquals(1, fileBytes.getCharOffset(1));
+    assertEquals(new String(new byte[] { (byte) 0xE4 }, "windows-1252"), fileBytes.decode(0, 1));
+  }
+
+  @Test
+  public void testCrLf() throws IOException {
+    FileBytes fileBytes = create(concat(BOM, "a\r\nb\r\n\r\nc"), "UTF-8");
+    assertEquals(1, fileBytes.getLineNumber(1));
+    assertEquals(2, fileBytes.getLineNumber(3));
+    assertEquals(4, fileBytes.getLineNumber(8));
+    assertEquals(1, fileBytes.getLineNumber(0));
+    assertEquals(8, fileBytes.getCharOffset(8));
+  }
+
+  /** The index after the last byte, like the end of a match at the end of the file */
+  @Test
+  public void testEndOfFile() throws IOException {
+    FileBytes fileBytes = create(concat("a\n", A_UMLAUT), "UTF-8");
+    assertEquals(2, fileBytes.getLineNumber(fileBytes.length()));
+    assertEquals(3, fileBytes.getCharOffset(fileBytes.length()));
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    File file = temporaryFolder.newFile("empty.xml");
+    FileBytes fileBytes = FileBytes.create(FileBytes.readOrMap(file, true), "UTF-8");
+    assertEquals(0, fileBytes.length());
+    assertEquals(1, fileBytes.getLineNumber(0));
+    assertEquals(0, create(BOM, "UTF-8").length());
+  }
+
+  @Test
+  public void testReadOrMap() throws IOException {
+    byte[] bytes = new byte[FileBytes.MAP_THRESHOLD + 10];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) ('a' + i % 26);
+    }
+    File file = temporaryFolder.newFile("large.xml");
+    FileOutputStream out = new FileOutputStream(file);
+    try {
+      out.write(bytes);
+    }
+    finally {
+      out.close();
+    }
+    ByteBuffer mapped = FileBytes.readOrMap(file, true);
+    ByteBuffer read = FileBytes.readOrMap(file, false);
+    assertTrue(mapped instanceof MappedByteBuffer);
+    assertFalse(read instanceof MappedByteBuffer);
+    assertEquals(ByteBuffer.wrap(bytes), mapped);
+    assertEquals(ByteBuffer.wrap(bytes), read);
+  }
+
+  @Test
+  public void testAsciiCompatibleCharset() {
+    assertEquals("UTF-8", FileBytes.getAsciiCompatibleCharset("utf8"));
+    assertEquals("windows-1252", FileBytes.getAsciiCompatibleCharset("Cp1252"));
+    assertEquals("ISO-8859-1", FileBytes.getAsciiCompatibleCharset("ISO-8859-1"));
+    assertNull(FileBytes.getAsciiCompatibleCharset("UTF-16"));
+    assertNull(FileBytes.getAsciiCompatibleCharset("Shift_JIS"));
+    assertNull(FileBytes.getAsciiCompatibleCharset("no such charset"));
+  }
+
+  @Test
+  public void testIsAscii() {
+    assertTrue(FileBytes.isAscii("\"createOrder\""));
+    assertTrue(FileBytes.isAscii(""));
+    assertFalse(FileBytes.isAscii("caf" + (char) 0xE9));
+  }
+}
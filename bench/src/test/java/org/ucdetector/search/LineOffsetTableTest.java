@@ -0,0 +1,84 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LineOffsetTableTest {
+
+  @Test
+  public void testLines() {
+    LineOffsetTable table = LineOffsetTable.create("ab\ncd\n\nef");
+    assertEquals(4, table.getLineCount());
+    assertEquals(1, table.getLineNumber(0));
+    assertEquals(1, table.getLineNumber(2));
+    assertEquals(2, table.getLineNumber(3));
+    assertEquals(3, table.getLineNumber(6));
+    assertEquals(4, table.getLineNumber(7));
+    assertEquals(0, table.getLineStartOffset(1));
+    assertEquals(3, table.getLineStartOffset(2));
+    assertEquals(7, table.getLineStartOffset(4));
+    assertEquals(-1, table.getLineStartOffset(0));
+    assertEquals(-1, table.getLineStartOffset(5));
+  }
+
+  /** The \r belongs to the line it ends, like for the line numbers of the editor */
+  @Test
+  public void testCrLf() {
+    LineOffsetTable table = LineOffsetTable.create("a\r\nb\r\n");
+    assertEquals(3, table.getLineCount());
+    assertEquals(1, table.getLineNumber(1));
+    assertEquals(2, table.getLineNumber(3));
+    assertEquals(2, table.getLineNumber(4));
+    assertEquals(3, table.getLineStartOffset(2));
+  }
+
+  @Test
+  public void testBom() {
+    LineOffsetTable table = LineOffsetTable.create("\uFEFF<a/>\n<b/>");
+    assertEquals(1, table.getLineNumber(1));
+    assertEquals(6, table.getLineStartOffset(2));
+  }
+
+  /** The offset after the last character is in the last line */
+  @Test
+  public void testEndOfFile() {
+    String content = "a\nbc";
+    LineOffsetTable table = LineOffsetTable.create(content);
+    assertEquals(2, table.getLineNumber(content.length()));
+    LineOffsetTable newLineAtEndTable = LineOffsetTable.create("a\n");
+    assertEquals(2, newLineAtEndTable.getLineNumber(2));
+  }
+
+  @Test
+  public void testEmpty() {
+    LineOffsetTable table = LineOffsetTable.create("");
+    assertEquals(1, table.getLineCount());
+    assertEquals(1, table.getLineNumber(0));
+    assertEquals(0, table.getLineStartOffset(1));
+  }
+
+  /** More lines than the initial array, every offset compared with counting the new lines */
+  @Test
+  public void testManyLines() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      sb.append(i % 3 == 0 ? "" : "line").append('\n');
+    }
+    LineOffsetTable table = LineOffsetTable.create(sb);
+    assertEquals(101, table.getLineCount());
+    int lineNumber = 1;
+    for (int offset = 0; offset <= sb.length(); offset++) {
+      assertEquals(lineNumber, table.getLineNumber(offset));
+      if (offset < sb.length() && sb.charAt(offset) == '\n') {
+        lineNumber++;
+      }
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.ucdetector.search.MultiPatternMatcher.MatchListener;
+
+public class MultiPatternMatcherTest {
+
+  /** @return "pattern@offset" for every occurrence, in the order of the listener calls */
+  private static List<String> match(final MultiPatternMatcher matcher, String text) {
+    final List<String> matchList = new ArrayList<String>();
+    matcher.match(text, new MatchListener() {
+      public void patternMatched(int patternIndex, int offset) {
+        matchList.add(matcher.getPattern(patternIndex) + "@" + offset);
+      }
+    });
+    return matchList;
+  }
+
+  private static MultiPatternMatcher createMatcher(String... patterns) {
+    return new MultiPatternMatcher(Arrays.asList(patterns));
+  }
+
+  @Test
+  public void testOverlapping() {
+    MultiPatternMatcher matcher = createMatcher("he", "she", "his", "hers");
+    assertEquals(Arrays.asList("she@1", "he@2", "hers@2"), match(matcher, "ushers"));
+  }
+
+  @Test
+  public void testPatternInPattern() {
+    MultiPatternMatcher matcher = createMatcher("\"createOrder\"", "Order", "r");
+    assertEquals(Arrays.asList("r@2", "r@8", "Order@7", "r@11", "\"createOrder\"@0"),
+        match(matcher, "\"createOrder\""));
+  }
+
+  @Test
+  public void testRepeated() {
+    MultiPatternMatcher matcher = createMatcher("aa");
+    assertEquals(Arrays.asList("aa@0", "aa@1", "aa@2"), match(matcher, "aaaa"));
+  }
+
+  @Test
+  public void testMatchAtEnd() {
+    MultiPatternMatcher matcher = createMatcher("end");
+    assertEquals(Arrays.asList("end@7"), match(matcher, "the en\nend"));
+  }
+
+  @Test
+  public void testEmptyAndDuplicatePatterns() {
+    MultiPatternMatcher matcher = createMatcher("", "a", "a");
+    assertEquals(1, matcher.getPatternCount());
+    assertEquals(Arrays.asList("a@0"), match(matcher, "a"));
+  }
+
+  @Test
+  public void testEmpty() {
+    assertEquals(Collections.emptyList(), match(createMatcher("a"), ""));
+    MultiPatternMatcher emptyMatcher = new MultiPatternMatcher(Collections.<String> emptyList());
+    assertEquals(0, emptyMatcher.getPatternCount());
+    assertEquals(Collections.emptyList(), match(emptyMatcher, "abc"));
+  }
+
+  /** Same occurrences as indexOf for each pattern */
+  @Test
+  public void testRandom() {
+    Random random = new Random(42);
+    for (int round = 0; round < 200; round++) {
+      List<String> patternList = new ArrayList<String>();
+      for (int i = 0; i < 5; i++) {
+        patternList.add(randomString(random, 1 + random.nextInt(4)));
+      }
+      String text = randomString(random, random.nextInt(60));
+      MultiPatternMatcher matcher = new MultiPatternMatcher(patternList);
+
+      List<String> expectedList = new ArrayList<String>();
+      for (int i = 0; i < matcher.getPatternCount(); i++) {
+        String pattern = matcher.getPattern(i);
+        for (int offset = text.indexOf(pattern); offset >= 0; offset = text.indexOf(pattern, offset + 1)) {
+          expectedList.add(pattern + "@" + offset);
+        }
+      }
+      List<String> matchList = match(matcher, text);
+      Collections.sort(expectedList);
+      Collections.sort(matchList);
+      assertEquals(text, expectedList, matchList);
+    }
+  }
+
+  private static String randomString(Random random, int length) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      sb.append("ab\"\n".charAt(random.nextInt(4)));
+    }
+    return sb.toString();
+  }
+}
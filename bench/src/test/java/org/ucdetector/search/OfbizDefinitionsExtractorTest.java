@@ -0,0 +1,266 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+
+import org.junit.Test;
+import org.ucdetector.util.ItemLocation;
+import org.ucdetector.util.OfbizDefinitions;
+import org.ucdetector.util.ReferenceAndLocation;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * The definitions streamed through OfbizXmlHandler have to be the ones the DOM + XPath extraction found before, see
+ * XPathDefinitions. The fixtures are in src/test/resources.
+ */
+public class OfbizDefinitionsExtractorTest {
+
+  private static final String PROJECT = "proj";
+  private static final String FOLDER = "/" + PROJECT + "/applications/accounting/";
+
+  /** The collections of the DOM + XPath extraction, with the expressions and the rules it used */
+  private static final class XPathDefinitions {
+    final Map<String, String> serviceMethodToNameMap = new HashMap<String, String>();
+    final Map<String, String> serviceNameAndFilePathMap = new HashMap<String, String>();
+    final Set<String> referencedServiceList = new HashSet<String>();
+    final Set<String> referencedViewList = new HashSet<String>();
+    /** view name -> referenced screen */
+    final Map<String, String> viewDefinitionMap = new HashMap<String, String>();
+    final Set<String> referencedScreenList = new HashSet<String>();
+    final Set<String> referencedFtlList = new HashSet<String>();
+    final Set<String> referencedBshOrGroovyList = new HashSet<String>();
+    final Set<String> screenNameSet = new HashSet<String>();
+
+    XPathDefinitions(String path, byte[] bytes) throws Exception {
+      Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(
+          new ByteArrayInputStream(bytes));
+      XPath xPath = XPathFactory.newInstance().newXPath();
+
+      for (Element service : evaluate(xPath, document, "/services/service")) {
+        if (service.hasAttribute("location") && service.hasAttribute("invoke")) {
+          serviceMethodToNameMap.put(service.getAttribute("location") + "." + service.getAttribute("invoke"),
+              service.getAttribute("name"));
+          serviceNameAndFilePathMap.put(service.getAttribute("name"), path);
+        }
+      }
+
+      for (Element event : evaluate(xPath, document, "/site-conf/request-map/event[@type='service']")) {
+        if (event.hasAttribute("invoke")) {
+          referencedServiceList.add(event.getAttribute("invoke"));
+        }
+      }
+      for (Element response : evaluate(xPath, document, "/site-conf/request-map/response[@type='view']")) {
+        if (response.hasAttribute("value")) {
+          referencedViewList.add(path + "#" + response.getAttribute("value"));
+        }
+      }
+      for (Element viewMap : evaluate(xPath, document, "/site-conf/view-map")) {
+        if (viewMap.hasAttribute("page")) {
+          String reference = viewMap.getAttribute("page").replaceAll("component://", "");
+          viewDefinitionMap.put(path + "#" + viewMap.getAttribute("name"), reference);
+          referencedScreenList.add(reference);
+        }
+      }
+
+      for (Element template : evaluate(xPath, document, "/screens/screen/section//html-template")) {
+        if (template.hasAttribute("location")) {
+          referencedFtlList.add(template.getAttribute("location").replaceFirst("component://", "/"));
+        }
+      }
+      for (Element script : evaluate(xPath, document, "/screens/screen/section/actions/script")) {
+        if (script.hasAttribute("location")) {
+          referencedBshOrGroovyList.add(script.getAttribute("location").replaceFirst("component://", "/"));
+        }
+      }
+      for (Element screen : evaluate(xPath, document, "/screens/screen")) {
+        if (screen.hasAttribute("name")) {
+          screenNameSet.add(path.replaceAll("/" + PROJECT + "/applications/", "") + "#"
+              + screen.getAttribute("name"));
+        }
+      }
+      for (Element decorator : evaluate(xPath, document, "/screens/screen/widgets/decorator-screen")) {
+        if (decorator.hasAttribute("name") && decorator.hasAttribute("location")) {
+          referencedScreenList.add(decorator.getAttribute("location").replaceAll("component://", "") + "#"
+              + decorator.getAttribute("name"));
+        }
+      }
+
+      for (Element action : evaluate(xPath, document, "/service-eca/eca/action")) {
+        if (action.hasAttribute("service")) {
+          referencedServiceList.add(action.getAttribute("service"));
+        }
+      }
+    }
+
+    private static Iterable<Element> evaluate(XPath xPath, Document document, String expression) throws Exception {
+      NodeList nodeList = (NodeList) xPath.evaluate(expression, document, XPathConstants.NODESET);
+      Set<Element> elementSet = new LinkedHashSet<Element>();
+      for (int i = 0; i < nodeList.getLength(); i++) {
+        elementSet.add((Element) nodeList.item(i));
+      }
+      return elementSet;
+    }
+  }
+
+  private static byte[] readFixture(String fileName) throws IOException {
+    InputStream in = OfbizDefinitionsExtractorTest.class.getResourceAsStream(fileName);
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      return out.toByteArray();
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  private static OfbizDefinitions extract(String path, byte[] bytes) throws Exception {
+    OfbizDefinitions definitions = new OfbizDefinitions();
+    new OfbizDefinitionsExtractor().extractFromXml(path, PROJECT, new ByteArrayInputStream(bytes), null,
+        definitions);
+    return definitions;
+  }
+
+  /** @return the definitions of the fixture, after checking that they are the ones of XPathDefinitions */
+  private static OfbizDefinitions assertSameAsXPath(String path, String fileName) throws Exception {
+    byte[] bytes = readFixture(fileName);
+    OfbizDefinitions definitions = extract(path, bytes);
+    XPathDefinitions expected = new XPathDefinitions(path, bytes);
+
+    assertEquals(expected.serviceMethodToNameMap, new HashMap<String, String>(definitions.serviceMethodToNameMap));
+    assertEquals(expected.serviceNameAndFilePathMap, new HashMap<String, String>(
+        definitions.serviceNameAndFilePathMap));
+    assertEquals(expected.referencedServiceList, new HashSet<String>(definitions.referencedServiceList));
+    assertEquals(expected.referencedViewList, new HashSet<String>(definitions.referencedViewList));
+    Map<String, String> viewDefinitionMap = new HashMap<String, String>();
+    for (Map.Entry<String, ReferenceAndLocation> entry : definitions.viewDefinitionMap.entrySet()) {
+      viewDefinitionMap.put(entry.getKey(), entry.getValue().referencedItem);
+      assertEquals(path, entry.getValue().path);
+    }
+    assertEquals(expected.viewDefinitionMap, viewDefinitionMap);
+    assertEquals(expected.referencedScreenList, new HashSet<String>(definitions.referencedScreenList));
+    assertEquals(expected.referencedFtlList, new HashSet<String>(definitions.referencedFtlList));
+    assertEquals(expected.referencedBshOrGroovyList, new HashSet<String>(definitions.referencedBshOrGroovyList));
+    assertEquals(expected.screenNameSet, new HashSet<String>(definitions.screenDefinitionMap.keySet()));
+    return definitions;
+  }
+
+  /**
+   * The line of the start tag has to be the one the text search for the marker found before, see
+   * OfbizSpecificSearchManager.getNonJavaIMemberForScreenDefinition
+   */
+  private static void assertLine(String fileName, String elementName, String name, ItemLocation location)
+      throws IOException {
+    String content = new String(readFixture(fileName), "UTF-8");
+    Matcher matcher = Pattern.compile("<" + elementName + "\\s*name=\"" + name + "\"").matcher(content);
+    assertTrue(matcher.find());
+    ItemLocation startTag = new StartTagLocator(content).locate(location);
+    assertEquals(LineOffsetTable.create(content).getLineNumber(matcher.start()), startTag.lineNumber);
+    assertEquals(matcher.start(), startTag.offset);
+    assertEquals('>', content.charAt(startTag.offset + startTag.length - 1));
+  }
+
+  @Test
+  public void testServices() throws Exception {
+    OfbizDefinitions definitions = assertSameAsXPath(FOLDER + "servicedef/services.xml", "services.xml");
+    assertEquals(3, definitions.serviceNameAndFilePathMap.size());
+    assertFalse(definitions.serviceNameAndFilePathMap.containsKey("nestedInGroup"));
+  }
+
+  @Test
+  public void testSeca() throws Exception {
+    OfbizDefinitions definitions = assertSameAsXPath(FOLDER + "servicedef/secas.xml", "secas.xml");
+    assertEquals(2, definitions.referencedServiceList.size());
+  }
+
+  @Test
+  public void testController() throws Exception {
+    String path = FOLDER + "webapp/accounting/WEB-INF/controller.xml";
+    OfbizDefinitions definitions = assertSameAsXPath(path, "controller.xml");
+    assertEquals(5, definitions.viewDefinitionMap.size());
+    assertEquals(new HashSet<String>(Arrays.asList("createInvoice", "logoutService")),
+        definitions.referencedServiceList);
+    for (Map.Entry<String, ReferenceAndLocation> entry : definitions.viewDefinitionMap.entrySet()) {
+      String viewName = entry.getKey().substring(entry.getKey().indexOf('#') + 1);
+      assertLine("controller.xml", "view-map", viewName, entry.getValue());
+    }
+  }
+
+  @Test
+  public void testScreens() throws Exception {
+    OfbizDefinitions definitions = assertSameAsXPath(FOLDER + "widget/AccountingScreens.xml",
+        "AccountingScreens.xml");
+    assertEquals(4, definitions.screenDefinitionMap.size());
+    assertEquals(2, definitions.referencedFtlList.size());
+    assertEquals(3, definitions.referencedBshOrGroovyList.size());
+    for (Map.Entry<String, ItemLocation> entry : definitions.screenDefinitionMap.entrySet()) {
+      String screenName = entry.getKey().substring(entry.getKey().indexOf('#') + 1);
+      assertLine("AccountingScreens.xml", "screen", screenName, entry.getValue());
+    }
+  }
+
+  /** Controller files with a byte order mark, the lines are counted in the text without it like in the editor */
+  @Test
+  public void testBom() throws Exception {
+    byte[] bytes = readFixture("controller.xml");
+    byte[] bomBytes = new byte[bytes.length + 3];
+    bomBytes[0] = (byte) 0xEF;
+    bomBytes[1] = (byte) 0xBB;
+    bomBytes[2] = (byte) 0xBF;
+    System.arraycopy(bytes, 0, bomBytes, 3, bytes.length);
+    OfbizDefinitions definitions = extract(FOLDER + "webapp/accounting/WEB-INF/controller.xml", bomBytes);
+    for (Map.Entry<String, ReferenceAndLocation> entry : definitions.viewDefinitionMap.entrySet()) {
+      String viewName = entry.getKey().substring(entry.getKey().indexOf('#') + 1);
+      assertLine("controller.xml", "view-map", viewName, entry.getValue());
+    }
+  }
+
+  private static String getLiteralSkipReason(String content) throws IOException {
+    return OfbizDefinitionsExtractor.getLiteralSkipReason(new ByteArrayInputStream(content.getBytes("UTF-8")));
+  }
+
+  /** Only the files that can not call a service are left out of the literal index */
+  @Test
+  public void testLiteralSkipReason() throws Exception {
+    assertEquals("root element <resource>", getLiteralSkipReason("<?xml version=\"1.0\"?>\n<!-- labels -->\n"
+        + "<resource><property key=\"createInvoice\"/></resource>"));
+    assertEquals("root element <entitymodel>", getLiteralSkipReason("<entitymodel/>"));
+    assertEquals("root element <project>", getLiteralSkipReason("<project name=\"build\"/>"));
+    assertEquals("no root element", getLiteralSkipReason(""));
+    assertNull(getLiteralSkipReason("<simple-methods><call-service service-name=\"createInvoice\"/>"
+        + "</simple-methods>"));
+    assertNull(getLiteralSkipReason(new String(readFixture("controller.xml"), "UTF-8")));
+  }
+}
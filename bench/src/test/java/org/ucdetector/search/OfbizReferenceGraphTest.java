@@ -0,0 +1,84 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.ucdetector.util.ItemLocation;
+import org.ucdetector.util.OfbizDefinitions;
+import org.ucdetector.util.ReferenceAndLocation;
+
+public class OfbizReferenceGraphTest {
+
+  private static final String SCREENS = "/p/a/widget/Screens.xml";
+
+  private static List<String> getItemsReferencedOnlyFromUnusedItems(OfbizDefinitions definitions) {
+    List<String> itemList = new OfbizReferenceGraph(definitions, null).getItemsReferencedOnlyFromUnusedItems();
+    Collections.sort(itemList);
+    return itemList;
+  }
+
+  private static void addScreen(OfbizDefinitions definitions, String screenName) {
+    definitions.screenDefinitionMap.put(screenName, new ItemLocation(SCREENS));
+  }
+
+  /** Screens that only decorate each other, the view of the first one is not referenced */
+  @Test
+  public void testCycle() {
+    OfbizDefinitions definitions = new OfbizDefinitions();
+    addScreen(definitions, "a#s1");
+    addScreen(definitions, "a#s2");
+    definitions.viewDefinitionMap.put("/p/c.xml#v1", new ReferenceAndLocation("a#s1", "/p/c.xml"));
+    definitions.referencedScreenList.addAll(Arrays.asList("a#s1", "a#s2"));
+    definitions.addUsage(OfbizDefinitions.SCREEN_ITEM + "a#s1", Collections.singleton("screen:a#s2"));
+    definitions.addUsage(OfbizDefinitions.SCREEN_ITEM + "a#s2", Collections.singleton("screen:a#s1"));
+
+    assertEquals(Arrays.asList("screen:a#s1", "screen:a#s2"), getItemsReferencedOnlyFromUnusedItems(definitions));
+
+    definitions.referencedViewList.add("/p/c.xml#v1");
+    assertEquals(Collections.emptyList(), getItemsReferencedOnlyFromUnusedItems(definitions));
+  }
+
+  /** A screen referenced from a place where the referencing item is not known is a root */
+  @Test
+  public void testReferenceWithoutReferrer() {
+    OfbizDefinitions definitions = new OfbizDefinitions();
+    addScreen(definitions, "a#s1");
+    definitions.ftlMap.put("/a/x.ftl", "/p/a/x.ftl");
+    definitions.referencedScreenList.add("a#s1");
+    definitions.referencedFtlList.add("/a/x.ftl");
+    definitions.addUsage(OfbizDefinitions.SCREEN_ITEM + "a#s1", Collections.singleton("ftl:/a/x.ftl"));
+    assertEquals(Collections.emptyList(), getItemsReferencedOnlyFromUnusedItems(definitions));
+  }
+
+  /** An include with only the file name links all ftls with that name */
+  @Test
+  public void testIncludeByFileName() {
+    OfbizDefinitions definitions = new OfbizDefinitions();
+    definitions.ftlMap.put("/a/main.ftl", "/p/a/main.ftl");
+    definitions.ftlMap.put("/a/x/lib.ftl", "/p/a/x/lib.ftl");
+    definitions.ftlMap.put("/b/lib.ftl", "/p/b/lib.ftl");
+    definitions.ftlIncludeMap.put("/a/main.ftl", new HashSet<String>(Arrays.asList("*lib.ftl")));
+
+    assertEquals(Arrays.asList("ftl:/a/x/lib.ftl", "ftl:/b/lib.ftl"),
+        getItemsReferencedOnlyFromUnusedItems(definitions));
+  }
+
+  @Test
+  public void testEmpty() {
+    OfbizDefinitions definitions = new OfbizDefinitions();
+    OfbizReferenceGraph graph = new OfbizReferenceGraph(definitions, null);
+    assertEquals(0, graph.getNodeCount());
+    assertEquals(Collections.emptyList(), graph.getItemsReferencedOnlyFromUnusedItems());
+  }
+}
@@ -0,0 +1,99 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+
+import org.junit.Test;
+
+public class ReferenceGraphTest {
+
+  private static ReferenceGraph createGraph(int nodeCount) {
+    ReferenceGraph graph = new ReferenceGraph();
+    for (int i = 0; i < nodeCount; i++) {
+      assertEquals(i, graph.addNode());
+    }
+    return graph;
+  }
+
+  @Test
+  public void testReachable() {
+    //0 -> 1 -> 2, 3 -> 2, 4 alone
+    ReferenceGraph graph = createGraph(5);
+    graph.addEdge(0, 1);
+    graph.addEdge(1, 2);
+    graph.addEdge(3, 2);
+    graph.addRoot(0);
+
+    BitSet reachable = graph.findReachable();
+    assertEquals("{0, 1, 2}", reachable.toString());
+    assertEquals(0, graph.getReferrerCount(0));
+    assertEquals(2, graph.getReferrerCount(2));
+    assertEquals(3, graph.getEdgeCount());
+    assertTrue(graph.isRoot(0));
+    assertFalse(graph.isRoot(3));
+  }
+
+  /** The nodes of a cycle that is not reachable from a root are not reachable, each has a referrer */
+  @Test
+  public void testCycle() {
+    //0 -> 1 -> 2 -> 0, 3 -> 4 -> 3
+    ReferenceGraph graph = createGraph(5);
+    graph.addEdge(0, 1);
+    graph.addEdge(1, 2);
+    graph.addEdge(2, 0);
+    graph.addEdge(3, 4);
+    graph.addEdge(4, 3);
+    graph.addRoot(1);
+
+    assertEquals("{0, 1, 2}", graph.findReachable().toString());
+    assertEquals(1, graph.getReferrerCount(3));
+    assertEquals(1, graph.getReferrerCount(4));
+  }
+
+  @Test
+  public void testSelfReference() {
+    ReferenceGraph graph = createGraph(2);
+    graph.addEdge(0, 0);
+    graph.addEdge(1, 1);
+    graph.addRoot(0);
+    assertEquals("{0}", graph.findReachable().toString());
+    assertEquals(1, graph.getReferrerCount(1));
+  }
+
+  /** More edges than the initial arrays, and changes after the graph was built */
+  @Test
+  public void testChain() {
+    int nodeCount = 200;
+    ReferenceGraph graph = createGraph(nodeCount);
+    for (int i = 0; i + 1 < nodeCount; i++) {
+      graph.addEdge(i, i + 1);
+    }
+    assertTrue(graph.findReachable().isEmpty());
+    graph.addRoot(100);
+    assertEquals(100, graph.findReachable().cardinality());
+    int node = graph.addNode();
+    graph.addEdge(nodeCount - 1, node);
+    assertEquals(101, graph.findReachable().cardinality());
+  }
+
+  @Test
+  public void testEmpty() {
+    ReferenceGraph graph = new ReferenceGraph();
+    assertEquals(0, graph.getNodeCount());
+    assertTrue(graph.findReachable().isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownNode() {
+    createGraph(1).addEdge(0, 1);
+  }
+}
@@ -0,0 +1,101 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+public class StringLiteralIndexTest {
+
+  private static StringLiteralIndex createIndex(String... literals) {
+    return new StringLiteralIndex(new HashSet<String>(Arrays.asList(literals)));
+  }
+
+  @Test
+  public void testOccurrences() {
+    StringLiteralIndex index = createIndex("createOrder", "cancelOrder");
+    index.indexContent("/p/a.xml", "<a x=\"createOrder\"/>\n<b y=\"createOrder\" z=\"other\"/>");
+    index.indexContent("/p/b.xml", "\"createOrder\"");
+
+    List<SearchResult> resultList = index.getOccurrences("createOrder");
+    assertEquals(3, resultList.size());
+    assertResult(resultList.get(0), "/p/a.xml", 5, 1);
+    assertResult(resultList.get(1), "/p/a.xml", 26, 2);
+    assertResult(resultList.get(2), "/p/b.xml", 0, 1);
+    assertEquals(13, resultList.get(0).length);
+    assertTrue(index.getOccurrences("cancelOrder").isEmpty());
+    assertTrue(index.getOccurrences("other").isEmpty());
+  }
+
+  @Test
+  public void testCrLf() {
+    StringLiteralIndex index = createIndex("s");
+    index.indexContent("/p/a.xml", "\r\n\r\n\"s\"\r\n\"s\"");
+    List<SearchResult> resultList = index.getOccurrences("s");
+    assertEquals(2, resultList.size());
+    assertResult(resultList.get(0), "/p/a.xml", 4, 3);
+    assertResult(resultList.get(1), "/p/a.xml", 9, 4);
+  }
+
+  /** The BOM is a char of the content, the offsets count it like the editor does */
+  @Test
+  public void testBom() {
+    StringLiteralIndex index = createIndex("s");
+    index.indexContent("/p/a.xml", "\uFEFF\"s\"");
+    assertResult(index.getOccurrences("s").get(0), "/p/a.xml", 1, 1);
+  }
+
+  /** "a"a"a" has two occurrences of "a" for a text search, the closing quote can not open the next one */
+  @Test
+  public void testOverlapping() {
+    StringLiteralIndex index = createIndex("a");
+    index.indexContent("/p/a.xml", "\"a\"a\"a\"");
+    List<SearchResult> resultList = index.getOccurrences("a");
+    assertEquals(2, resultList.size());
+    assertEquals(0, resultList.get(0).offset);
+    assertEquals(4, resultList.get(1).offset);
+  }
+
+  @Test
+  public void testOverlappingInOtherFile() {
+    StringLiteralIndex index = createIndex("a");
+    index.indexContent("/p/a.xml", "\"a\"");
+    index.indexContent("/p/b.xml", "\"a\"");
+    assertEquals(2, index.getOccurrences("a").size());
+  }
+
+  @Test
+  public void testUnterminatedAtEnd() {
+    StringLiteralIndex index = createIndex("s");
+    index.indexContent("/p/a.xml", "x=\"s");
+    assertTrue(index.getOccurrences("s").isEmpty());
+  }
+
+  @Test
+  public void testEmptyCorpus() {
+    StringLiteralIndex index = createIndex("s");
+    index.indexContent("/p/a.xml", "");
+    assertTrue(index.getOccurrences("s").isEmpty());
+
+    StringLiteralIndex emptyIndex = new StringLiteralIndex(Collections.<String> emptySet());
+    emptyIndex.indexContent("/p/a.xml", "\"s\"");
+    assertTrue(emptyIndex.getOccurrences("s").isEmpty());
+  }
+
+  private static void assertResult(SearchResult result, String path, int offset, int lineNumber) {
+    assertEquals(path, result.path);
+    assertEquals(offset, result.offset);
+    assertEquals(lineNumber, result.lineNumber);
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+public class XmlRootElementSnifferTest {
+
+  private static String readRootElementName(String xml, String encoding) throws IOException {
+    return XmlRootElementSniffer.readRootElementName(new ByteArrayInputStream(xml.getBytes(encoding)));
+  }
+
+  private static String readRootElementName(String xml) throws IOException {
+    return readRootElementName(xml, "UTF-8");
+  }
+
+  @Test
+  public void testRootElement() throws IOException {
+    assertEquals("screens", readRootElementName("<screens>\n</screens>"));
+    assertEquals("site-conf", readRootElementName("<site-conf/>"));
+    assertEquals("entity-engine-xml", readRootElementName("  <entity-engine-xml xmlns:xsi=\"x\">"));
+  }
+
+  @Test
+  public void testBomAndCrLf() throws IOException {
+    assertEquals("services", readRootElementName("\uFEFF<?xml version=\"1.0\"?>\r\n\r\n<services>\r\n</services>"));
+  }
+
+  @Test
+  public void testPrologue() throws IOException {
+    String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- <notRoot> -->\n"
+        + "<!DOCTYPE screens SYSTEM \"x.dtd\" [ <!ENTITY e \"<a>\"> ]>\n<?pi ?><screens>";
+    assertEquals("screens", readRootElementName(xml));
+  }
+
+  @Test
+  public void testNoRootElement() throws IOException {
+    assertEquals(XmlRootElementSniffer.NO_ROOT_ELEMENT, readRootElementName(""));
+    assertEquals(XmlRootElementSniffer.NO_ROOT_ELEMENT, readRootElementName(" \r\n"));
+    assertEquals(XmlRootElementSniffer.NO_ROOT_ELEMENT, readRootElementName("<?xml version=\"1.0\"?><!-- x -->"));
+    assertEquals(XmlRootElementSniffer.NO_ROOT_ELEMENT, readRootElementName("<!-- not closed"));
+  }
+
+  /** The name ends at the end of the file, the file is complete so the name is too */
+  @Test
+  public void testNameAtEndOfFile() throws IOException {
+    assertEquals("screens", readRootElementName("<screens"));
+  }
+
+  @Test
+  public void testUndecided() throws IOException {
+    assertNull(readRootElementName("text<screens/>"));
+    assertNull(readRootElementName("<screens/>", "UTF-16"));
+    StringBuilder longComment = new StringBuilder("<!--");
+    for (int i = 0; i < XmlRootElementSniffer.SNIFF_SIZE; i++) {
+      longComment.append('x');
+    }
+    assertNull(readRootElementName(longComment.append("--><screens/>").toString()));
+  }
+
+  /** The name is cut by the end of the buffer, but the file is longer */
+  @Test
+  public void testNameAtEndOfBuffer() throws IOException {
+    StringBuilder xml = new StringBuilder();
+    for (int i = 0; i < XmlRootElementSniffer.SNIFF_SIZE - 3; i++) {
+      xml.append(' ');
+    }
+    assertNull(readRootElementName(xml.append("<screens/>").toString()));
+  }
+
+  @Test
+  public void testStreamIsReset() throws IOException {
+    InputStream in = new ByteArrayInputStream("<screens/>".getBytes("UTF-8"));
+    assertEquals("screens", XmlRootElementSniffer.readRootElementName(in));
+    assertEquals('<', in.read());
+  }
+}
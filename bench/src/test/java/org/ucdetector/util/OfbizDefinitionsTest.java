@@ -0,0 +1,52 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+public class OfbizDefinitionsTest {
+
+  private static OfbizDefinitions createFileDefinitions(String serviceName, String screenName) {
+    OfbizDefinitions definitions = new OfbizDefinitions();
+    definitions.serviceNameAndFilePathMap.put(serviceName, "/proj/services.xml");
+    definitions.referencedServiceList.add("createInvoice");
+    definitions.ftlIncludeMap.put("/a/invoice.ftl", Collections.singleton("/a/header.ftl"));
+    definitions.addUsage(OfbizDefinitions.SCREEN_ITEM + screenName, Arrays.asList(OfbizDefinitions.SERVICE_ITEM
+        + serviceName));
+    return definitions;
+  }
+
+  /** A copy sharing the names of the project has the same content as the definitions of the file */
+  @Test
+  public void testCreateSharingNames() {
+    OfbizDefinitions projectDefinitions = new OfbizDefinitions();
+    OfbizDefinitions shard = projectDefinitions.createSharingNames();
+    OfbizDefinitions fileDefinitions = createFileDefinitions("createInvoice", "main");
+    shard.addAll(fileDefinitions);
+    OfbizDefinitions sharedFileDefinitions = shard.createSharingNames();
+    sharedFileDefinitions.addAll(fileDefinitions);
+    shard.addAll(createFileDefinitions("cancelInvoice", "cancel"));
+    projectDefinitions.addAll(shard);
+
+    assertEquals(fileDefinitions.serviceNameAndFilePathMap, sharedFileDefinitions.serviceNameAndFilePathMap);
+    assertEquals(fileDefinitions.referencedServiceList, sharedFileDefinitions.referencedServiceList);
+    assertEquals(fileDefinitions.ftlIncludeMap, sharedFileDefinitions.ftlIncludeMap);
+    assertEquals(fileDefinitions.usageMap, sharedFileDefinitions.usageMap);
+    //the names added later through the shared table are not in the copy
+    assertEquals(1, sharedFileDefinitions.serviceNameAndFilePathMap.size());
+    assertEquals(new HashSet<String>(Arrays.asList("createInvoice", "cancelInvoice")),
+        projectDefinitions.serviceNameAndFilePathMap.keySet());
+    assertTrue(projectDefinitions.getUsedItemNames(OfbizDefinitions.SERVICE_ITEM).contains("cancelInvoice"));
+  }
+}
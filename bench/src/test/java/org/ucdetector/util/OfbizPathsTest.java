@@ -0,0 +1,83 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+import org.ucdetector.search.OfbizDefinitionsExtractor;
+
+public class OfbizPathsTest {
+
+  private static final String FOLDER = "applications/accounting/webapp/accounting/invoice";
+
+  @Test
+  public void testComponent() {
+    assertEquals("/common/webcommon/includes/header.ftl", OfbizPaths.resolveFtlInclude(FOLDER,
+        "component://common/webcommon/includes/header.ftl"));
+    assertEquals("/common/webcommon/header.ftl", OfbizPaths.resolveFtlInclude(FOLDER,
+        "component://common/webcommon/./includes/../header.ftl"));
+    //the component name can not be left
+    assertNull(OfbizPaths.resolveFtlInclude(FOLDER, "component://common/../header.ftl"));
+  }
+
+  /** Absolute paths start at the ofbiz home, applications and hot-deploy are not part of the names */
+  @Test
+  public void testAbsoluteFromHome() {
+    assertEquals("/accounting/webapp/accounting/header.ftl", OfbizPaths.resolveFtlInclude(FOLDER,
+        "/applications/accounting/webapp/accounting/header.ftl"));
+    assertEquals("/crmsfa/webapp/crmsfa/header.ftl", OfbizPaths.resolveFtlInclude(FOLDER,
+        "/hot-deploy/crmsfa/webapp/crmsfa/header.ftl"));
+    //like getPathToFile of the files outside of applications and hot-deploy
+    assertEquals("framework/common/header.ftl", OfbizPaths.resolveFtlInclude(FOLDER,
+        "/framework/common/header.ftl"));
+    assertNull(OfbizPaths.resolveFtlInclude(FOLDER, "/../header.ftl"));
+  }
+
+  @Test
+  public void testRelative() {
+    assertEquals("/accounting/webapp/accounting/invoice/header.ftl", OfbizPaths.resolveFtlInclude(FOLDER,
+        "header.ftl"));
+    assertEquals("/accounting/webapp/accounting/invoice/header.ftl", OfbizPaths.resolveFtlInclude(FOLDER,
+        "./header.ftl"));
+    assertEquals("/accounting/webapp/accounting/common/header.ftl", OfbizPaths.resolveFtlInclude(FOLDER,
+        "../common/header.ftl"));
+    assertEquals("/accounting/webapp/accounting/invoice/lib/macros.ftl", OfbizPaths.resolveFtlInclude(FOLDER,
+        "lib//macros.ftl"));
+    assertEquals("/crmsfa/webapp/header.ftl", OfbizPaths.resolveFtlInclude("hot-deploy/crmsfa/webapp",
+        "header.ftl"));
+    assertNull(OfbizPaths.resolveFtlInclude("applications", "../../header.ftl"));
+  }
+
+  /** Only the file name is known of a path built at runtime */
+  @Test
+  public void testExpression() {
+    assertEquals("*header.ftl", OfbizPaths.resolveFtlInclude(FOLDER,
+        "${parameters.mainDecoratorFolder}/header.ftl"));
+    assertEquals("*header.ftl", OfbizPaths.resolveFtlInclude(FOLDER,
+        "component://${component}/includes/header.ftl"));
+    assertNull(OfbizPaths.resolveFtlInclude(FOLDER, "${templateLocation}"));
+    assertNull(OfbizPaths.resolveFtlInclude(FOLDER, "includes/${name}.ftl"));
+    assertNull(OfbizPaths.resolveFtlInclude(FOLDER, "${folder}/"));
+  }
+
+  /** The square bracket syntax of freemarker includes the same files */
+  @Test
+  public void testIncludeDirectives() {
+    OfbizDefinitions definitions = new OfbizDefinitions();
+    OfbizDefinitionsExtractor.extractFromScript("/proj/" + FOLDER + "/invoice.ftl", "<#include \"header.ftl\">\n"
+        + "[#include 'component://common/webcommon/includes/footer.ftl']\n"
+        + "[#import \"../lib/macros.ftl\" as m]\n<#import '${lib}/utils.ftl' as u>", definitions);
+    assertEquals(new HashSet<String>(Arrays.asList("/accounting/webapp/accounting/invoice/header.ftl",
+        "/common/webcommon/includes/footer.ftl", "/accounting/webapp/accounting/lib/macros.ftl", "*utils.ftl")),
+        definitions.ftlIncludeMap.get("/accounting/webapp/accounting/invoice/invoice.ftl"));
+  }
+}
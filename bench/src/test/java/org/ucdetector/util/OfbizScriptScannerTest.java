@@ -0,0 +1,192 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ucdetector.search.FileBytes;
+import org.ucdetector.search.OfbizDefinitionsExtractor;
+import org.ucdetector.util.OfbizScriptScanner.ScriptReferences;
+
+/** Every content is scanned as text and as FileBytes, both have to give the same references */
+public class OfbizScriptScannerTest {
+
+  private static final String S1 = "a/widget/Screens.xml#s1";
+  private static final String S2 = "b/widget/Screens.xml#s2";
+  private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private ScriptReferences scan(String content, boolean isFtl) throws IOException {
+    File file = temporaryFolder.newFile();
+    FileOutputStream out = new FileOutputStream(file);
+    try {
+      out.write(content.getBytes("UTF-8"));
+    }
+    finally {
+      out.close();
+    }
+    String text = content.length() > 0 && content.charAt(0) == BYTE_ORDER_MARK ? content.substring(1) : content;
+    ScriptReferences textReferences = OfbizScriptScanner.scan(text, isFtl);
+    ScriptReferences byteReferences = OfbizScriptScanner.scan(FileBytes.read(file, "UTF-8"), isFtl);
+    assertEquals(textReferences.renderedScreenList, byteReferences.renderedScreenList);
+    assertEquals(textReferences.ftlLocationList, byteReferences.ftlLocationList);
+    assertEquals(textReferences.scriptLocationList, byteReferences.scriptLocationList);
+    assertEquals(textReferences.includeTargetList, byteReferences.includeTargetList);
+    assertEquals(textReferences.serviceNameCandidateSet, byteReferences.serviceNameCandidateSet);
+    return byteReferences;
+  }
+
+  private List<String> scanScreens(String content, boolean isFtl) throws IOException {
+    return scan(content, isFtl).renderedScreenList;
+  }
+
+  @Test
+  public void testQuotes() throws IOException {
+    assertEquals(Arrays.asList(S1, S2),
+        scanScreens("render(\"component://" + S1 + "\", 'component://" + S2 + "')", false));
+  }
+
+  @Test
+  public void testFoundBefore() throws IOException {
+    assertEquals(Arrays.asList(S1), scanScreens("\"component://" + S1 + "\" \"component://" + S1 + "\"", false));
+  }
+
+  @Test
+  public void testNotRendered() throws IOException {
+    List<String> noScreens = Collections.emptyList();
+    assertEquals(noScreens, scanScreens("\\\"component://" + S1 + "\\\"", false));
+    assertEquals(noScreens, scanScreens("\"component://" + S1 + "'", false));
+    assertEquals(noScreens, scanScreens("component://" + S1, false));
+    assertEquals(noScreens, scanScreens("\"component://a/widget/Screens.xml\"", false));
+    assertEquals(noScreens, scanScreens("\"component://a/widget/Screens.xml#\"", false));
+    assertEquals(noScreens, scanScreens("\"component://a/my screens/Screens.xml#s1\"", false));
+    assertEquals(noScreens, scanScreens("\"component://#s1\"", false));
+  }
+
+  /** The closing quote of a screen can not open the next one, like for a text search */
+  @Test
+  public void testOverlapping() throws IOException {
+    assertEquals(Arrays.asList(S1), scanScreens("\"component://" + S1 + "\"component://" + S2 + "\"", false));
+    assertEquals(Arrays.asList(S1, S2), scanScreens("\"component://" + S1 + "\"\"component://" + S2 + "\"", false));
+  }
+
+  @Test
+  public void testIncludeDirective() throws IOException {
+    String content = "<#include \"component://" + S1 + "\">\n[#import  'component://" + S2 + "' as x]";
+    ScriptReferences ftlReferences = scan(content, true);
+    assertEquals(Collections.emptyList(), ftlReferences.renderedScreenList);
+    assertEquals(Arrays.asList("component://" + S1, "component://" + S2), ftlReferences.includeTargetList);
+    assertEquals(Arrays.asList(S1, S2), scanScreens(content, false));
+    assertEquals(Arrays.asList(S1), scanScreens("#include \"component://" + S1 + "\"", true));
+  }
+
+  @Test
+  public void testBomAndCrLf() throws IOException {
+    String content = BYTE_ORDER_MARK + "\r\n\"component://" + S1 + "\"\r\n'component://" + S2 + "'\r\n";
+    assertEquals(Arrays.asList(S1, S2), scanScreens(content, false));
+  }
+
+  @Test
+  public void testEndOfFile() throws IOException {
+    assertEquals(Arrays.asList(S1), scanScreens("\"component://" + S1 + "\"", false));
+    assertEquals(Collections.emptyList(), scanScreens("\"component://" + S1, false));
+    assertEquals(Collections.emptyList(), scanScreens("\"component://a/widget/Screens.xml#", false));
+    assertEquals(Collections.emptyList(), scanScreens("\"component://", false));
+  }
+
+  /** Non ascii characters are part of no reference, in the bytes they are more than one char */
+  @Test
+  public void testNonAscii() throws IOException {
+    ScriptReferences references = scan("run(\"\u00e4rger\"); run(\"create\u00c4\"); run(\"ok\"); "
+        + "\"component://\u00e4/widget/S.xml#s\" \"component://a/\u00e4.ftl\"", false);
+    assertEquals(Collections.singleton("ok"), references.serviceNameCandidateSet);
+    assertEquals(Collections.emptyList(), references.renderedScreenList);
+    assertEquals(Arrays.asList("/a/\u00e4.ftl"), references.ftlLocationList);
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    assertEquals(Collections.emptyList(), scanScreens("", false));
+    assertEquals(Collections.emptyList(), scanScreens("\"", true));
+  }
+
+  /** The rendered screens are the keys of the screen definitions, without quotes and component:// */
+  @Test
+  public void testRenderedScreenName() throws IOException {
+    ScriptReferences references = scan("out = screens.render(\"component://" + S1 + "\");", false);
+    assertEquals(Arrays.asList(S1), references.renderedScreenList);
+    assertEquals(Collections.emptySet(), references.serviceNameCandidateSet);
+  }
+
+  @Test
+  public void testLocations() throws IOException {
+    ScriptReferences references = scan("\"component://a/webapp/x.ftl\" 'component://a/actions/y.groovy' "
+        + "\"component://a/actions/z.bsh\" \"component://a/config/z.properties\" \"component://a/b c.ftl\"",
+        false);
+    assertEquals(Arrays.asList("/a/webapp/x.ftl"), references.ftlLocationList);
+    assertEquals(Arrays.asList("/a/actions/y.groovy", "/a/actions/z.bsh"), references.scriptLocationList);
+    assertEquals(Collections.emptyList(), references.renderedScreenList);
+  }
+
+  @Test
+  public void testServiceNames() throws IOException {
+    ScriptReferences references = scan("dispatcher.runSync(\"createOrder\", ctx);\n"
+        + "run('_private'); run(\"crmsfa.create-account2\"); run(\"a\");", false);
+    assertEquals(new HashSet<String>(Arrays.asList("createOrder", "_private", "crmsfa.create-account2", "a")),
+        references.serviceNameCandidateSet);
+  }
+
+  @Test
+  public void testNoServiceNames() throws IOException {
+    StringBuilder tooLong = new StringBuilder("a");
+    while (tooLong.length() <= 200) {
+      tooLong.append('b');
+    }
+    String content = "run(\"1st\"); run(\"with space\"); run(\"\"); run(\"a#b\"); run(\"a/b\"); run(\".a\"); "
+        + "run(\"" + tooLong + "\"); run(\"say \\\"hi\\\"\"); run(\"two\nlines\")";
+    assertEquals(Collections.emptySet(), scan(content, false).serviceNameCandidateSet);
+    assertEquals(Collections.singleton(tooLong.substring(1)), scan("run(\"" + tooLong.substring(1) + "\")",
+        false).serviceNameCandidateSet);
+  }
+
+  /** Literals of ftl files are not service calls */
+  @Test
+  public void testNoServiceNamesInFtl() throws IOException {
+    assertEquals(Collections.emptySet(), scan("<@render name=\"createOrder\"/>", true).serviceNameCandidateSet);
+  }
+
+  /** groovy files are read like bsh files, their references are used by the file */
+  @Test
+  public void testGroovyFile() {
+    assertTrue(OfbizDefinitionsExtractor.isOfbizFile("Main.groovy"));
+    OfbizDefinitions definitions = new OfbizDefinitions();
+    OfbizDefinitionsExtractor.extractFromScript("/proj/applications/a/webapp/WEB-INF/actions/Main.groovy",
+        "screens.render(\"component://" + S1 + "\"); run(\"createOrder\")", definitions);
+    assertEquals(Collections.singletonMap("/a/webapp/WEB-INF/actions/Main.groovy",
+        "/proj/applications/a/webapp/WEB-INF/actions/Main.groovy"), new HashMap<String, String>(
+        definitions.bshOrGroovyMap));
+    assertEquals(Collections.singleton(S1), definitions.referencedScreenList);
+    assertEquals(new HashSet<String>(Arrays.asList(OfbizDefinitions.SCREEN_ITEM + S1, OfbizDefinitions.SERVICE_ITEM
+        + "createOrder")), definitions.usageMap.get(OfbizDefinitions.SCRIPT_ITEM
+        + "/a/webapp/WEB-INF/actions/Main.groovy"));
+  }
+}
@@ -0,0 +1,85 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+public class OfbizStatsTest {
+
+  private static final class PhaseThread extends Thread {
+    private final OfbizStats stats;
+    private final String name;
+    private final int markerCount;
+    private final CountDownLatch bothStarted;
+
+    PhaseThread(OfbizStats stats, String name, int markerCount, CountDownLatch bothStarted) {
+      this.stats = stats;
+      this.name = name;
+      this.markerCount = markerCount;
+      this.bothStarted = bothStarted;
+    }
+
+    @Override
+    public void run() {
+      stats.startThreadPhase(name);
+      try {
+        bothStarted.countDown();
+        bothStarted.await();
+        for (int i = 0; i < markerCount; i++) {
+          OfbizStats.count(OfbizStats.MARKERS_CREATED, 1);
+        }
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      finally {
+        stats.endThreadPhase();
+      }
+    }
+  }
+
+  private static OfbizStats.Phase getPhase(OfbizStats stats, String name) {
+    for (OfbizStats.Phase phase : stats.getPhases()) {
+      if (phase.name.equals(name)) {
+        return phase;
+      }
+    }
+    throw new AssertionError("No phase " + name);
+  }
+
+  /** The counters of phases running at the same time on their threads are kept apart */
+  @Test
+  public void testThreadPhases() throws InterruptedException {
+    OfbizStats stats = new OfbizStats("proj");
+    stats.startPhase("searchConcurrently");
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    List<Thread> threadList = new ArrayList<Thread>();
+    threadList.add(new PhaseThread(stats, "searchFtls", 3, bothStarted));
+    threadList.add(new PhaseThread(stats, "searchViews", 5, bothStarted));
+    for (Thread thread : threadList) {
+      thread.start();
+    }
+    OfbizStats.count(OfbizStats.MARKERS_CREATED, 1);
+    for (Thread thread : threadList) {
+      thread.join();
+    }
+    stats.endPhase();
+    //counted after the end of the run
+    OfbizStats.count(OfbizStats.MARKERS_CREATED, 1);
+
+    assertEquals(3, stats.getPhases().size());
+    assertEquals(1, getPhase(stats, "searchConcurrently").getCounter(OfbizStats.MARKERS_CREATED));
+    assertEquals(3, getPhase(stats, "searchFtls").getCounter(OfbizStats.MARKERS_CREATED));
+    assertEquals(5, getPhase(stats, "searchViews").getCounter(OfbizStats.MARKERS_CREATED));
+  }
+}
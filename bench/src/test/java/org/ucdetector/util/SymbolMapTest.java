@@ -0,0 +1,67 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class SymbolMapTest {
+
+  @Test
+  public void testMap() {
+    SymbolTable symbols = new SymbolTable();
+    Map<String, String> map = new SymbolMap<String>(symbols);
+    assertNull(map.put("b", "1"));
+    assertNull(map.put("a", "2"));
+    assertEquals("1", map.put("b", "3"));
+    assertNull(map.put("c", null));
+    assertEquals(3, map.size());
+    assertEquals("3", map.get("b"));
+    assertNull(map.get("d"));
+    assertNull(map.get(Integer.valueOf(1)));
+    assertTrue(map.containsKey("c"));
+    assertFalse(map.containsKey("d"));
+    assertEquals(Arrays.asList("b", "a", "c"), new ArrayList<String>(map.keySet()));
+
+    Map<String, String> expectedMap = new HashMap<String, String>();
+    expectedMap.put("a", "2");
+    expectedMap.put("b", "3");
+    expectedMap.put("c", null);
+    assertEquals(expectedMap, map);
+    assertEquals(expectedMap.hashCode(), map.hashCode());
+  }
+
+  @Test
+  public void testSetValue() {
+    Map<String, String> map = new SymbolMap<String>(new SymbolTable());
+    map.put("a", "1");
+    Map.Entry<String, String> entry = map.entrySet().iterator().next();
+    assertEquals("1", entry.setValue("2"));
+    assertEquals("2", map.get("a"));
+  }
+
+  @Test
+  public void testGrow() {
+    Map<String, Integer> map = new SymbolMap<Integer>(new SymbolTable());
+    for (int i = 0; i < 1000; i++) {
+      map.put("k" + i, Integer.valueOf(i));
+    }
+    assertEquals(1000, map.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(Integer.valueOf(i), map.get("k" + i));
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class SymbolSetTest {
+
+  @Test
+  public void testSet() {
+    SymbolTable symbols = new SymbolTable();
+    Set<String> set = new SymbolSet(symbols);
+    assertTrue(set.add("b"));
+    assertTrue(set.add("a"));
+    assertFalse(set.add("b"));
+    assertEquals(2, set.size());
+    assertTrue(set.contains("a"));
+    assertFalse(set.contains("c"));
+    assertFalse(set.contains(Integer.valueOf(1)));
+    assertEquals(Arrays.asList("b", "a"), new ArrayList<String>(set));
+    assertEquals(new HashSet<String>(Arrays.asList("a", "b")), set);
+  }
+
+  /** A name of another set of the same table is not in this set */
+  @Test
+  public void testSharedTable() {
+    SymbolTable symbols = new SymbolTable();
+    Set<String> set = new SymbolSet(symbols);
+    Set<String> otherSet = new SymbolSet(symbols);
+    set.add("a");
+    otherSet.add("b");
+    assertFalse(set.contains("b"));
+    assertEquals(2, symbols.size());
+    otherSet.add("a");
+    assertEquals(2, symbols.size());
+  }
+
+  @Test
+  public void testGrow() {
+    Set<String> set = new SymbolSet(new SymbolTable());
+    Set<String> expectedSet = new HashSet<String>();
+    for (int i = 0; i < 1000; i += 3) {
+      set.add("s" + i);
+      expectedSet.add("s" + i);
+    }
+    assertEquals(expectedSet, set);
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i % 3 == 0, set.contains("s" + i));
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testRemove() {
+    Set<String> set = new SymbolSet(new SymbolTable());
+    set.add("a");
+    set.remove("a");
+  }
+}
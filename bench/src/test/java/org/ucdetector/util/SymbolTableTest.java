@@ -0,0 +1,56 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SymbolTableTest {
+
+  @Test
+  public void testIntern() {
+    SymbolTable symbols = new SymbolTable();
+    assertEquals(0, symbols.intern("a"));
+    assertEquals(1, symbols.intern("b"));
+    assertEquals(0, symbols.intern(new String("a")));
+    assertEquals(2, symbols.intern(""));
+    assertEquals(3, symbols.size());
+    assertEquals("b", symbols.getSymbol(1));
+    assertEquals(1, symbols.getId("b"));
+    assertEquals(-1, symbols.getId("c"));
+  }
+
+  @Test
+  public void testGetIdOfPart() {
+    SymbolTable symbols = new SymbolTable();
+    symbols.intern("S.xml#s1");
+    assertEquals(0, symbols.getId("screen:S.xml#s1", 7, 15));
+    assertEquals(-1, symbols.getId("screen:S.xml#s1", 6, 15));
+    assertEquals(-1, symbols.getId("screen:S.xml#s1", 7, 14));
+  }
+
+  /** More symbols than the initial arrays, with similar hash codes */
+  @Test
+  public void testGrow() {
+    SymbolTable symbols = new SymbolTable();
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, symbols.intern("component://a/widget/Screens" + i + ".xml"));
+    }
+    for (int i = 0; i < 1000; i++) {
+      String name = "component://a/widget/Screens" + i + ".xml";
+      assertEquals(i, symbols.getId(name));
+      assertEquals(name, symbols.getSymbol(i));
+    }
+    assertEquals(-1, symbols.getId("component://a/widget/Screens1000.xml"));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testUnknownId() {
+    new SymbolTable().getSymbol(0);
+  }
+}
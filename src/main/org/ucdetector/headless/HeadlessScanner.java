@@ -0,0 +1,132 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.headless;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.ucdetector.search.FileBytes;
+import org.ucdetector.search.OfbizDefinitionsExtractor;
+import org.ucdetector.util.OfbizDefinitions;
+import org.xml.sax.SAXException;
+
+/**
+ * The same as OfbizSpecificXmlParser.extractDefinitions, but for files of a checkout (java.io.File). The definitions
+ * are collected by the same OfbizDefinitionsExtractor, with paths like in the workspace: "/" + name of the ofbiz
+ * home + "/" + path relative to it.
+ *
+ * Can be used from more threads at the same time.
+ */
+public class HeadlessScanner {
+  private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+  private final String projectName;
+  private final String encoding;
+  private final OfbizDefinitionsExtractor extractor = new OfbizDefinitionsExtractor();
+
+  /**
+   * @param projectName name of the folder of the ofbiz home, it is the project name in eclipse
+   * @param encoding of the files
+   */
+  public HeadlessScanner(String projectName, String encoding) {
+    this.projectName = projectName;
+    this.encoding = encoding;
+  }
+
+  /** @return true for the files scan is interested in */
+  @SuppressWarnings("javadoc")
+  public static boolean isOfbizFile(String fileName) {
+    return OfbizDefinitionsExtractor.isOfbizFile(fileName);
+  }
+
+  /**
+   * @param relativePath path of the file from the ofbiz home, with '/' separators
+   * @return the path of the file in the definitions
+   */
+  @SuppressWarnings("javadoc")
+  public String getPath(String relativePath) {
+    return "/" + projectName + "/" + relativePath;
+  }
+
+  /** @return the path relative to the ofbiz home of a path in the definitions */
+  @SuppressWarnings("javadoc")
+  public String getRelativePath(String path) {
+    return path.substring(projectName.length() + 2);
+  }
+
+  /**
+   * @param relativePath path of the file from the ofbiz home, with '/' separators
+   * @return the definitions found in one xml/ftl/bsh/groovy file
+   */
+  @SuppressWarnings("javadoc")
+  public OfbizDefinitions scan(File file, String relativePath) throws IOException {
+    if (relativePath.endsWith(".xml")) {
+      //the beginning is read to check the root element, the same stream is parsed afterwards
+      InputStream in = new BufferedInputStream(new FileInputStream(file));
+      try {
+        if (OfbizDefinitionsExtractor.getSkipReason(in) != null) {
+          return new OfbizDefinitions();
+        }
+        return extractDefinitionsFromXml(relativePath, in);
+      }
+      finally {
+        in.close();
+      }
+    }
+    FileBytes bytes = FileBytes.read(file, encoding);
+    return extractDefinitionsFromScript(relativePath, bytes == null ? readContent(file) : bytes);
+  }
+
+  /** Same as scan for an xml file, without checking the root element */
+  @SuppressWarnings("javadoc")
+  public OfbizDefinitions extractDefinitionsFromXml(String relativePath, InputStream in) throws IOException {
+    OfbizDefinitions fileDefinitions = new OfbizDefinitions();
+    try {
+      extractor.extractFromXml(getPath(relativePath), projectName, in, encoding, fileDefinitions);
+    }
+    catch (SAXException e) {
+      System.err.println("Skipping file " + relativePath + " because " + e.getMessage() + " not parsable?");
+    }
+    return fileDefinitions;
+  }
+
+  /**
+   * Same as scan for a ftl/bsh/groovy file that is already read
+   * @param content the text of the file, or its bytes as FileBytes
+   */
+  @SuppressWarnings("javadoc")
+  public OfbizDefinitions extractDefinitionsFromScript(String relativePath, CharSequence content) {
+    OfbizDefinitions fileDefinitions = new OfbizDefinitions();
+    OfbizDefinitionsExtractor.extractFromScript(getPath(relativePath), content, fileDefinitions);
+    return fileDefinitions;
+  }
+
+  /** @return content of the file without byte order mark */
+  @SuppressWarnings("javadoc")
+  public String readContent(File file) throws IOException {
+    byte[] bytes = new byte[(int) file.length()];
+    InputStream in = new FileInputStream(file);
+    try {
+      int length = 0;
+      int read;
+      while (length < bytes.length && (read = in.read(bytes, length, bytes.length - length)) != -1) {
+        length += read;
+      }
+      String content = new String(bytes, 0, length, encoding);
+      if (content.length() > 0 && content.charAt(0) == BYTE_ORDER_MARK) {
+        content = content.substring(1);
+      }
+      return content;
+    }
+    finally {
+      in.close();
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.headless;
+
+import java.util.Set;
+
+/**
+ * The string literals of java source, like JavaStringLiteralIndex gets them from the scanner of JDT: the raw source
+ * between the quotes, without resolving the escapes. Comments, char literals and text blocks are skipped, so a
+ * commented out call like // dispatcher.runSync("createOrder", ctx) has no literal.
+ */
+public class JavaSourceLiterals {
+
+  private JavaSourceLiterals() {
+    //only static methods
+  }
+
+  /** @param literalSet gets the string literals of the source, an unterminated literal is not added */
+  @SuppressWarnings("javadoc")
+  public static void addLiterals(CharSequence source, Set<String> literalSet) {
+    int length = source.length();
+    int i = 0;
+    while (i < length) {
+      char c = source.charAt(i);
+      char next = i + 1 < length ? source.charAt(i + 1) : 0;
+      if (c == '/' && next == '/') {
+        i = indexAfter(source, i + 2, "\n");
+      }
+      else if (c == '/' && next == '*') {
+        i = indexAfter(source, i + 2, "*/");
+      }
+      else if (c == '"' && next == '"' && i + 2 < length && source.charAt(i + 2) == '"') {
+        i = indexAfterTextBlock(source, i + 3);
+      }
+      else if (c == '"' || c == '\'') {
+        int end = indexOfClosingQuote(source, i + 1, c);
+        if (c == '"' && end < length && source.charAt(end) == '"') {
+          literalSet.add(source.subSequence(i + 1, end).toString());
+        }
+        i = end + 1;
+      }
+      else {
+        i++;
+      }
+    }
+  }
+
+  /** @return index after the end, or the length of the source */
+  private static int indexAfter(CharSequence source, int start, String end) {
+    for (int i = start; i + end.length() <= source.length(); i++) {
+      if (startsWith(source, i, end)) {
+        return i + end.length();
+      }
+    }
+    return source.length();
+  }
+
+  private static int indexAfterTextBlock(CharSequence source, int start) {
+    for (int i = start; i < source.length(); i++) {
+      if (source.charAt(i) == '\\') {
+        i++;
+      }
+      else if (startsWith(source, i, "\"\"\"")) {
+        return i + 3;
+      }
+    }
+    return source.length();
+  }
+
+  /** @return index of the closing quote, or of the end of the line if the literal is not terminated */
+  private static int indexOfClosingQuote(CharSequence source, int start, char quote) {
+    for (int i = start; i < source.length(); i++) {
+      char c = source.charAt(i);
+      if (c == '\\') {
+        i++;
+      }
+      else if (c == quote || c == '\n' || c == '\r') {
+        return i;
+      }
+    }
+    return source.length();
+  }
+
+  private static boolean startsWith(CharSequence source, int start, String prefix) {
+    if (start + prefix.length() > source.length()) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length(); i++) {
+      if (source.charAt(start + i) != prefix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
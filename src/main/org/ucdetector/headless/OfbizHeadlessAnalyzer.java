@@ -0,0 +1,435 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.headless;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.ucdetector.search.OfbizDefinitionsExtractor;
+import org.ucdetector.search.OfbizUsageRules;
+import org.ucdetector.search.SearchResult;
+import org.ucdetector.search.StartTagLocator;
+import org.ucdetector.search.StringLiteralIndex;
+import org.ucdetector.util.ItemLocation;
+import org.ucdetector.util.OfbizDefinitions;
+import org.ucdetector.util.OfbizMessages;
+import org.ucdetector.util.ReferenceAndLocation;
+
+/**
+ * Runs the ofbiz checks on a checkout, without eclipse (no OSGi runtime, no workspace):
+ *
+ * java -cp org.ucdetector.ofbiz.jar org.ucdetector.headless.OfbizHeadlessAnalyzer [options] ofbizHome
+ *   -o file          write the report into the file instead of stdout
+ *   -encoding name   encoding of the files and of the report (default: UTF-8)
+ *   -threads n       number of threads reading and parsing the files (default: number of processors)
+ *
+ * Every line of the report is "path:line: message", the path is relative to ofbizHome.
+ *
+ * The files are scanned by the same OfbizDefinitionsExtractor and checked by the same OfbizUsageRules as in
+ * eclipse. Not checked: the methods that look like a service (needs the java model) and calls from other projects
+ * (needs a workspace). The string literals of the java files are found by JavaSourceLiterals instead of the
+ * scanner of JDT.
+ */
+public class OfbizHeadlessAnalyzer {
+
+  private static final int SCAN_AHEAD_PER_THREAD = 4;
+
+  private final File ofbizHome;
+  private final HeadlessScanner scanner;
+  private final int threadCount;
+
+  private final OfbizDefinitions definitions = new OfbizDefinitions();
+  //relative paths
+  private final List<String> ofbizFileList = new ArrayList<String>();
+  private final List<String> javaFileList = new ArrayList<String>();
+  //files where service names can be referenced as "serviceName"
+  private final List<String> literalSourceList = new ArrayList<String>();
+  private StringLiteralIndex serviceNameLiteralIndex;
+  private OfbizUsageRules rules;
+  //the xml file read again last for the positions of its start tags, its items are mostly found one after another
+  private String locatedPath;
+  private StartTagLocator startTagLocator;
+
+  public OfbizHeadlessAnalyzer(File ofbizHome, String encoding, int threadCount) {
+    this.ofbizHome = ofbizHome;
+    this.scanner = new HeadlessScanner(ofbizHome.getName(), encoding);
+    this.threadCount = threadCount;
+  }
+
+  @SuppressWarnings("javadoc")
+  public static void main(String[] args) throws IOException {
+    String outputFile = null;
+    String encoding = "UTF-8";
+    int threadCount = Runtime.getRuntime().availableProcessors();
+    File ofbizHome = null;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        if ("-o".equals(args[i]) && i + 1 < args.length) {
+          outputFile = args[++i];
+        }
+        else if ("-encoding".equals(args[i]) && i + 1 < args.length) {
+          encoding = args[++i];
+        }
+        else if ("-threads".equals(args[i]) && i + 1 < args.length) {
+          threadCount = Math.max(1, Integer.parseInt(args[++i]));
+        }
+        else if (ofbizHome == null && !args[i].startsWith("-")) {
+          ofbizHome = new File(args[i]).getCanonicalFile();
+        }
+        else {
+          throw new IllegalArgumentException(args[i]);
+        }
+      }
+    }
+    catch (IllegalArgumentException e) {
+      ofbizHome = null;
+    }
+    if (ofbizHome == null || !ofbizHome.isDirectory()) {
+      System.err.println("Usage: " + OfbizHeadlessAnalyzer.class.getName()
+          + " [-o file] [-encoding name] [-threads n] ofbizHome");
+      System.exit(2);
+    }
+
+    long start = System.currentTimeMillis();
+    OfbizHeadlessAnalyzer analyzer = new OfbizHeadlessAnalyzer(ofbizHome, encoding, threadCount);
+    List<String> reportLineList = analyzer.analyze();
+
+    PrintWriter out = new PrintWriter(new OutputStreamWriter(outputFile == null ? System.out : new FileOutputStream(
+        outputFile), encoding));
+    try {
+      for (String reportLine : reportLineList) {
+        out.println(reportLine);
+      }
+    }
+    finally {
+      out.close();
+    }
+    System.err.println(reportLineList.size() + " items found in " + analyzer.getScannedFileCount() + " files, "
+        + (System.currentTimeMillis() - start) + " ms");
+  }
+
+  /** @return the report lines, sorted by file and line */
+  @SuppressWarnings("javadoc")
+  public List<String> analyze() throws IOException {
+    scan();
+    indexServiceNameLiterals();
+
+    List<Finding> findingList = new ArrayList<Finding>();
+    findingList.addAll(searchServicesDefinitions());
+    findingList.addAll(searchFtls());
+    findingList.addAll(searchBshOrGroovyFiles());
+    findingList.addAll(searchViews());
+    findingList.addAll(searchScreens());
+    findingList.addAll(searchTransitivelyUnused());
+
+    Collections.sort(findingList);
+    List<String> reportLineList = new ArrayList<String>();
+    for (Finding finding : findingList) {
+      reportLineList.add(finding.toString());
+    }
+    return reportLineList;
+  }
+
+  /** Collects the files, the definitions in them and the services called from java code */
+  @SuppressWarnings("javadoc")
+  public void scan() throws IOException {
+    collectFiles(ofbizHome, "");
+    forEachInOrder(ofbizFileList, new FileTask<OfbizDefinitions>() {
+      public OfbizDefinitions run(File file, String relativePath) throws IOException {
+        return scanner.scan(file, relativePath);
+      }
+
+      public void handleResult(String relativePath, OfbizDefinitions fileDefinitions) {
+        definitions.addAll(fileDefinitions);
+      }
+    });
+    final Set<String> javaLiteralSet = new HashSet<String>();
+    forEachInOrder(javaFileList, new FileTask<Set<String>>() {
+      public Set<String> run(File file, String relativePath) throws IOException {
+        Set<String> fileLiteralSet = new HashSet<String>();
+        JavaSourceLiterals.addLiterals(scanner.readContent(file), fileLiteralSet);
+        return fileLiteralSet;
+      }
+
+      public void handleResult(String relativePath, Set<String> fileLiteralSet) {
+        javaLiteralSet.addAll(fileLiteralSet);
+      }
+    });
+    definitions.addServicesCalledFromJava(javaLiteralSet);
+  }
+
+  /** Has to run after scan, since the service names are known only then */
+  @SuppressWarnings("javadoc")
+  public void indexServiceNameLiterals() throws IOException {
+    serviceNameLiteralIndex = new StringLiteralIndex(definitions.serviceNameAndFilePathMap.keySet());
+    forEachInOrder(literalSourceList, new FileTask<String>() {
+      /** @return null if the file can not call services, like in ProjectLiteralIndex */
+      public String run(File file, String relativePath) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+          if (OfbizDefinitionsExtractor.getLiteralSkipReason(in) != null) {
+            return null;
+          }
+        }
+        finally {
+          in.close();
+        }
+        return scanner.readContent(file);
+      }
+
+      public void handleResult(String relativePath, String content) {
+        if (content != null) {
+          serviceNameLiteralIndex.indexContent(scanner.getPath(relativePath), content);
+        }
+      }
+    });
+    rules = new OfbizUsageRules(definitions, serviceNameLiteralIndex);
+  }
+
+  /** @return the rules of the scanned project, null before indexServiceNameLiterals */
+  @SuppressWarnings("javadoc")
+  public OfbizUsageRules getRules() {
+    return rules;
+  }
+
+  public int getScannedFileCount() {
+    return ofbizFileList.size();
+  }
+
+  private void collectFiles(File folder, String relativePath) {
+    String[] names = folder.list();
+    if (names == null) {
+      return;
+    }
+    Arrays.sort(names);
+    for (String name : names) {
+      File file = new File(folder, name);
+      String fileRelativePath = relativePath + name;
+      if (file.isDirectory()) {
+        //.svn, .git, .settings etc.
+        if (!name.startsWith(".")) {
+          collectFiles(file, fileRelativePath + "/");
+        }
+        continue;
+      }
+      if (name.endsWith(".xml")) {
+        literalSourceList.add(fileRelativePath);
+      }
+      else if (name.endsWith(".java")) {
+        javaFileList.add(fileRelativePath);
+      }
+      if (HeadlessScanner.isOfbizFile(name)) {
+        ofbizFileList.add(fileRelativePath);
+      }
+    }
+  }
+
+  //--- checks, the same as in OfbizSpecificSearchManager, they can run after scan/indexServiceNameLiterals ---
+
+  public List<Finding> searchServicesDefinitions() {
+    List<Finding> findingList = new ArrayList<Finding>();
+    for (String serviceName : definitions.serviceNameAndFilePathMap.keySet()) {
+      //the only occurrence is the definition itself
+      List<SearchResult> resultList = serviceNameLiteralIndex.getOccurrences(serviceName);
+      if (!rules.isServiceUsedInProject(serviceName) && resultList.size() == 1) {
+        findingList.add(new Finding(scanner.getRelativePath(resultList.get(0).path), resultList.get(0).lineNumber,
+            OfbizMessages.getUnusedServiceMessage(serviceName)));
+      }
+    }
+    return findingList;
+  }
+
+  public List<Finding> searchFtls() {
+    List<Finding> findingList = new ArrayList<Finding>();
+    for (Map.Entry<String, String> entry : definitions.ftlMap.entrySet()) {
+      if (!rules.isFtlUsed(entry.getKey())) {
+        findingList.add(createFinding(new ItemLocation(entry.getValue()), OfbizMessages.UNUSED_FTL_MESSAGE));
+      }
+    }
+    return findingList;
+  }
+
+  public List<Finding> searchBshOrGroovyFiles() {
+    List<Finding> findingList = new ArrayList<Finding>();
+    for (Map.Entry<String, String> entry : definitions.bshOrGroovyMap.entrySet()) {
+      if (!rules.isBshOrGroovyFileUsed(entry.getKey())) {
+        findingList.add(createFinding(new ItemLocation(entry.getValue()),
+            OfbizMessages.UNUSED_BSH_OR_GROOVY_MESSAGE));
+      }
+    }
+    return findingList;
+  }
+
+  public List<Finding> searchViews() {
+    List<Finding> findingList = new ArrayList<Finding>();
+    for (Map.Entry<String, ReferenceAndLocation> entry : definitions.viewDefinitionMap.entrySet()) {
+      if (!rules.isViewUsed(entry.getKey())) {
+        findingList.add(createFinding(entry.getValue(), OfbizMessages.UNUSED_VIEW_MESSAGE));
+      }
+      if (!rules.isScreenOfViewDefined(entry.getKey())) {
+        findingList.add(createFinding(entry.getValue(), OfbizMessages.VIEW_WITHOUT_SCREEN_MESSAGE));
+      }
+    }
+    return findingList;
+  }
+
+  public List<Finding> searchScreens() {
+    List<Finding> findingList = new ArrayList<Finding>();
+    for (Map.Entry<String, ItemLocation> entry : definitions.screenDefinitionMap.entrySet()) {
+      if (!rules.isScreenUsed(entry.getKey())) {
+        findingList.add(createFinding(entry.getValue(), OfbizMessages.UNUSED_SCREEN_MESSAGE));
+      }
+    }
+    return findingList;
+  }
+
+  /** The items that are used, but only by unused items (see OfbizReferenceGraph) */
+  @SuppressWarnings("javadoc")
+  public List<Finding> searchTransitivelyUnused() {
+    List<Finding> findingList = new ArrayList<Finding>();
+    for (String item : rules.createReferenceGraph().getItemsReferencedOnlyFromUnusedItems()) {
+      ItemLocation location = rules.getItemLocation(item);
+      if (location != null) {
+        findingList.add(createFinding(location, OfbizMessages.getOnlyUsedByUnusedItemsMessage(OfbizUsageRules
+            .getItemKind(item))));
+      }
+    }
+    return findingList;
+  }
+
+  private Finding createFinding(ItemLocation location, String message) {
+    return new Finding(scanner.getRelativePath(location.path), locateStartTag(location).lineNumber, message);
+  }
+
+  /** The xml files are not kept after parsing, the file is read again for the line of the start tag */
+  private ItemLocation locateStartTag(ItemLocation location) {
+    if (location.endLine <= 0) {
+      return location;
+    }
+    if (!location.path.equals(locatedPath)) {
+      try {
+        startTagLocator = new StartTagLocator(scanner.readContent(new File(ofbizHome, scanner
+            .getRelativePath(location.path))));
+        locatedPath = location.path;
+      }
+      catch (IOException e) {
+        System.err.println("Can not read " + location.path + " again: " + e.getMessage());
+        return location;
+      }
+    }
+    return startTagLocator.locate(location);
+  }
+
+  /** Just a container, ordered by path and line */
+  public static final class Finding implements Comparable<Finding> {
+    public final String path;
+    public final int line;
+    public final String message;
+
+    Finding(String path, int line, String message) {
+      this.path = path;
+      this.line = Math.max(1, line);
+      this.message = message;
+    }
+
+    public int compareTo(Finding other) {
+      int result = path.compareTo(other.path);
+      if (result == 0) {
+        result = line < other.line ? -1 : (line == other.line ? 0 : 1);
+      }
+      return result == 0 ? message.compareTo(other.message) : result;
+    }
+
+    /** @return the line of the report: "path:line: message" */
+    @SuppressWarnings("javadoc")
+    @Override
+    public String toString() {
+      return path + ":" + line + ": " + message;
+    }
+  }
+
+  //--- reading the files in parallel ----------------------------------------
+
+  private interface FileTask<T> {
+    /** Called from the reader threads */
+    @SuppressWarnings("javadoc")
+    T run(File file, String relativePath) throws IOException;
+
+    /** Called in the order of the files, from the thread of forEachInOrder */
+    @SuppressWarnings("javadoc")
+    void handleResult(String relativePath, T result);
+  }
+
+  /**
+   * Like OfbizSpecificUCDetectorIterator.scanOfbizProjectOrFolder: the files are read by threadCount threads,
+   * the results are handled in the order of the files, only a few files are read ahead.
+   */
+  private <T> void forEachInOrder(List<String> relativePathList, final FileTask<T> task) throws IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    try {
+      int scanAhead = threadCount * SCAN_AHEAD_PER_THREAD;
+      LinkedList<Future<T>> pendingList = new LinkedList<Future<T>>();
+      int submitted = 0;
+      for (int i = 0; i < relativePathList.size(); i++) {
+        for (; submitted < relativePathList.size() && submitted < i + scanAhead; submitted++) {
+          final String relativePath = relativePathList.get(submitted);
+          pendingList.add(executor.submit(new Callable<T>() {
+            public T call() throws IOException {
+              return task.run(new File(ofbizHome, relativePath), relativePath);
+            }
+          }));
+        }
+        task.handleResult(relativePathList.get(i), waitFor(pendingList.removeFirst()));
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static <T> T waitFor(Future<T> future) throws IOException {
+    try {
+      return future.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted");
+    }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    }
+  }
+}
@@ -6,32 +6,61 @@
  */
 package org.ucdetector.iterator;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.JavaModelException;
+import org.ucdetector.Log;
 import org.ucdetector.Messages;
 import org.ucdetector.preferences.Prefs;
+import org.ucdetector.report.ReportNameManager;
+import org.ucdetector.search.FileContentCache;
+import org.ucdetector.search.OfbizComponentShard;
+import org.ucdetector.search.OfbizDefinitionsCache;
+import org.ucdetector.search.OfbizLiveModel;
 import org.ucdetector.search.OfbizSpecificSearchManager;
 import org.ucdetector.search.OfbizSpecificXmlParser;
+import org.ucdetector.search.OfbizUsageRules;
+import org.ucdetector.search.ProjectLiteralIndex;
 import org.ucdetector.search.UISearchProgressHelper;
-import org.ucdetector.util.MarkerFactory;
-import org.ucdetector.util.NonJavaIMember;
-import org.ucdetector.util.ReferenceAndLocation;
+import org.ucdetector.util.OfbizComponents;
+import org.ucdetector.util.OfbizDefinitions;
+import org.ucdetector.util.OfbizMarkerBuffer;
+import org.ucdetector.util.OfbizOptions;
+import org.ucdetector.util.OfbizServiceSignature;
+import org.ucdetector.util.OfbizStats;
 
 /**
  * 
@@ -43,30 +72,35 @@ import org.ucdetector.util.ReferenceAndLocation;
  */
 public class OfbizSpecificUCDetectorIterator extends AbstractUCDetectorIterator {
 
-  private final Map<String, String> serviceMethodToNameMap = new HashMap<String, String>();
-  private final Map<String, IResource> serviceNameAndFilePathMap = new HashMap<String, IResource>();
-  private final Set<String> referencedServiceList = new HashSet<String>();
-
-  private final Set<NonJavaIMember> ftlList = new HashSet<NonJavaIMember>();
-  private final Set<String> referencedFtlList = new HashSet<String>();
-
-  private final Set<NonJavaIMember> bshOrGroovyList = new HashSet<NonJavaIMember>();
-  private final Set<String> referencedBshOrGroovyList = new HashSet<String>();
+  private final OfbizDefinitions definitions = new OfbizDefinitions();
 
   private final List<IMethod> ofbizServiceList = new ArrayList<IMethod>();
 
-  //controller-screen specific
-  private final Set<String> referencedViewList = new HashSet<String>();
-  private final Map<String, ReferenceAndLocation> viewDefinitionMap = new HashMap<String, ReferenceAndLocation>();
-  private final Set<String> referencedScreenList = new HashSet<String>();
-  private final Map<String, IResource> screenNameAndFilePathMap = new HashMap<String, IResource>();
+  //xml files where service names can be referenced as "serviceName", the scripts are read during the scan
+  private final List<IResource> literalSourceList = new ArrayList<IResource>();
+  private ProjectLiteralIndex serviceNameLiteralIndex;
+  //the files of each component are one shard of the scan, the java files are tokenized into their shard
+  private final OfbizComponents components = new OfbizComponents();
+  private List<OfbizComponentShard> shardList;
 
   private final OfbizSpecificXmlParser helper = new OfbizSpecificXmlParser();
+  private OfbizDefinitionsCache scanCache;
+  //definitions of each scanned file, kept for OfbizLiveModel, null if live update is disabled
+  private Map<IResource, OfbizDefinitions> fileDefinitionsMap;
 
   private final int SCAN_WORKEFFORT = 20;
   private final int SEARCH_WORKEFFORT = 80;
 
+  private static final long CANCEL_CHECK_MILLIS = 100;
+  private static final int SCAN_AHEAD_PER_THREAD = 4;
+
+  //their old markers are deleted when the new markers are created, see OfbizMarkerBuffer
+  private final List<IJavaElement> selectedElementList = new ArrayList<IJavaElement>();
   private int markerCreated;
+  private OfbizStats stats;
+
+  /** Written next to the reports of UCDetector */
+  public static final String STATS_FILE_NAME = "UCDetector_ofbiz_stats.json";
 
   @Override
   public String getJobName() {
@@ -77,49 +111,416 @@ public class OfbizSpecificUCDetectorIterator extends AbstractUCDetectorIterator
     return markerCreated;
   }
 
+  /** @return the timing and counters of the phases of the last run, null before the run */
+  @SuppressWarnings("javadoc")
+  public OfbizStats getStats() {
+    return stats;
+  }
+
   @Override
   public void handleStartSelectedElement(IJavaElement javaElement) throws CoreException {
-    MarkerFactory.deleteMarkers(javaElement);
+    selectedElementList.add(javaElement);
   }
 
   @Override
   public void handleEndGlobal(IJavaElement[] objects) throws CoreException {
     getMonitor().beginTask(Messages.UCDetectorIterator_MONITOR_INFO, 100);
+    //the scan is always done, the search phases are started while the time budget lasts
+    long startNanos = System.nanoTime();
+    long timeBudgetNanos = TimeUnit.SECONDS.toNanos(OfbizOptions.getTimeBudgetSeconds());
 
+    IProject project = null;
+    stats = new OfbizStats(objects.length > 0 ? objects[0].getJavaProject().getElementName() : "");
     if (objects.length > 0) {
       UIScanProgressHelper progressHelper = new UIScanProgressHelper(getMonitor(), SCAN_WORKEFFORT, /*guess*/
       SCAN_WORKEFFORT * 40);
-      IProject project = objects[0].getCorrespondingResource().getProject();
-      scanOfbizProjectOrFolder(project, progressHelper);
+      project = objects[0].getCorrespondingResource().getProject();
+      OfbizLiveModel.stop(project);
+      fileDefinitionsMap = OfbizOptions.isLiveUpdateEnabled() ? new LinkedHashMap<IResource, OfbizDefinitions>() : null;
+      scanCache = OfbizOptions.isScanCacheEnabled() ? OfbizDefinitionsCache.createForProject(project) : null;
+      if (scanCache != null) {
+        scanCache.load();
+      }
+      stats.startPhase("scan");
+      scanOfbizProjectOrFolder(project, objects[0].getJavaProject(), progressHelper);
+      addServicesCalledFromJava();
+      if (scanCache != null) {
+        scanCache.save();
+        Log.info("Scan cache hits: " + scanCache.getHitCount() + ", misses: " + scanCache.getMissCount());
+      }
+      Log.info("Not parsed xml files: " + helper.getSkippedFileCountByReason());
+      stats.startPhase("index");
+      indexServiceNameLiterals(project, progressHelper);
+      stats.endPhase();
     }
 
-    OfbizSpecificSearchManager searchManager = new OfbizSpecificSearchManager(getMarkerFactory());
+    final OfbizMarkerBuffer markerBuffer = new OfbizMarkerBuffer(getMarkerFactory());
+    for (IJavaElement javaElement : selectedElementList) {
+      markerBuffer.deleteMarkers(javaElement);
+    }
+    selectedElementList.clear();
+    final OfbizSpecificSearchManager searchManager = new OfbizSpecificSearchManager(markerBuffer);
+    List<SearchPhase> searchPhaseList = getSearchPhases();
+    for (SearchPhase searchPhase : searchPhaseList) {
+      stats.setCoverage(searchPhase.name, OfbizStats.NOT_COVERED);
+    }
 
     try {
       UISearchProgressHelper searchProgressHelper = new UISearchProgressHelper(getMonitor(), SEARCH_WORKEFFORT,
           getElelementsToDetectCount());
 
-      searchProgressHelper.resetLocal(ofbizServiceList.size());
-      searchManager.searchServices(ofbizServiceList, serviceMethodToNameMap, searchProgressHelper);
+      List<SearchPhase> sequentialPhaseList = new ArrayList<SearchPhase>(searchPhaseList);
+      int threadCount = OfbizOptions.getSearchThreadCount();
+      if (threadCount > 1 && !isTimeBudgetUsedUp(startNanos, timeBudgetNanos)) {
+        List<SearchPhase> independentPhaseList = new ArrayList<SearchPhase>();
+        for (SearchPhase searchPhase : searchPhaseList) {
+          if (searchPhase.isIndependent) {
+            independentPhaseList.add(searchPhase);
+          }
+        }
+        sequentialPhaseList.removeAll(independentPhaseList);
+        stats.startPhase("searchConcurrently");
+        runConcurrently(independentPhaseList, searchManager, markerBuffer, Math.min(threadCount,
+            independentPhaseList.size()), startNanos, timeBudgetNanos);
+        publishMarkers(searchManager, markerBuffer, getMonitor());
+        stats.endPhase();
+      }
 
-      searchProgressHelper.resetLocal(serviceNameAndFilePathMap.size());
-      searchManager.searchServicesDefinitions(serviceNameAndFilePathMap, referencedServiceList, searchProgressHelper);
+      //the time budget is checked for each item, the markers are published after each batch of items
+      SearchPhasesProgressMonitor phasesMonitor = new SearchPhasesProgressMonitor(getMonitor(), startNanos,
+          timeBudgetNanos);
+      searchManager.setBatchListener(new OfbizSpecificSearchManager.BatchListener() {
+        public void batchDone() throws CoreException {
+          publishMarkers(searchManager, markerBuffer, getMonitor());
+        }
+      });
+      for (SearchPhase searchPhase : sequentialPhaseList) {
+        if (isTimeBudgetUsedUp(startNanos, timeBudgetNanos)) {
+          break;
+        }
+        searchProgressHelper.resetLocal(searchPhase.itemCount);
+        stats.startPhase(searchPhase.name);
+        stats.setCoverage(searchPhase.name, OfbizStats.PARTIAL);
+        try {
+          searchPhase.run(searchManager, searchProgressHelper, phasesMonitor);
+        }
+        catch (OperationCanceledException e) {
+          if (getMonitor().isCanceled() || !phasesMonitor.isTimeBudgetUsedUp()) {
+            throw e;
+          }
+          logTimeBudgetUsedUp();
+          break;
+        }
+        stats.setCoverage(searchPhase.name, OfbizStats.COVERED);
+        publishMarkers(searchManager, markerBuffer, getMonitor());
+        stats.endPhase();
+      }
 
-      searchProgressHelper.resetLocal(ftlList.size());
-      searchManager.searchFtls(ftlList, referencedFtlList, searchProgressHelper);
+      if (stats.isComplete() && project != null && fileDefinitionsMap != null) {
+        OfbizLiveModel.start(project, fileDefinitionsMap, definitions);
+        fileDefinitionsMap = null;
+      }
+    }
+    finally {
+      //the items confirmed before a cancel are correct, only the category is not complete
+      if (markerBuffer.getMarkerCount() > 0) {
+        publishMarkers(searchManager, markerBuffer, new NullProgressMonitor());
+      }
+      stats.endPhase();
+      FileContentCache contentCache = FileContentCache.getInstance();
+      Log.info("Content cache hits: " + contentCache.getHitCount() + ", misses: " + contentCache.getMissCount());
+      contentCache.clear();
+      writeStats();
+    }
+  }
 
-      searchProgressHelper.resetLocal(bshOrGroovyList.size());
-      searchManager.searchBshOrGroovyFiles(bshOrGroovyList, referencedBshOrGroovyList, searchProgressHelper);
+  private boolean isTimeBudgetUsedUp(long startNanos, long timeBudgetNanos) {
+    if (timeBudgetNanos > 0 && System.nanoTime() - startNanos > timeBudgetNanos) {
+      logTimeBudgetUsedUp();
+      return true;
+    }
+    return false;
+  }
 
-      searchProgressHelper.resetLocal(viewDefinitionMap.size());
-      searchManager.searchViews(viewDefinitionMap, referencedViewList, screenNameAndFilePathMap, searchProgressHelper);
+  private void logTimeBudgetUsedUp() {
+    Log.warn("Time budget of " + OfbizOptions.getTimeBudgetSeconds() + " seconds used up, not covered: "
+        + stats.getIncompleteCoverage());
+  }
 
-      searchProgressHelper.resetLocal(screenNameAndFilePathMap.size());
-      searchManager.searchScreens(screenNameAndFilePathMap, referencedScreenList, searchProgressHelper);
+  /** One chunk of the search, it checks one category of items */
+  private abstract static class SearchPhase {
+    final String name;
+    final int itemCount;
+    /** only reads the definitions and creates markers, so it can run at the same time as the other ones */
+    final boolean isIndependent;
+    /** set by the search thread */
+    volatile boolean isStarted;
+
+    SearchPhase(String name, int itemCount, boolean isIndependent) {
+      this.name = name;
+      this.itemCount = itemCount;
+      this.isIndependent = isIndependent;
+    }
 
+    /** @param monitor stops the phase at the next item, cancels the searches in the workspace */
+    @SuppressWarnings("javadoc")
+    abstract void run(OfbizSpecificSearchManager searchManager, UISearchProgressHelper progressHelper,
+        IProgressMonitor monitor) throws CoreException;
+
+    /** @return true if the markers can not be published while it runs, since the reports use its LineManger */
+    @SuppressWarnings("javadoc")
+    boolean isUsingLineManger() {
+      return false;
+    }
+  }
+
+  private List<SearchPhase> getSearchPhases() {
+    final OfbizUsageRules rules = new OfbizUsageRules(definitions, serviceNameLiteralIndex);
+    List<SearchPhase> searchPhaseList = new ArrayList<SearchPhase>();
+    searchPhaseList.add(new SearchPhase("searchServices", ofbizServiceList.size(), true) {
+      @Override
+      void run(OfbizSpecificSearchManager searchManager, UISearchProgressHelper progressHelper,
+          IProgressMonitor monitor) throws CoreException {
+        searchManager.searchServices(ofbizServiceList, definitions.serviceMethodToNameMap, progressHelper, monitor);
+      }
+
+      @Override
+      boolean isUsingLineManger() {
+        return true;
+      }
+    });
+    int serviceDefinitionCount = definitions.serviceNameAndFilePathMap.size();
+    searchPhaseList.add(new SearchPhase("searchServicesDefinitions", serviceDefinitionCount, true) {
+      @Override
+      void run(OfbizSpecificSearchManager searchManager, UISearchProgressHelper progressHelper,
+          IProgressMonitor monitor) throws CoreException {
+        searchManager.searchServicesDefinitions(rules, serviceNameLiteralIndex, progressHelper, monitor);
+      }
+    });
+    searchPhaseList.add(new SearchPhase("searchFtls", definitions.ftlMap.size(), true) {
+      @Override
+      void run(OfbizSpecificSearchManager searchManager, UISearchProgressHelper progressHelper,
+          IProgressMonitor monitor) throws CoreException {
+        searchManager.searchFtls(rules, progressHelper, monitor);
+      }
+    });
+    searchPhaseList.add(new SearchPhase("searchBshOrGroovyFiles", definitions.bshOrGroovyMap.size(), true) {
+      @Override
+      void run(OfbizSpecificSearchManager searchManager, UISearchProgressHelper progressHelper,
+          IProgressMonitor monitor) throws CoreException {
+        searchManager.searchBshOrGroovyFiles(rules, progressHelper, monitor);
+      }
+    });
+    searchPhaseList.add(new SearchPhase("searchViews", definitions.viewDefinitionMap.size(), true) {
+      @Override
+      void run(OfbizSpecificSearchManager searchManager, UISearchProgressHelper progressHelper,
+          IProgressMonitor monitor) throws CoreException {
+        searchManager.searchViews(rules, progressHelper, monitor);
+      }
+    });
+    searchPhaseList.add(new SearchPhase("searchScreens", definitions.screenDefinitionMap.size(), true) {
+      @Override
+      void run(OfbizSpecificSearchManager searchManager, UISearchProgressHelper progressHelper,
+          IProgressMonitor monitor) throws CoreException {
+        searchManager.searchScreens(rules, progressHelper, monitor);
+      }
+    });
+    searchPhaseList.add(new SearchPhase("searchTransitivelyUnused", definitions.screenDefinitionMap.size(), false) {
+      @Override
+      void run(OfbizSpecificSearchManager searchManager, UISearchProgressHelper progressHelper,
+          IProgressMonitor monitor) throws CoreException {
+        searchManager.searchTransitivelyUnused(rules, serviceNameLiteralIndex, progressHelper, monitor);
+      }
+    });
+    return searchPhaseList;
+  }
+
+  /**
+   * Runs the phases on threadCount threads, the time is about the time of the slowest phase. The work of the phases
+   * is shown in the monitor of the job by this thread. Each phase is measured on its thread (see
+   * OfbizStats.startThreadPhase). The markers are published by this thread when a phase is done, but not while
+   * searchServices runs, since the reports use its LineManger.
+   *
+   * When the time budget is used up the phases stop at their next item. The phases that were not done are PARTIAL
+   * if they started, else they stay NOT_COVERED.
+   */
+  private void runConcurrently(List<SearchPhase> searchPhaseList, final OfbizSpecificSearchManager searchManager,
+      OfbizMarkerBuffer markerBuffer, int threadCount, long startNanos, long timeBudgetNanos) throws CoreException {
+    final SearchPhasesProgressMonitor threadsMonitor = new SearchPhasesProgressMonitor(getMonitor(), startNanos,
+        timeBudgetNanos);
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount, new OfbizThreadFactory("search"));
+    CompletionService<SearchPhase> completionService = new ExecutorCompletionService<SearchPhase>(executor);
+    Set<SearchPhase> donePhaseSet = new HashSet<SearchPhase>();
+    try {
+      for (final SearchPhase searchPhase : searchPhaseList) {
+        //the work of each helper is its part of SEARCH_WORKEFFORT, as with one helper for all phases
+        final UISearchProgressHelper progressHelper = new UISearchProgressHelper(threadsMonitor, SEARCH_WORKEFFORT,
+            getElelementsToDetectCount());
+        progressHelper.resetLocal(searchPhase.itemCount);
+        completionService.submit(new Callable<SearchPhase>() {
+          public SearchPhase call() throws CoreException {
+            if (threadsMonitor.isCanceled()) {
+              throw new OperationCanceledException();//not started
+            }
+            searchPhase.isStarted = true;
+            stats.startThreadPhase(searchPhase.name);
+            try {
+              searchPhase.run(searchManager, progressHelper, threadsMonitor);
+              return searchPhase;
+            }
+            finally {
+              stats.endThreadPhase();
+            }
+          }
+        });
+      }
+      for (int done = 0; done < searchPhaseList.size();) {
+        Future<SearchPhase> future;
+        try {
+          future = completionService.poll(CANCEL_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new OperationCanceledException();
+        }
+        threadsMonitor.forwardWork();
+        checkForCancel();
+        if (threadsMonitor.isTimeBudgetUsedUp()) {
+          threadsMonitor.setCanceled(true);
+        }
+        if (future != null) {
+          done++;
+          try {
+            SearchPhase searchPhase = waitFor(future);
+            stats.setCoverage(searchPhase.name, OfbizStats.COVERED);
+            donePhaseSet.add(searchPhase);
+            if (!isLineMangerInUse(searchPhaseList, donePhaseSet)) {
+              publishMarkers(searchManager, markerBuffer, getMonitor());
+            }
+          }
+          catch (OperationCanceledException e) {
+            if (getMonitor().isCanceled() || !threadsMonitor.isTimeBudgetUsedUp()) {
+              throw e;
+            }
+            //stopped by the time budget
+          }
+        }
+      }
     }
     finally {
-      markerCreated = searchManager.getMarkerCreated();
+      //after a cancel, a failed phase or the end of the time budget the other phases stop at their next item
+      threadsMonitor.setCanceled(true);
+      executor.shutdownNow();
+      for (SearchPhase searchPhase : searchPhaseList) {
+        if (searchPhase.isStarted && !donePhaseSet.contains(searchPhase)) {
+          stats.setCoverage(searchPhase.name, OfbizStats.PARTIAL);
+        }
+      }
+    }
+  }
+
+  private static boolean isLineMangerInUse(List<SearchPhase> searchPhaseList, Set<SearchPhase> donePhaseSet) {
+    for (SearchPhase searchPhase : searchPhaseList) {
+      if (searchPhase.isUsingLineManger() && !donePhaseSet.contains(searchPhase)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The progress monitor of the search phases. It is canceled by the cancel of the job, and when the time budget is
+   * used up. On the search threads the work is collected and forwarded to the monitor of the job by its own thread,
+   * since the monitors of eclipse are not thread safe.
+   */
+  private static final class SearchPhasesProgressMonitor extends NullProgressMonitor {
+    private final IProgressMonitor jobMonitor;
+    private final long startNanos;
+    /** 0 for no time budget */
+    private final long timeBudgetNanos;
+    private final AtomicInteger work = new AtomicInteger();
+    private double internalWork;
+    private volatile String subTaskName;
+
+    SearchPhasesProgressMonitor(IProgressMonitor jobMonitor, long startNanos, long timeBudgetNanos) {
+      this.jobMonitor = jobMonitor;
+      this.startNanos = startNanos;
+      this.timeBudgetNanos = timeBudgetNanos;
+    }
+
+    boolean isTimeBudgetUsedUp() {
+      return timeBudgetNanos > 0 && System.nanoTime() - startNanos > timeBudgetNanos;
+    }
+
+    @Override
+    public void worked(int workToAdd) {
+      work.addAndGet(workToAdd);
+    }
+
+    @Override
+    public synchronized void internalWorked(double workToAdd) {
+      internalWork += workToAdd;
+    }
+
+    @Override
+    public void subTask(String name) {
+      subTaskName = name;
+    }
+
+    @Override
+    public boolean isCanceled() {
+      return super.isCanceled() || jobMonitor.isCanceled() || isTimeBudgetUsedUp();
+    }
+
+    /** Called from the thread of the job */
+    void forwardWork() {
+      int workDone = work.getAndSet(0);
+      if (workDone > 0) {
+        jobMonitor.worked(workDone);
+      }
+      double internalWorkDone;
+      synchronized (this) {
+        internalWorkDone = internalWork;
+        internalWork = 0;
+      }
+      if (internalWorkDone > 0) {
+        jobMonitor.internalWorked(internalWorkDone);
+      }
+      String name = subTaskName;
+      if (name != null) {
+        subTaskName = null;
+        jobMonitor.subTask(name);
+      }
+    }
+  }
+
+  /**
+   * The markers found since the last call are shown, the first call deletes the old markers in the same workspace
+   * operation. The markers are counted for their phase by the search manager.
+   */
+  private void publishMarkers(OfbizSpecificSearchManager searchManager, OfbizMarkerBuffer markerBuffer,
+      IProgressMonitor monitor) throws CoreException {
+    for (String path : markerBuffer.getMarkerFilePaths()) {
+      stats.countDeadItem(components.getComponentRoot(path));
+    }
+    markerCreated = searchManager.getMarkerCreated();
+    markerBuffer.flush(monitor);
+  }
+
+  private void writeStats() {
+    Log.info("Ofbiz phases: " + stats.getSummary());
+    String reportFolder = ReportNameManager.getReportDir(false);
+    if (reportFolder == null) {
+      return;
+    }
+    File statsFile = new File(reportFolder, STATS_FILE_NAME);
+    try {
+      if (statsFile.getParentFile().isDirectory() || statsFile.getParentFile().mkdirs()) {
+        stats.writeJson(statsFile);
+      }
+    }
+    catch (IOException e) {
+      Log.warn("Writing " + statsFile + " failed: " + e.getMessage());
     }
   }
 
@@ -128,16 +529,114 @@ public class OfbizSpecificUCDetectorIterator extends AbstractUCDetectorIterator
    */
   @Override
   public int getElelementsToDetectCount() {
-    return ofbizServiceList.size() + serviceNameAndFilePathMap.size() + ftlList.size() + bshOrGroovyList.size()
-        + viewDefinitionMap.size() + screenNameAndFilePathMap.size();
+    return ofbizServiceList.size() + definitions.serviceNameAndFilePathMap.size() + definitions.ftlMap.size()
+        + definitions.bshOrGroovyMap.size() + definitions.viewDefinitionMap.size()
+        + definitions.screenDefinitionMap.size();
   }
 
   /**
    * Extract service names / methods / screens etc. for faster searches
+   * 
+   * The folders are walked on this thread, the files are parsed by OfbizOptions.getScanThreadCount() threads.
+   * The files of each component (see OfbizComponents) are merged into its shard in the order of the walk, then the
+   * shards are merged. With the scan cache only the shards with changed files are built, the others are taken
+   * from the last run.
    * @throws CoreException 
    */
-  private void scanOfbizProjectOrFolder(IContainer project, UIScanProgressHelper progressHelper) throws CoreException {
-    List<IResource> resourceList = new ArrayList<IResource>(Arrays.asList(project.members(IContainer.EXCLUDE_DERIVED)));
+  private void scanOfbizProjectOrFolder(IContainer project, IJavaProject javaProject,
+      UIScanProgressHelper progressHelper) throws CoreException {
+    List<IResource> fileList = new ArrayList<IResource>();
+    collectFiles(project, fileList, progressHelper);
+
+    shardList = OfbizComponentShard.split(fileList, components, javaProject, definitions,
+        fileDefinitionsMap != null);
+    if (scanCache == null) {
+      OfbizComponentShard.forgetShards(project.getProject());
+    }
+    List<IResource> scanFileList = new ArrayList<IResource>();
+    List<OfbizComponentShard> scanShardList = new ArrayList<OfbizComponentShard>();
+    for (int i = 0; i < shardList.size(); i++) {
+      OfbizComponentShard shard = scanCache == null ? shardList.get(i) : OfbizComponentShard.reuseLastShard(project
+          .getProject(), shardList.get(i));
+      shardList.set(i, shard);
+      for (IResource file : shard.getFiles()) {
+        if (!shard.isReused()) {
+          scanFileList.add(file);
+          scanShardList.add(shard);
+        }
+        else if (scanCache != null) {
+          scanCache.keep(file);
+        }
+      }
+    }
+    scanFiles(scanFileList, scanShardList);
+
+    int reusedCount = 0;
+    for (OfbizComponentShard shard : shardList) {
+      shard.mergeInto(definitions, fileDefinitionsMap);
+      stats.addShard(shard.componentRoot, shard.getFiles().size(), shard.isReused(), shard.getScanNanos());
+      reusedCount += shard.isReused() ? 1 : 0;
+    }
+    if (scanCache != null) {
+      OfbizComponentShard.keepShards(project.getProject(), shardList);
+    }
+    Log.info("Components: " + components.getComponentCount() + ", shards built: " + (shardList.size() - reusedCount)
+        + ", reused: " + reusedCount);
+  }
+
+  /** @param fileShardList the shard of each file */
+  private void scanFiles(List<IResource> fileList, List<OfbizComponentShard> fileShardList) throws CoreException {
+    int threadCount = Math.min(OfbizOptions.getScanThreadCount(), fileList.size());
+    if (threadCount <= 1) {
+      for (int i = 0; i < fileList.size(); i++) {
+        checkForCancel();
+        fileShardList.get(i).addDefinitions(fileList.get(i), scanFile(fileList.get(i), fileShardList.get(i)));
+      }
+      return;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount, new OfbizThreadFactory("scan"));
+    try {
+      //only a few files are scanned ahead, so the not yet merged results do not fill the memory
+      int scanAhead = threadCount * SCAN_AHEAD_PER_THREAD;
+      LinkedList<Future<OfbizDefinitions>> pendingList = new LinkedList<Future<OfbizDefinitions>>();
+      int submitted = 0;
+      for (int i = 0; i < fileList.size(); i++) {
+        for (; submitted < fileList.size() && submitted < i + scanAhead; submitted++) {
+          pendingList.add(executor.submit(new ScanFileTask(fileList.get(submitted), fileShardList.get(submitted))));
+        }
+        showStatus(fileList.get(i));
+        fileShardList.get(i).addDefinitions(fileList.get(i), waitFor(pendingList.removeFirst()));
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private final class ScanFileTask implements Callable<OfbizDefinitions> {
+    private final IResource file;
+    private final OfbizComponentShard shard;
+
+    ScanFileTask(IResource file, OfbizComponentShard shard) {
+      this.file = file;
+      this.shard = shard;
+    }
+
+    public OfbizDefinitions call() throws CoreException {
+      long startCpuNanos = OfbizStats.getCurrentThreadCpuNanos();
+      try {
+        return scanFile(file, shard);
+      }
+      finally {
+        OfbizStats.count(OfbizStats.CPU_NANOS_OF_OTHER_THREADS, OfbizStats.getCurrentThreadCpuNanos() - startCpuNanos);
+      }
+    }
+  }
+
+  private void collectFiles(IContainer folder, List<IResource> fileList, UIScanProgressHelper progressHelper)
+      throws CoreException {
+    List<IResource> resourceList = new ArrayList<IResource>(Arrays.asList(folder.members(IContainer.EXCLUDE_DERIVED)));
 
     for (IResource resource : resourceList) {
       checkForCancel();
@@ -145,32 +644,123 @@ public class OfbizSpecificUCDetectorIterator extends AbstractUCDetectorIterator
       if (resource.getType() == IResource.FOLDER) {
         progressHelper.showProgress();
         showStatus(resource);
-        scanOfbizProjectOrFolder((IFolder) resource, progressHelper);
+        collectFiles((IFolder) resource, fileList, progressHelper);
       }
-      else if ("xml".equals(resource.getFileExtension())) {
+      else {
+        if (OfbizComponents.COMPONENT_FILE_NAME.equals(resource.getName())) {
+          components.addComponentFile(resource.getProjectRelativePath().toString());
+        }
+        String extension = resource.getFileExtension();
+        if ("xml".equals(extension)) {
+          literalSourceList.add(resource);
+        }
+        if ("java".equals(extension) || OfbizSpecificXmlParser.isOfbizFile(resource)) {
+          fileList.add(resource);
+        }
+      }
+    }
+  }
 
-        helper.extractDefinitionsFromXml(resource, serviceMethodToNameMap, serviceNameAndFilePathMap,
-            referencedFtlList, referencedBshOrGroovyList, referencedServiceList, referencedViewList, viewDefinitionMap,
-            referencedScreenList, screenNameAndFilePathMap);
+  /**
+   * Called from the scan threads, takes the definitions from the cache if the file did not change
+   * @return null for java files, they only fill the JavaStringLiteralIndex of the shard
+   */
+  private OfbizDefinitions scanFile(IResource resource, OfbizComponentShard shard) throws CoreException {
+    long startNanos = System.nanoTime();
+    try {
+      if ("java".equals(resource.getFileExtension())) {
+        shard.getJavaStringLiteralIndex().indexResource(resource);
+        return null;
+      }
+      OfbizDefinitions fileDefinitions = scanCache == null ? null : scanCache.get(resource);
+      if (fileDefinitions != null) {
+        return fileDefinitions;
+      }
+      fileDefinitions = helper.extractDefinitions(resource);
 
+      if (scanCache != null) {
+        scanCache.put(resource, fileDefinitions);
       }
-      else if ("ftl".equals(resource.getFileExtension())) {
-        ftlList.add(new NonJavaIMember(resource));
-        helper.searchForProgrammaticallyRenderedScreen(resource, referencedScreenList);
+      return fileDefinitions;
+    }
+    finally {
+      shard.addScanNanos(System.nanoTime() - startNanos);
+    }
+  }
+
+  /** Waits for the result of a scan or search thread, but reacts on cancel in the meantime */
+  private <T> T waitFor(Future<T> future) throws CoreException {
+    while (true) {
+      checkForCancel();
+      try {
+        return future.get(CANCEL_CHECK_MILLIS, TimeUnit.MILLISECONDS);
       }
-      else if ("bsh".equals(resource.getFileExtension())) {
-        bshOrGroovyList.add(new NonJavaIMember(resource));
-        helper.searchForProgrammaticallyRenderedScreen(resource, referencedScreenList);
+      catch (TimeoutException e) {
+        //check cancel again
       }
-      else if ("bsh".equals(resource.getFileExtension())) {
-        helper.searchForProgrammaticallyRenderedScreen(resource, referencedScreenList);
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new OperationCanceledException();
       }
-      else if ("groovy".equals(resource.getFileExtension())) {
-        bshOrGroovyList.add(new NonJavaIMember(resource));
+      catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof CoreException) {
+          throw (CoreException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new RuntimeException(cause);
       }
     }
   }
 
+  /** Daemon threads, so a hanging parser can not block the shutdown of eclipse */
+  private static final class OfbizThreadFactory implements ThreadFactory {
+    private final String task;
+    private int threadCount;
+
+    OfbizThreadFactory(String task) {
+      this.task = task;
+    }
+
+    public synchronized Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "UCDetector Ofbiz " + task + " " + ++threadCount);
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  /** See OfbizDefinitions.addServicesCalledFromJava */
+  private void addServicesCalledFromJava() {
+    Set<String> javaLiteralSet = new HashSet<String>();
+    for (OfbizComponentShard shard : shardList) {
+      shard.getJavaStringLiteralIndex().addLiteralsTo(javaLiteralSet);
+    }
+    Log.info("Services called from java code: " + definitions.addServicesCalledFromJava(javaLiteralSet));
+  }
+
+  /**
+   * Read every xml file of the project once and collect where the service names are used as "serviceName".
+   * Labels, entity definitions and ant builds are skipped, see OfbizDefinitionsExtractor.getLiteralSkipReason.
+   * Has to run after scanOfbizProjectOrFolder, since the service names are known only then.
+   */
+  private void indexServiceNameLiterals(IContainer project, UIScanProgressHelper progressHelper)
+      throws CoreException {
+    serviceNameLiteralIndex = new ProjectLiteralIndex(project, definitions.serviceNameAndFilePathMap.keySet());
+    for (IResource resource : literalSourceList) {
+      checkForCancel();
+      progressHelper.showProgress();
+      serviceNameLiteralIndex.indexResource(resource);
+    }
+    Log.info("Service name literals: " + serviceNameLiteralIndex.getSkippedFileCount()
+        + " xml files skipped by their root element");
+    literalSourceList.clear();
+  }
+
   /** For eclipse's progress dialogue */
   @SuppressWarnings("javadoc")
   public final void showStatus(IResource resource) {
@@ -198,18 +788,8 @@ public class OfbizSpecificUCDetectorIterator extends AbstractUCDetectorIterator
 
   /** @return true if the method is static has two parameters namely a DispatchContext and a map */
   private static boolean isOfbizService(IMethod method) throws JavaModelException {
-    if (isStatic(method) && isPublic(method)) {
-      String[] paramTypes = method.getParameterTypes();
-      if (paramTypes.length == 2
-          && paramTypes[0].equals("QDispatchContext;")
-          && (paramTypes[1].equals("QMap<QString;QObject;>;") || paramTypes[1].equals("QMap<QString;+QObject;>;")
-              || paramTypes[1].equals("QMap<QString;*>;") || paramTypes[1].equals("QMap;")
-
-          )) {
-        return true;
-      }
-    }
-    return false;
+    return isStatic(method) && isPublic(method)
+        && OfbizServiceSignature.isServiceParameterTypes(method.getParameterTypes());
   }
 
   protected static final boolean isStatic(IMember member) throws JavaModelException {
@@ -0,0 +1,202 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.ucdetector.util.OfbizStats;
+
+/**
+ * Content of a file as bytes, for searching ascii patterns without decoding the file. Large files can be mapped into
+ * memory instead of being copied to the heap (see readOrMap and OfbizOptions.isFileMappingEnabled).
+ *
+ * As a CharSequence every byte is one char (like ISO-8859-1), so the indexes are byte indexes (after the byte order
+ * mark). Only the found regions are decoded (decode), getCharOffset gives the offset eclipse uses for the markers.
+ * This works only for encodings where the ascii characters are single bytes and are not part of other characters,
+ * see getAsciiCompatibleCharset. Does not use eclipse, FileContentCache reads the files of the workspace.
+ *
+ * Not thread safe, but more FileBytes can share the same bytes (see FileContentCache).
+ */
+public final class FileBytes implements CharSequence {
+
+  /** Smaller files are read, mapping them costs more than copying them */
+  static final int MAP_THRESHOLD = 64 * 1024;
+
+  private static final Set<String> SINGLE_BYTE_CHARSETS = new HashSet<String>(Arrays.asList("US-ASCII",
+      "ISO-8859-1", "ISO-8859-2", "ISO-8859-4", "ISO-8859-5", "ISO-8859-7", "ISO-8859-9", "ISO-8859-13",
+      "ISO-8859-15", "windows-1250", "windows-1251", "windows-1252", "windows-1253", "windows-1254",
+      "windows-1257"));
+
+  private final ByteBuffer bytes;
+  /** index of the first byte after the byte order mark */
+  private final int start;
+  private final int length;
+  private final String charset;
+  private final boolean isUtf8;
+
+  //last position of getCharOffset/getLineNumber, they are mostly called with indexes close to it
+  private int positionIndex;
+  private int positionCharOffset;
+  private int positionLine = 1;
+
+  private FileBytes(ByteBuffer bytes, String charset, boolean isUtf8) {
+    this.bytes = bytes;
+    this.charset = charset;
+    this.isUtf8 = isUtf8;
+    int limit = bytes.limit();
+    this.start = isUtf8 && limit >= 3 && (bytes.get(0) & 0xFF) == 0xEF && (bytes.get(1) & 0xFF) == 0xBB
+        && (bytes.get(2) & 0xFF) == 0xBF ? 3 : 0;
+    this.length = limit - start;
+  }
+
+  /**
+   * Reads the whole file into the heap, for the files that are scanned once (see OfbizScriptScanner)
+   * @return the bytes of the file, or null if the charset is not ascii compatible and the file has to be decoded
+   */
+  @SuppressWarnings("javadoc")
+  public static FileBytes read(File file, String charsetName) throws IOException {
+    String charset = getAsciiCompatibleCharset(charsetName);
+    return charset == null ? null : create(readOrMap(file, false), charset);
+  }
+
+  /** @param charset see getAsciiCompatibleCharset */
+  @SuppressWarnings("javadoc")
+  static FileBytes create(ByteBuffer bytes, String charset) {
+    return new FileBytes(bytes, charset, "UTF-8".equals(charset));
+  }
+
+  /** @return canonical name of the charset or null if it is not known to be ascii compatible */
+  static String getAsciiCompatibleCharset(String charsetName) {
+    try {
+      String name = Charset.forName(charsetName).name();
+      return "UTF-8".equals(name) || SINGLE_BYTE_CHARSETS.contains(name) ? name : null;
+    }
+    catch (IllegalArgumentException e) {
+      return null;//unsupported or illegal name
+    }
+  }
+
+  /** @param isMappingAllowed false to read the file into the heap, whatever its size */
+  @SuppressWarnings("javadoc")
+  static ByteBuffer readOrMap(File file, boolean isMappingAllowed) throws IOException {
+    FileInputStream in = new FileInputStream(file);
+    try {
+      FileChannel channel = in.getChannel();
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("File is too large: " + size);
+      }
+      OfbizStats.count(OfbizStats.FILES_VISITED, 1);
+      OfbizStats.count(OfbizStats.BYTES_READ, size);
+      if (size >= MAP_THRESHOLD && isMappingAllowed) {
+        //the mapping stays valid after closing the channel
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+      ByteBuffer buffer = ByteBuffer.allocate((int) size);
+      while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+        //read the rest
+      }
+      buffer.flip();
+      return buffer;
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  /** @return true if the text can be searched in the bytes (only ascii characters) */
+  @SuppressWarnings("javadoc")
+  public static boolean isAscii(CharSequence text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) > 0x7F) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int length() {
+    return length;
+  }
+
+  public char charAt(int index) {
+    return (char) (bytes.get(start + index) & 0xFF);
+  }
+
+  /** Byte by byte, use decode to get the real characters */
+  @SuppressWarnings("javadoc")
+  public CharSequence subSequence(int startIndex, int endIndex) {
+    StringBuilder result = new StringBuilder(endIndex - startIndex);
+    for (int i = startIndex; i < endIndex; i++) {
+      result.append(charAt(i));
+    }
+    return result;
+  }
+
+  /** @return the characters of the bytes between the indexes */
+  @SuppressWarnings("javadoc")
+  public String decode(int startIndex, int endIndex) {
+    byte[] region = new byte[endIndex - startIndex];
+    for (int i = 0; i < region.length; i++) {
+      region[i] = bytes.get(start + startIndex + i);
+    }
+    try {
+      return new String(region, charset);
+    }
+    catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e.getMessage());//checked in open
+    }
+  }
+
+  /** @return offset of the character at the byte index (like in the editor) */
+  @SuppressWarnings("javadoc")
+  public int getCharOffset(int index) {
+    moveTo(index);
+    return positionCharOffset;
+  }
+
+  /** @return 1 based line number of the byte index */
+  @SuppressWarnings("javadoc")
+  public int getLineNumber(int index) {
+    moveTo(index);
+    return positionLine;
+  }
+
+  /** Walks from the last position, backwards too: the matches of different patterns are not sorted by index */
+  private void moveTo(int index) {
+    for (; positionIndex < index; positionIndex++) {
+      count(bytes.get(start + positionIndex) & 0xFF, 1);
+    }
+    for (; positionIndex > index; positionIndex--) {
+      count(bytes.get(start + positionIndex - 1) & 0xFF, -1);
+    }
+  }
+
+  /** @param step 1 to move behind the byte, -1 to move back in front of it */
+  @SuppressWarnings("javadoc")
+  private void count(int b, int step) {
+    if (b == '\n') {
+      positionLine += step;
+    }
+    if (!isUtf8 || (b & 0xC0) != 0x80) {
+      positionCharOffset += step;
+      //4 byte sequences are 2 chars (surrogate pair)
+      if (isUtf8 && (b & 0xF8) == 0xF0) {
+        positionCharOffset += step;
+      }
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.ucdetector.Log;
+import org.ucdetector.util.OfbizOptions;
+import org.ucdetector.util.OfbizStats;
+
+/**
+ * Contents of the files searched by SimpleSearch, so a controller or screen file searched once for each of its
+ * views/screens is read only once. The least recently used files are dropped when the contents are larger than
+ * OfbizOptions.getContentCacheMegabytes(). A file is read again when its IResource.getModificationStamp() changed.
+ *
+ * The bytes are kept for the files that can be searched as bytes (see FileBytes), the decoded text for the others.
+ * Files larger than an eighth of the cache are not kept, they are mapped as before. Can be used from more threads
+ * at the same time.
+ */
+public class FileContentCache {
+
+  private static final FileContentCache INSTANCE = new FileContentCache();
+
+  /** Just a container, bytes or text is null */
+  private static final class Entry {
+    final long modificationStamp;
+    final String charset;
+    final ByteBuffer bytes;
+    final String text;
+    final long size;
+
+    Entry(long modificationStamp, String charset, ByteBuffer bytes, String text) {
+      this.modificationStamp = modificationStamp;
+      this.charset = charset;
+      this.bytes = bytes;
+      this.text = text;
+      this.size = bytes != null ? bytes.limit() : 2L * text.length();
+    }
+  }
+
+  /** full path -> entry, in access order */
+  private final Map<String, Entry> entryMap = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+  private long size;
+  private int hitCount;
+  private int missCount;
+
+  private FileContentCache() {
+    //only INSTANCE
+  }
+
+  public static FileContentCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * @return the bytes of the file, or null if the file can not be searched this way (not a local file, encoding
+   * like UTF-16, or it can not be read), the caller has to decode it in this case
+   */
+  @SuppressWarnings("javadoc")
+  public FileBytes getBytes(IResource resource) throws CoreException {
+    if (!(resource instanceof IFile)) {
+      return null;
+    }
+    IFile file = (IFile) resource;
+    IPath location = file.getLocation();
+    String charset = FileBytes.getAsciiCompatibleCharset(file.getCharset());
+    if (location == null || charset == null) {
+      return null;
+    }
+    Entry entry = get(file, charset, true);
+    if (entry != null) {
+      return FileBytes.create(entry.bytes, charset);
+    }
+    long modificationStamp = file.getModificationStamp();
+    try {
+      if (location.toFile().length() > getMaxEntrySize()) {
+        return FileBytes.create(FileBytes.readOrMap(location.toFile(), OfbizOptions.isFileMappingEnabled()), charset);
+      }
+      ByteBuffer bytes = FileBytes.readOrMap(location.toFile(), false);
+      put(file, new Entry(modificationStamp, charset, bytes, null));
+      return FileBytes.create(bytes, charset);
+    }
+    catch (IOException e) {
+      Log.warn("Reading file " + file.getFullPath().toString() + " failed: " + e.getMessage());
+      return null;
+    }
+  }
+
+  /** @return the content of the file or null if it can not be read, see FileContents.read */
+  @SuppressWarnings("javadoc")
+  public String getText(IResource resource) throws CoreException {
+    if (!(resource instanceof IFile)) {
+      return null;
+    }
+    IFile file = (IFile) resource;
+    String charset = file.getCharset();
+    Entry entry = get(file, charset, false);
+    if (entry != null) {
+      return entry.text;
+    }
+    long modificationStamp = file.getModificationStamp();
+    String text = FileContents.read(file);
+    if (text != null && 2L * text.length() <= getMaxEntrySize()) {
+      put(file, new Entry(modificationStamp, charset, null, text));
+    }
+    return text;
+  }
+
+  /** @return the entry, if it has the content in the wanted form and the file did not change since */
+  private synchronized Entry get(IFile file, String charset, boolean isBytes) {
+    Entry entry = entryMap.get(file.getFullPath().toString());
+    long modificationStamp = file.getModificationStamp();
+    if (entry == null || modificationStamp == IResource.NULL_STAMP || entry.modificationStamp != modificationStamp
+        || !entry.charset.equals(charset) || (entry.bytes != null) != isBytes) {
+      missCount++;
+      OfbizStats.count(OfbizStats.CONTENT_CACHE_MISSES, 1);
+      return null;
+    }
+    hitCount++;
+    OfbizStats.count(OfbizStats.CONTENT_CACHE_HITS, 1);
+    return entry;
+  }
+
+  private synchronized void put(IFile file, Entry entry) {
+    if (entry.modificationStamp == IResource.NULL_STAMP || getMaxEntrySize() == 0) {
+      return;
+    }
+    Entry oldEntry = entryMap.put(file.getFullPath().toString(), entry);
+    size += entry.size - (oldEntry == null ? 0 : oldEntry.size);
+    long maxSize = OfbizOptions.getContentCacheMegabytes() * 1024L * 1024L;
+    for (Iterator<Entry> iterator = entryMap.values().iterator(); size > maxSize && iterator.hasNext();) {
+      size -= iterator.next().size;
+      iterator.remove();
+    }
+  }
+
+  private static long getMaxEntrySize() {
+    return OfbizOptions.getContentCacheMegabytes() * 1024L * 1024L / 8;
+  }
+
+  public synchronized int getHitCount() {
+    return hitCount;
+  }
+
+  public synchronized int getMissCount() {
+    return missCount;
+  }
+
+  /** Drops the contents and resets the counters, at the end of a run */
+  public synchronized void clear() {
+    entryMap.clear();
+    size = 0;
+    hitCount = 0;
+    missCount = 0;
+  }
+}
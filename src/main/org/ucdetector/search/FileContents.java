@@ -0,0 +1,103 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.ucdetector.Log;
+import org.ucdetector.util.OfbizStats;
+
+/**
+ * Reads the content of workspace files (using the charset eclipse knows for them). The byte order mark is not part
+ * of the content, like in the editor and in FileBytes, so the offsets are the ones of the markers.
+ */
+public class FileContents {
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+  private FileContents() {
+    //only static methods
+  }
+
+  /**
+   * @return the content of the file or null if it can not be read
+   */
+  @SuppressWarnings("javadoc")
+  public static String read(IResource resource) throws CoreException {
+    byte[] bytes = readBytes(resource);
+    return bytes == null ? null : decode((IFile) resource, bytes);
+  }
+
+  /**
+   * @return the bytes of the file, not decoded, or null if it can not be read
+   */
+  @SuppressWarnings("javadoc")
+  private static byte[] readBytes(IResource resource) throws CoreException {
+    if (!(resource instanceof IFile)) {
+      return null;
+    }
+    IFile file = (IFile) resource;
+    IPath location = file.getLocation();
+    long size = location == null ? 0 : location.toFile().length();
+    InputStream in = file.getContents(true);
+    try {
+      ByteArrayOutputStream content = new ByteArrayOutputStream(size > 0 && size < Integer.MAX_VALUE ? (int) size
+          : BUFFER_SIZE);
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        content.write(buffer, 0, read);
+      }
+      OfbizStats.count(OfbizStats.FILES_VISITED, 1);
+      OfbizStats.count(OfbizStats.BYTES_READ, content.size());
+      return content.toByteArray();
+    }
+    catch (IOException e) {
+      Log.error("Skipping file " + file.getFullPath().toString() + " because " + e.getMessage());
+      return null;
+    }
+    finally {
+      close(in);
+    }
+  }
+
+  /**
+   * @return the bytes of the file decoded with its charset without byte order mark, or null if the charset is not
+   * supported
+   */
+  @SuppressWarnings("javadoc")
+  private static String decode(IFile file, byte[] bytes) throws CoreException {
+    try {
+      String content = new String(bytes, file.getCharset());
+      if (content.length() > 0 && content.charAt(0) == BYTE_ORDER_MARK) {
+        content = content.substring(1);
+      }
+      return content;
+    }
+    catch (UnsupportedEncodingException e) {
+      Log.error("Skipping file " + file.getFullPath().toString() + " because " + e.getMessage());
+      return null;
+    }
+  }
+
+  static void close(InputStream in) {
+    try {
+      in.close();
+    }
+    catch (IOException e) {
+      //nothing to do
+    }
+  }
+}
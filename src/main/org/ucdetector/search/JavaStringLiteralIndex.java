@@ -0,0 +1,77 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.ToolFactory;
+import org.eclipse.jdt.core.compiler.IScanner;
+import org.eclipse.jdt.core.compiler.ITerminalSymbols;
+import org.eclipse.jdt.core.compiler.InvalidInputException;
+import org.ucdetector.Log;
+
+/**
+ * The string literals of the java files of a project, e.g. "createOrder" of dispatcher.runSync("createOrder", ctx).
+ *
+ * Each file is tokenized once by the scanner of JDT, so only real string literals are found: a commented out call
+ * or "createOrder" inside another literal is not a token.
+ *
+ * Can be filled from more threads at the same time.
+ */
+public class JavaStringLiteralIndex {
+
+  private final String sourceLevel;
+  private final String complianceLevel;
+  private final Set<String> literalSet = Collections.synchronizedSet(new HashSet<String>());
+
+  /** @param javaProject the levels of its compiler settings are used to tokenize (e.g. enum is a keyword) */
+  @SuppressWarnings("javadoc")
+  public JavaStringLiteralIndex(IJavaProject javaProject) {
+    this.sourceLevel = javaProject.getOption(JavaCore.COMPILER_SOURCE, true);
+    this.complianceLevel = javaProject.getOption(JavaCore.COMPILER_COMPLIANCE, true);
+  }
+
+  @SuppressWarnings("javadoc")
+  public void indexResource(IResource resource) throws CoreException {
+    String content = FileContents.read(resource);
+    if (content == null) {
+      return;
+    }
+    IScanner scanner = ToolFactory.createScanner(false, false, false, sourceLevel, complianceLevel);
+    scanner.setSource(content.toCharArray());
+    Set<String> fileLiteralSet = new HashSet<String>();
+    try {
+      int token;
+      while ((token = scanner.getNextToken()) != ITerminalSymbols.TokenNameEOF) {
+        if (token == ITerminalSymbols.TokenNameStringLiteral) {
+          //raw source, with the quotes and without resolving the escapes
+          char[] tokenSource = scanner.getRawTokenSource();
+          fileLiteralSet.add(new String(tokenSource, 1, tokenSource.length - 2));
+        }
+      }
+    }
+    catch (InvalidInputException e) {
+      //e.g. an unterminated literal, the literals found before are kept
+      Log.warn("Tokenizing " + resource.getFullPath().toString() + " stopped: " + e.getMessage());
+    }
+    literalSet.addAll(fileLiteralSet);
+  }
+
+  /** @param targetSet gets the string literals of the indexed java files */
+  @SuppressWarnings("javadoc")
+  public void addLiteralsTo(Set<String> targetSet) {
+    synchronized (literalSet) {
+      targetSet.addAll(literalSet);
+    }
+  }
+}
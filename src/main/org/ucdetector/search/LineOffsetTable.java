@@ -0,0 +1,73 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+/**
+ * Start offsets of the lines of a file. Built with one pass over the content, after that the line number of an
+ * offset is a binary search instead of counting the new lines from the beginning of the file.
+ */
+public class LineOffsetTable {
+
+  /** lineStarts[i] is the offset of the first character of line i + 1 */
+  private final int[] lineStarts;
+  private final int lineCount;
+
+  private LineOffsetTable(int[] lineStarts, int lineCount) {
+    this.lineStarts = lineStarts;
+    this.lineCount = lineCount;
+  }
+
+  @SuppressWarnings("javadoc")
+  public static LineOffsetTable create(CharSequence content) {
+    int[] lineStarts = new int[16];
+    int lineCount = 1;
+    int length = content.length();
+    for (int i = 0; i < length; i++) {
+      if (content.charAt(i) == '\n') {
+        if (lineCount == lineStarts.length) {
+          int[] newLineStarts = new int[lineStarts.length * 2];
+          System.arraycopy(lineStarts, 0, newLineStarts, 0, lineCount);
+          lineStarts = newLineStarts;
+        }
+        lineStarts[lineCount++] = i + 1;
+      }
+    }
+    return new LineOffsetTable(lineStarts, lineCount);
+  }
+
+  /**
+   * @return 1 based line number of the offset (1 + number of '\n' before the offset)
+   */
+  @SuppressWarnings("javadoc")
+  public int getLineNumber(int offset) {
+    int low = 0;
+    int high = lineCount - 1;
+    //last line starting at or before the offset
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+      if (lineStarts[middle] <= offset) {
+        low = middle;
+      }
+      else {
+        high = middle - 1;
+      }
+    }
+    return low + 1;
+  }
+
+  /**
+   * @return offset of the first character of the line, or -1 if there is no such line
+   */
+  @SuppressWarnings("javadoc")
+  public int getLineStartOffset(int lineNumber) {
+    return lineNumber < 1 || lineNumber > lineCount ? -1 : lineStarts[lineNumber - 1];
+  }
+
+  public int getLineCount() {
+    return lineCount;
+  }
+}
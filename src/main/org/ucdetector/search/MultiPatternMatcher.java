@@ -0,0 +1,182 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton that finds all occurrences of many strings with one pass over the text.
+ *
+ * Built once (e.g. from every "serviceName") and can be used to scan any number of files, so instead of
+ * one search per string the files are only read once.
+ */
+public class MultiPatternMatcher {
+
+  /** Called for every occurrence, also for overlapping ones */
+  public interface MatchListener {
+    @SuppressWarnings("javadoc")
+    void patternMatched(int patternIndex, int offset);
+  }
+
+  private static final int ROOT = 0;
+  private static final int NONE = -1;
+
+  private final String[] patterns;
+
+  //transitions of node n are transitionChars/transitionTargets[transitionStart[n]..transitionStart[n+1]) sorted by char
+  private final int[] transitionStart;
+  private final char[] transitionChars;
+  private final int[] transitionTargets;
+
+  private final int[] failure;
+  /** index of the pattern that ends in the node or NONE */
+  private final int[] output;
+  /** nearest node on the failure chain that has an output or NONE */
+  private final int[] outputLink;
+
+  /**
+   * @param patternCollection empty strings and duplicates are ignored
+   */
+  public MultiPatternMatcher(Collection<String> patternCollection) {
+    Set<String> patternSet = new LinkedHashSet<String>();
+    for (String pattern : patternCollection) {
+      if (pattern.length() > 0) {
+        patternSet.add(pattern);
+      }
+    }
+    patterns = patternSet.toArray(new String[patternSet.size()]);
+
+    //--- trie ---------------------------------------------
+    List<Map<Character, Integer>> trie = new ArrayList<Map<Character, Integer>>();
+    List<Integer> outputList = new ArrayList<Integer>();
+    trie.add(new TreeMap<Character, Integer>());
+    outputList.add(Integer.valueOf(NONE));
+
+    int transitionCount = 0;
+    for (int patternIndex = 0; patternIndex < patterns.length; patternIndex++) {
+      int node = ROOT;
+      String pattern = patterns[patternIndex];
+      for (int i = 0; i < pattern.length(); i++) {
+        Character c = Character.valueOf(pattern.charAt(i));
+        Integer next = trie.get(node).get(c);
+        if (next == null) {
+          next = Integer.valueOf(trie.size());
+          trie.get(node).put(c, next);
+          trie.add(new TreeMap<Character, Integer>());
+          outputList.add(Integer.valueOf(NONE));
+          transitionCount++;
+        }
+        node = next.intValue();
+      }
+      outputList.set(node, Integer.valueOf(patternIndex));
+    }
+
+    //--- compact transitions ------------------------------
+    int nodeCount = trie.size();
+    transitionStart = new int[nodeCount + 1];
+    transitionChars = new char[transitionCount];
+    transitionTargets = new int[transitionCount];
+    output = new int[nodeCount];
+    int t = 0;
+    for (int node = 0; node < nodeCount; node++) {
+      transitionStart[node] = t;
+      for (Map.Entry<Character, Integer> entry : trie.get(node).entrySet()) {
+        transitionChars[t] = entry.getKey().charValue();
+        transitionTargets[t] = entry.getValue().intValue();
+        t++;
+      }
+      output[node] = outputList.get(node).intValue();
+    }
+    transitionStart[nodeCount] = t;
+
+    //--- failure links (breadth first) --------------------
+    failure = new int[nodeCount];
+    outputLink = new int[nodeCount];
+    outputLink[ROOT] = NONE;
+    int[] queue = new int[nodeCount];
+    int head = 0;
+    int tail = 0;
+    for (int i = transitionStart[ROOT]; i < transitionStart[ROOT + 1]; i++) {
+      int child = transitionTargets[i];
+      failure[child] = ROOT;
+      outputLink[child] = NONE;
+      queue[tail++] = child;
+    }
+    while (head < tail) {
+      int node = queue[head++];
+      for (int i = transitionStart[node]; i < transitionStart[node + 1]; i++) {
+        int child = transitionTargets[i];
+        char c = transitionChars[i];
+        int fallback = failure[node];
+        int target;
+        while ((target = getTransition(fallback, c)) == NONE && fallback != ROOT) {
+          fallback = failure[fallback];
+        }
+        failure[child] = target == NONE ? ROOT : target;
+        outputLink[child] = output[failure[child]] != NONE ? failure[child] : outputLink[failure[child]];
+        queue[tail++] = child;
+      }
+    }
+  }
+
+  private int getTransition(int node, char c) {
+    int low = transitionStart[node];
+    int high = transitionStart[node + 1] - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      char middleChar = transitionChars[middle];
+      if (middleChar < c) {
+        low = middle + 1;
+      }
+      else if (middleChar > c) {
+        high = middle - 1;
+      }
+      else {
+        return transitionTargets[middle];
+      }
+    }
+    return NONE;
+  }
+
+  public int getPatternCount() {
+    return patterns.length;
+  }
+
+  @SuppressWarnings("javadoc")
+  public String getPattern(int patternIndex) {
+    return patterns[patternIndex];
+  }
+
+  /**
+   * Reports every occurrence of every pattern in text, ordered by the end of the occurrence.
+   */
+  @SuppressWarnings("javadoc")
+  public void match(CharSequence text, MatchListener listener) {
+    int node = ROOT;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      int next;
+      while ((next = getTransition(node, c)) == NONE && node != ROOT) {
+        node = failure[node];
+      }
+      node = next == NONE ? ROOT : next;
+
+      int outputNode = output[node] != NONE ? node : outputLink[node];
+      while (outputNode != NONE) {
+        int patternIndex = output[outputNode];
+        listener.patternMatched(patternIndex, i + 1 - patterns[patternIndex].length());
+        outputNode = outputLink[outputNode];
+      }
+    }
+  }
+}
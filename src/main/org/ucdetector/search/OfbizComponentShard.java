@@ -0,0 +1,192 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jdt.core.IJavaProject;
+import org.ucdetector.util.OfbizComponents;
+import org.ucdetector.util.OfbizDefinitions;
+
+/**
+ * The part of the scan result that comes from the files of one component (see OfbizComponents): its definitions
+ * and the string literals of its java files.
+ *
+ * If the scan cache is enabled (see OfbizOptions.isScanCacheEnabled), the shards of the last run of a project are
+ * kept in memory. A shard whose files did not change (same files with the same IResource.getModificationStamp())
+ * is taken from there, so after a change in one component only its shard is built again. The shards of a project
+ * are dropped when it is closed or deleted.
+ *
+ * The kept shards are only softly referenced, their definitions are also in the OfbizDefinitionsCache on disk. If
+ * the garbage collector drops one, the shard is built again: the definitions of its files come from the disk cache,
+ * only its java files are read again.
+ */
+public class OfbizComponentShard {
+
+  private static final Map<IProject, Map<String, SoftReference<OfbizComponentShard>>> lastShardMap =
+      new HashMap<IProject, Map<String, SoftReference<OfbizComponentShard>>>();
+  /** added with the first kept shards */
+  private static IResourceChangeListener projectCloseListener;
+
+  public final String componentRoot;
+  /** in the order of the walk, file -> IResource.getModificationStamp() */
+  private final Map<IResource, Long> fileStampMap = new LinkedHashMap<IResource, Long>();
+  /** shares its names with the definitions of the project, see OfbizDefinitions.createSharingNames */
+  private final OfbizDefinitions definitions;
+  /** definitions of each file, for OfbizLiveModel, null if live update is disabled */
+  private final Map<IResource, OfbizDefinitions> fileDefinitionsMap;
+  private final JavaStringLiteralIndex javaStringLiteralIndex;
+  private boolean isReused;
+  private final AtomicLong scanNanos = new AtomicLong();
+
+  private OfbizComponentShard(String componentRoot, IJavaProject javaProject, OfbizDefinitions projectDefinitions,
+      boolean keepFileDefinitions) {
+    this.componentRoot = componentRoot;
+    this.definitions = projectDefinitions.createSharingNames();
+    this.fileDefinitionsMap = keepFileDefinitions ? new LinkedHashMap<IResource, OfbizDefinitions>() : null;
+    this.javaStringLiteralIndex = new JavaStringLiteralIndex(javaProject);
+  }
+
+  /**
+   * @param fileList the files to scan, in the order of the walk
+   * @param projectDefinitions the shards are merged into, see mergeInto
+   * @return one new shard for each component having files, in the order of their first file
+   */
+  @SuppressWarnings("javadoc")
+  public static List<OfbizComponentShard> split(List<IResource> fileList, OfbizComponents components,
+      IJavaProject javaProject, OfbizDefinitions projectDefinitions, boolean keepFileDefinitions) {
+    Map<String, OfbizComponentShard> shardMap = new LinkedHashMap<String, OfbizComponentShard>();
+    for (IResource file : fileList) {
+      String componentRoot = components.getComponentRoot(file.getProjectRelativePath().toString());
+      OfbizComponentShard shard = shardMap.get(componentRoot);
+      if (shard == null) {
+        shard = new OfbizComponentShard(componentRoot, javaProject, projectDefinitions, keepFileDefinitions);
+        shardMap.put(componentRoot, shard);
+      }
+      shard.fileStampMap.put(file, Long.valueOf(file.getModificationStamp()));
+    }
+    return new ArrayList<OfbizComponentShard>(shardMap.values());
+  }
+
+  /** @return the shard of the last run if it has the same files, else the new shard that has to be scanned */
+  @SuppressWarnings("javadoc")
+  public static OfbizComponentShard reuseLastShard(IProject project, OfbizComponentShard shard) {
+    SoftReference<OfbizComponentShard> lastShardReference;
+    synchronized (lastShardMap) {
+      Map<String, SoftReference<OfbizComponentShard>> shardMap = lastShardMap.get(project);
+      lastShardReference = shardMap == null ? null : shardMap.get(shard.componentRoot);
+    }
+    OfbizComponentShard lastShard = lastShardReference == null ? null : lastShardReference.get();
+    if (lastShard == null || !lastShard.fileStampMap.equals(shard.fileStampMap)
+        || lastShard.fileStampMap.containsValue(Long.valueOf(IResource.NULL_STAMP))
+        || (lastShard.fileDefinitionsMap == null) != (shard.fileDefinitionsMap == null)) {
+      return shard;
+    }
+    lastShard.isReused = true;
+    return lastShard;
+  }
+
+  /** Keeps the shards of a complete scan for the next run, the shards of the last run are dropped */
+  @SuppressWarnings("javadoc")
+  public static void keepShards(IProject project, List<OfbizComponentShard> shardList) {
+    Map<String, SoftReference<OfbizComponentShard>> shardMap =
+        new HashMap<String, SoftReference<OfbizComponentShard>>();
+    for (OfbizComponentShard shard : shardList) {
+      shardMap.put(shard.componentRoot, new SoftReference<OfbizComponentShard>(shard));
+    }
+    synchronized (lastShardMap) {
+      lastShardMap.put(project, shardMap);
+      if (projectCloseListener != null) {
+        return;
+      }
+      projectCloseListener = new IResourceChangeListener() {
+        public void resourceChanged(IResourceChangeEvent event) {
+          if (event.getResource() instanceof IProject) {
+            forgetShards((IProject) event.getResource());
+          }
+        }
+      };
+    }
+    ResourcesPlugin.getWorkspace().addResourceChangeListener(projectCloseListener,
+        IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
+  }
+
+  /** Drops the shards of the last run, e.g. because the scan cache is disabled */
+  @SuppressWarnings("javadoc")
+  public static void forgetShards(IProject project) {
+    synchronized (lastShardMap) {
+      lastShardMap.remove(project);
+    }
+  }
+
+  public List<IResource> getFiles() {
+    return new ArrayList<IResource>(fileStampMap.keySet());
+  }
+
+  public boolean isReused() {
+    return isReused;
+  }
+
+  /** @return time spent scanning the files of the shard, on all threads, 0 if the shard was reused */
+  @SuppressWarnings("javadoc")
+  public long getScanNanos() {
+    return isReused ? 0 : scanNanos.get();
+  }
+
+  /** Called from the scan threads */
+  @SuppressWarnings("javadoc")
+  public void addScanNanos(long fileScanNanos) {
+    scanNanos.addAndGet(fileScanNanos);
+  }
+
+  /** Called from the scan threads for the java files of the shard */
+  @SuppressWarnings("javadoc")
+  public JavaStringLiteralIndex getJavaStringLiteralIndex() {
+    return javaStringLiteralIndex;
+  }
+
+  /**
+   * Called from one thread in the order of the walk, like OfbizDefinitions.addAll. The definitions of the file are
+   * kept as a copy sharing the names of the project, so the SymbolTable of each file is not kept alive.
+   */
+  @SuppressWarnings("javadoc")
+  public void addDefinitions(IResource file, OfbizDefinitions fileDefinitions) {
+    if (fileDefinitions == null) {
+      return;
+    }
+    definitions.addAll(fileDefinitions);
+    if (fileDefinitionsMap != null) {
+      OfbizDefinitions sharedFileDefinitions = definitions.createSharingNames();
+      sharedFileDefinitions.addAll(fileDefinitions);
+      fileDefinitionsMap.put(file, sharedFileDefinitions);
+    }
+  }
+
+  /**
+   * Merges the shard into the definitions of the project. The result is the same as scanning the files one after
+   * the other, unless an item is defined in two components: then the shard merged later wins.
+   */
+  @SuppressWarnings("javadoc")
+  public void mergeInto(OfbizDefinitions projectDefinitions,
+      Map<IResource, OfbizDefinitions> projectFileDefinitionsMap) {
+    projectDefinitions.addAll(definitions);
+    if (projectFileDefinitionsMap != null && fileDefinitionsMap != null) {
+      projectFileDefinitionsMap.putAll(fileDefinitionsMap);
+    }
+  }
+}
@@ -0,0 +1,330 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.Platform;
+import org.osgi.framework.Bundle;
+import org.ucdetector.Log;
+import org.ucdetector.util.ItemLocation;
+import org.ucdetector.util.OfbizDefinitions;
+import org.ucdetector.util.OfbizPaths;
+import org.ucdetector.util.ReferenceAndLocation;
+
+/**
+ * Keeps the definitions extracted from each file between two runs, so files that did not change
+ * (same path and same IResource.getModificationStamp()) do not need to be parsed again.
+ *
+ * Every path in the definitions of a file is the path of the file itself, so the paths are not stored.
+ */
+public class OfbizDefinitionsCache {
+
+  private static final String PLUGIN_ID = "org.ucdetector.ofbiz";
+
+  /** Has to be increased, when the extracted data changes */
+  private static final int FORMAT_VERSION = 6;
+
+  private final File cacheFile;
+  /** entries of the cache file, path -> entry */
+  private final Map<String, CacheEntry> loadedEntryMap = new HashMap<String, CacheEntry>();
+  /** entries used in this run, only they are saved */
+  private final Map<String, CacheEntry> usedEntryMap = new HashMap<String, CacheEntry>();
+  private int hitCount;
+  private int missCount;
+
+  private static final class CacheEntry {
+    final long modificationStamp;
+    final byte[] data;
+
+    CacheEntry(long modificationStamp, byte[] data) {
+      this.modificationStamp = modificationStamp;
+      this.data = data;
+    }
+  }
+
+  public OfbizDefinitionsCache(File cacheFile) {
+    this.cacheFile = cacheFile;
+  }
+
+  /**
+   * @return cache in the state location of the plugin, or null if there is no state location
+   */
+  @SuppressWarnings("javadoc")
+  public static OfbizDefinitionsCache createForProject(IProject project) {
+    Bundle bundle = Platform.getBundle(PLUGIN_ID);
+    if (bundle == null) {
+      return null;
+    }
+    File cacheFile = Platform.getStateLocation(bundle).append("scan-cache-" + project.getName() + ".bin").toFile();
+    return new OfbizDefinitionsCache(cacheFile);
+  }
+
+  /** Reads the cache file, a missing or broken cache file means an empty cache */
+  public synchronized void load() {
+    loadedEntryMap.clear();
+    if (!cacheFile.isFile()) {
+      return;
+    }
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+      if (in.readInt() != FORMAT_VERSION) {
+        return;
+      }
+      int entryCount = in.readInt();
+      for (int i = 0; i < entryCount; i++) {
+        String path = in.readUTF();
+        long modificationStamp = in.readLong();
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+        loadedEntryMap.put(path, new CacheEntry(modificationStamp, data));
+      }
+    }
+    catch (IOException e) {
+      Log.warn("Ignoring cache " + cacheFile + " because " + e.getMessage());
+      loadedEntryMap.clear();
+    }
+    finally {
+      if (in != null) {
+        FileContents.close(in);
+      }
+    }
+  }
+
+  /** Writes the entries used since load() */
+  public synchronized void save() {
+    File tempFile = new File(cacheFile.getPath() + ".tmp");
+    DataOutputStream out = null;
+    try {
+      cacheFile.getParentFile().mkdirs();
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(usedEntryMap.size());
+      for (Map.Entry<String, CacheEntry> entry : usedEntryMap.entrySet()) {
+        out.writeUTF(entry.getKey());
+        out.writeLong(entry.getValue().modificationStamp);
+        out.writeInt(entry.getValue().data.length);
+        out.write(entry.getValue().data);
+      }
+      out.close();
+      out = null;
+      if (!tempFile.renameTo(cacheFile) && !(cacheFile.delete() && tempFile.renameTo(cacheFile))) {
+        Log.warn("Can not write cache " + cacheFile);
+      }
+    }
+    catch (IOException e) {
+      Log.warn("Can not write cache " + cacheFile + " because " + e.getMessage());
+    }
+    finally {
+      if (out != null) {
+        try {
+          out.close();
+        }
+        catch (IOException e) {
+          //nothing to do
+        }
+      }
+      tempFile.delete();
+    }
+  }
+
+  /**
+   * @return the cached definitions of the file, or null if the file is not cached or was changed since then
+   */
+  @SuppressWarnings("javadoc")
+  public OfbizDefinitions get(IResource file) {
+    String path = file.getFullPath().toString();
+    long modificationStamp = file.getModificationStamp();
+    CacheEntry entry;
+    synchronized (this) {
+      entry = loadedEntryMap.get(path);
+      if (entry == null || modificationStamp == IResource.NULL_STAMP || entry.modificationStamp != modificationStamp) {
+        missCount++;
+        return null;
+      }
+      hitCount++;
+      usedEntryMap.put(path, entry);
+    }
+    try {
+      return readDefinitions(new DataInputStream(new ByteArrayInputStream(entry.data)), file);
+    }
+    catch (IOException e) {
+      Log.warn("Ignoring cache entry of " + path + " because " + e.getMessage());
+      return null;
+    }
+  }
+
+  /** Keeps the entry of a not changed file, whose definitions are taken from a reused OfbizComponentShard */
+  @SuppressWarnings("javadoc")
+  public synchronized void keep(IResource file) {
+    String path = file.getFullPath().toString();
+    CacheEntry entry = loadedEntryMap.get(path);
+    if (entry != null && entry.modificationStamp == file.getModificationStamp()) {
+      usedEntryMap.put(path, entry);
+    }
+  }
+
+  @SuppressWarnings("javadoc")
+  public void put(IResource file, OfbizDefinitions fileDefinitions) {
+    long modificationStamp = file.getModificationStamp();
+    if (modificationStamp == IResource.NULL_STAMP) {
+      return;
+    }
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    try {
+      writeDefinitions(new DataOutputStream(data), fileDefinitions);
+    }
+    catch (IOException e) {
+      //e.g. too long strings, the file will be parsed next time again
+      return;
+    }
+    synchronized (this) {
+      usedEntryMap.put(file.getFullPath().toString(), new CacheEntry(modificationStamp, data.toByteArray()));
+    }
+  }
+
+  public synchronized int getHitCount() {
+    return hitCount;
+  }
+
+  public synchronized int getMissCount() {
+    return missCount;
+  }
+
+  private static void writeDefinitions(DataOutputStream out, OfbizDefinitions definitions) throws IOException {
+    out.writeInt(definitions.serviceMethodToNameMap.size());
+    for (Map.Entry<String, String> entry : definitions.serviceMethodToNameMap.entrySet()) {
+      out.writeUTF(entry.getKey());
+      out.writeUTF(entry.getValue());
+    }
+    writeStrings(out, definitions.serviceNameAndFilePathMap.keySet());
+    writeStrings(out, definitions.referencedServiceList);
+
+    out.writeBoolean(!definitions.ftlMap.isEmpty());
+    writeStrings(out, definitions.referencedFtlList);
+    writeStringSetMap(out, definitions.ftlIncludeMap);
+
+    out.writeBoolean(!definitions.bshOrGroovyMap.isEmpty());
+    writeStrings(out, definitions.referencedBshOrGroovyList);
+
+    writeStrings(out, definitions.referencedViewList);
+    out.writeInt(definitions.viewDefinitionMap.size());
+    for (Map.Entry<String, ReferenceAndLocation> entry : definitions.viewDefinitionMap.entrySet()) {
+      ReferenceAndLocation view = entry.getValue();
+      out.writeUTF(entry.getKey());
+      out.writeUTF(view.referencedItem);
+      writePosition(out, view);
+    }
+    writeStrings(out, definitions.referencedScreenList);
+    out.writeInt(definitions.screenDefinitionMap.size());
+    for (Map.Entry<String, ItemLocation> entry : definitions.screenDefinitionMap.entrySet()) {
+      ItemLocation screen = entry.getValue();
+      out.writeUTF(entry.getKey());
+      writePosition(out, screen);
+    }
+    writeStringSetMap(out, definitions.usageMap);
+    out.flush();
+  }
+
+  private static OfbizDefinitions readDefinitions(DataInputStream in, IResource file) throws IOException {
+    OfbizDefinitions definitions = new OfbizDefinitions();
+    String path = file.getFullPath().toString();
+    String pathToFile = OfbizPaths.getPathToFile(file.getProjectRelativePath().toString());
+    int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      definitions.serviceMethodToNameMap.put(in.readUTF(), in.readUTF());
+    }
+    count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      definitions.serviceNameAndFilePathMap.put(in.readUTF(), path);
+    }
+    readStrings(in, definitions.referencedServiceList);
+
+    if (in.readBoolean()) {
+      definitions.ftlMap.put(pathToFile, path);
+    }
+    readStrings(in, definitions.referencedFtlList);
+    readStringSetMap(in, definitions, definitions.ftlIncludeMap);
+
+    if (in.readBoolean()) {
+      definitions.bshOrGroovyMap.put(pathToFile, path);
+    }
+    readStrings(in, definitions.referencedBshOrGroovyList);
+
+    readStrings(in, definitions.referencedViewList);
+    count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      String viewName = in.readUTF();
+      String referencedItem = in.readUTF();
+      definitions.viewDefinitionMap.put(viewName, new ReferenceAndLocation(referencedItem, path, in.readInt(),
+          in.readInt()));
+    }
+    readStrings(in, definitions.referencedScreenList);
+    count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      String screenName = in.readUTF();
+      definitions.screenDefinitionMap.put(screenName, new ItemLocation(path, in.readInt(), in.readInt()));
+    }
+    readStringSetMap(in, definitions, definitions.usageMap);
+    return definitions;
+  }
+
+  /** Only the Locator position is known after parsing, see ItemLocation.endLine */
+  private static void writePosition(DataOutputStream out, ItemLocation location) throws IOException {
+    out.writeInt(location.endLine);
+    out.writeInt(location.endColumn);
+  }
+
+  private static void writeStringSetMap(DataOutputStream out, Map<String, Set<String>> map) throws IOException {
+    out.writeInt(map.size());
+    for (Map.Entry<String, Set<String>> entry : map.entrySet()) {
+      out.writeUTF(entry.getKey());
+      writeStrings(out, entry.getValue());
+    }
+  }
+
+  private static void readStringSetMap(DataInputStream in, OfbizDefinitions definitions, Map<String, Set<String>> map)
+      throws IOException {
+    int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      String key = in.readUTF();
+      Set<String> valueSet = definitions.createNameSet();
+      readStrings(in, valueSet);
+      map.put(key, valueSet);
+    }
+  }
+
+  private static void writeStrings(DataOutputStream out, Collection<String> strings) throws IOException {
+    out.writeInt(strings.size());
+    for (String string : strings) {
+      out.writeUTF(string);
+    }
+  }
+
+  private static void readStrings(DataInputStream in, Collection<String> strings) throws IOException {
+    int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      strings.add(in.readUTF());
+    }
+  }
+}
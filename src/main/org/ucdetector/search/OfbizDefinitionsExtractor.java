@@ -0,0 +1,276 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.ucdetector.util.ItemLocation;
+import org.ucdetector.util.OfbizDefinitions;
+import org.ucdetector.util.OfbizPaths;
+import org.ucdetector.util.OfbizScriptScanner;
+import org.ucdetector.util.OfbizScriptScanner.ScriptReferences;
+import org.ucdetector.util.ReferenceAndLocation;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Collects the definitions of one xml/ftl/bsh/groovy file from its content. Does not use eclipse, the files are
+ * read by OfbizSpecificXmlParser in eclipse and by HeadlessScanner for a checkout.
+ *
+ * The paths are workspace paths like /project/applications/accounting/widget/Screens.xml, the names of the items
+ * are built from them by OfbizPaths.
+ *
+ * Can be used from more threads at the same time, if they collect into different OfbizDefinitions.
+ */
+public class OfbizDefinitionsExtractor {
+  /** Root elements of the xml files that do not call services: ant builds, entity definitions and labels */
+  private static final Set<String> NO_SERVICE_CALL_ROOT_ELEMENTS = new HashSet<String>(Arrays.asList("project",
+      "entitymodel", "entitygroup", "fieldtypemodel", "resource"));
+
+  private final SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+
+  /** @return true for the files the extractor is interested in */
+  @SuppressWarnings("javadoc")
+  public static boolean isOfbizFile(String fileName) {
+    return fileName.endsWith(".xml") || fileName.endsWith(".ftl") || fileName.endsWith(".bsh")
+        || fileName.endsWith(".groovy");
+  }
+
+  /**
+   * Reads only the beginning of the xml file to decide whether it has to be parsed, see XmlRootElementSniffer
+   * @return null if the file has to be parsed, else why it is skipped
+   */
+  @SuppressWarnings("javadoc")
+  public static String getSkipReason(InputStream in) throws IOException {
+    String rootElementName = XmlRootElementSniffer.readRootElementName(in);
+    if (XmlRootElementSniffer.NO_ROOT_ELEMENT.equals(rootElementName)) {
+      return "no root element";
+    }
+    if (rootElementName != null && !OfbizXmlHandler.isOfbizRootElement(rootElementName)) {
+      return "root element <" + rootElementName + ">";
+    }
+    return null;
+  }
+
+  /**
+   * Reads only the beginning of the xml file to decide whether its service name literals are indexed, see
+   * StringLiteralIndex. The files with service definitions and calls have many root elements (services, screens,
+   * forms, simple-methods, seed data etc.), so only the ones that can not call a service are skipped.
+   * @return null if the file has to be indexed, else why it is skipped
+   */
+  @SuppressWarnings("javadoc")
+  public static String getLiteralSkipReason(InputStream in) throws IOException {
+    String rootElementName = XmlRootElementSniffer.readRootElementName(in);
+    if (XmlRootElementSniffer.NO_ROOT_ELEMENT.equals(rootElementName)) {
+      return "no root element";
+    }
+    if (rootElementName != null && NO_SERVICE_CALL_ROOT_ELEMENTS.contains(rootElementName)) {
+      return "root element <" + rootElementName + ">";
+    }
+    return null;
+  }
+
+  /**
+   * ftl, bsh and groovy files are read once, the references found by OfbizScriptScanner are used by the file,
+   * see OfbizDefinitions.usageMap
+   * @param content the text of the file, or its bytes as FileBytes
+   */
+  @SuppressWarnings("javadoc")
+  public static void extractFromScript(String path, CharSequence content, OfbizDefinitions definitions) {
+    String projectRelativePath = path.substring(path.indexOf('/', 1) + 1);
+    String pathToFile = OfbizPaths.getPathToFile(projectRelativePath);
+    boolean isFtl = path.endsWith(".ftl");
+    String item;
+    if (isFtl) {
+      definitions.ftlMap.put(pathToFile, path);
+      item = OfbizDefinitions.FTL_ITEM + pathToFile;
+    }
+    else {
+      definitions.bshOrGroovyMap.put(pathToFile, path);
+      item = OfbizDefinitions.SCRIPT_ITEM + pathToFile;
+    }
+    ScriptReferences references = OfbizScriptScanner.scan(content, isFtl);
+    int folderEnd = projectRelativePath.lastIndexOf('/');
+    extractFtlIncludes(pathToFile, folderEnd < 0 ? "" : projectRelativePath.substring(0, folderEnd),
+        references.includeTargetList, definitions);
+    definitions.referencedScreenList.addAll(references.renderedScreenList);
+    definitions.referencedFtlList.addAll(references.ftlLocationList);
+    definitions.referencedBshOrGroovyList.addAll(references.scriptLocationList);
+
+    List<String> usedItemList = prefixAll(OfbizDefinitions.SCREEN_ITEM, references.renderedScreenList);
+    usedItemList.addAll(prefixAll(OfbizDefinitions.FTL_ITEM, references.ftlLocationList));
+    usedItemList.addAll(prefixAll(OfbizDefinitions.SCRIPT_ITEM, references.scriptLocationList));
+    usedItemList.addAll(prefixAll(OfbizDefinitions.SERVICE_ITEM, references.serviceNameCandidateSet));
+    if (!usedItemList.isEmpty()) {
+      definitions.addUsage(item, usedItemList);
+    }
+  }
+
+  private static List<String> prefixAll(String prefix, Collection<String> strings) {
+    List<String> prefixedList = new ArrayList<String>();
+    for (String string : strings) {
+      prefixedList.add(prefix + string);
+    }
+    return prefixedList;
+  }
+
+  /** Collects the targets of <#include "..."> and <#import "..." as x> into ftlIncludeMap, see OfbizPaths */
+  private static void extractFtlIncludes(String pathToFile, String folder, List<String> includeTargetList,
+      OfbizDefinitions definitions) {
+    Set<String> includedSet = definitions.createNameSet();
+    for (String target : includeTargetList) {
+      String includedPath = OfbizPaths.resolveFtlInclude(folder, target);
+      if (includedPath != null) {
+        includedSet.add(includedPath);
+      }
+    }
+    if (!includedSet.isEmpty()) {
+      definitions.ftlIncludeMap.put(pathToFile, includedSet);
+    }
+  }
+
+  /**
+   * Streams the xml through OfbizXmlHandler, so neither a DOM nor the content of the file is kept. The views and
+   * screens get the Locator positions, see ItemLocation.endLine
+   * @param projectName first segment of path
+   * @param encoding of the file, null to detect it from the xml declaration
+   * @throws SAXException if the content is not parsable, the definitions found before are kept
+   */
+  @SuppressWarnings("javadoc")
+  public void extractFromXml(final String path, final String projectName, InputStream in, String encoding,
+      final OfbizDefinitions definitions) throws SAXException, IOException {
+    OfbizXmlHandler.Listener listener = new OfbizXmlHandler.Listener() {
+      /** the screen element the current element is in (SCREEN_ITEM + name), null if it has no name */
+      private String currentScreenItem;
+      /** path of the file like in the component:// references + "#", only built for files with screens */
+      private String screenNamePrefix;
+
+      private String getScreenNamePrefix() {
+        if (screenNamePrefix == null) {
+          screenNamePrefix = OfbizPaths.getScreenNamePrefix(path, projectName);
+        }
+        return screenNamePrefix;
+      }
+
+      private void addUsageFromCurrentScreen(String usedItem) {
+        if (currentScreenItem != null) {
+          definitions.addUsage(currentScreenItem, Collections.singleton(usedItem));
+        }
+      }
+
+      //--- for service definition ---------------------------
+      public void serviceDefinition(String name, String location, String invoke) {
+        //in case we only want to care about java engines it can be checked for engine="java"
+        //now we simply ignore this since we are not looking up whether the implementation exists or not
+        if (name != null && location != null && invoke != null) {
+          //<service name="crmsfa.createAccount" engine="java" location="com.opensourcestrategies.crmsfa.accounts.AccountsServices" invoke="createAccount">
+          definitions.serviceMethodToNameMap.put(location + "." + invoke, name);
+          definitions.serviceNameAndFilePathMap.put(name, path);
+        }
+      }
+
+      //--- for controller -----------------------------------
+      public void serviceCallFromController(String invoke) {
+        if (invoke != null) {
+          //<event type="service" invoke="createAccount"/>
+          definitions.referencedServiceList.add(invoke);
+        }
+      }
+
+      public void viewReferenceFromController(String value) {
+        if (value != null) {
+          //<response name="error" type="view" value="accountingViewDetails"/>
+          //for view in order to make unique we add the filepath as a prefix
+          definitions.referencedViewList.add(path + "#" + value);
+        }
+      }
+
+      public void viewDefinitionFromController(String name, String page, int line, int column) {
+        if (name != null && page != null) {
+          //<view-map name="vatReportOverview" type="screen" page="component://accounting/widget/accounting/screens/accounting.xml#vatReportOverview"/>
+          //for view in order to make unique we add the filepath as a prefix
+          String viewName = path + "#" + name;
+          String reference = OfbizPaths.getScreenFileOfLocation(page);
+          definitions.viewDefinitionMap.put(viewName, new ReferenceAndLocation(reference, path, Math.max(0, line),
+              column));
+          definitions.referencedScreenList.add(reference);
+        }
+      }
+
+      //--- for screen definition ----------------------------
+      public void ftlReferenceFromScreen(String location) {
+        if (location != null) {
+          //<html-template location="component://crmsfa/webapp/crmsfa/includes/test.ftl"/>
+          String ftlPath = OfbizPaths.getPathOfLocation(location);
+          definitions.referencedFtlList.add(ftlPath);
+          addUsageFromCurrentScreen(OfbizDefinitions.FTL_ITEM + ftlPath);
+        }
+      }
+
+      public void bshOrGroovyReferenceFromScreen(String location) {
+        if (location != null) {
+          //<script location="component://crmsfa/webapp/crmsfa/WEB-INF/actions/includes/main-decorator.bsh"/>
+          String scriptPath = OfbizPaths.getPathOfLocation(location);
+          definitions.referencedBshOrGroovyList.add(scriptPath);
+          addUsageFromCurrentScreen(OfbizDefinitions.SCRIPT_ITEM + scriptPath);
+        }
+      }
+
+      public void screenDefinition(String name, int line, int column) {
+        currentScreenItem = null;
+        if (name != null) {
+          //<screen name="main-application-decorator">
+          String screenName = getScreenNamePrefix() + name;
+          definitions.screenDefinitionMap.put(screenName, new ItemLocation(path, Math.max(0, line), column));
+          currentScreenItem = OfbizDefinitions.SCREEN_ITEM + screenName;
+        }
+      }
+
+      public void screenReferenceFromScreen(String name, String location) {
+        if (name != null && location != null) {
+          //<decorator-screen name="main-decorator" location="component://accounting/widget/screens/common/CommonScreens.xml">
+          String screenName = OfbizPaths.getScreenFileOfLocation(location) + "#" + name;
+          definitions.referencedScreenList.add(screenName);
+          addUsageFromCurrentScreen(OfbizDefinitions.SCREEN_ITEM + screenName);
+        }
+      }
+
+      //--- for seca -----------------------------------------
+      public void serviceCallFromEca(String service) {
+        if (service != null) {
+          //<action service="company.webservice.esb.outgoing.updateOrderPaymentStatus" mode="sync"/>
+          definitions.referencedServiceList.add(service);
+        }
+      }
+    };
+
+    try {
+      SAXParser parser;
+      synchronized (parserFactory) {
+        parser = parserFactory.newSAXParser();
+      }
+      InputSource source = new InputSource(in);
+      source.setEncoding(encoding);
+      parser.parse(source, new OfbizXmlHandler(listener));
+    }
+    catch (ParserConfigurationException e) {
+      throw new RuntimeException("Error in file " + path, e);
+    }
+  }
+}
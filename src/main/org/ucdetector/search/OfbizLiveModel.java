@@ -0,0 +1,298 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.resources.WorkspaceJob;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.ucdetector.Log;
+import org.ucdetector.util.ItemLocation;
+import org.ucdetector.util.NonJavaIMember;
+import org.ucdetector.util.OfbizDefinitions;
+import org.ucdetector.util.OfbizMessages;
+import org.ucdetector.util.ReferenceAndLocation;
+
+/**
+ * Keeps the definitions of an analyzed project in memory after the "Analyze Ofbiz" run, and updates them from
+ * the resource deltas. Only the changed files are extracted again, and markers are created/deleted only for
+ * the items whose status changed.
+ *
+ * Covers ftl/bsh/groovy files, views and screens. Services need searches in other files, they are only updated
+ * by a new run.
+ */
+public class OfbizLiveModel implements IResourceChangeListener {
+
+  public static final String LIVE_MARKER = "org.ucdetector.ofbiz.liveMarker";
+  /** Super type of the markers created by MarkerFactory */
+  private static final String UCD_MARKER = "org.ucdetector.analyzeMarker";
+
+  private static final long UPDATE_DELAY_MILLIS = 300;
+
+  private static final Map<IProject, OfbizLiveModel> modelMap = new HashMap<IProject, OfbizLiveModel>();
+
+  private final IProject project;
+  private final OfbizSpecificXmlParser helper = new OfbizSpecificXmlParser();
+  /** in the order of the scan, so merging them gives the same result as a new scan */
+  private final Map<IResource, OfbizDefinitions> fileDefinitionsMap;
+  private Map<String, UnusedItem> unusedItemMap;
+
+  private final Set<IResource> changedFileSet = new LinkedHashSet<IResource>();
+  private final WorkspaceJob updateJob;
+
+  /** Something that would get a marker */
+  private static final class UnusedItem {
+    final String name;
+    final IResource resource;
+    /** recorded while parsing */
+    final ItemLocation location;
+    final String message;
+
+    UnusedItem(String name, ItemLocation location, String message) {
+      this.name = name;
+      this.resource = NonJavaIMember.getFile(location.path);
+      this.location = location;
+      this.message = message;
+    }
+  }
+
+  private OfbizLiveModel(IProject project, Map<IResource, OfbizDefinitions> fileDefinitionsMap,
+      OfbizDefinitions definitions) {
+    this.project = project;
+    this.fileDefinitionsMap = new LinkedHashMap<IResource, OfbizDefinitions>(fileDefinitionsMap);
+    this.unusedItemMap = getUnusedItems(definitions);
+    this.updateJob = new WorkspaceJob("Update Ofbiz markers of " + project.getName()) {
+      @Override
+      public IStatus runInWorkspace(IProgressMonitor monitor) throws CoreException {
+        update();
+        return Status.OK_STATUS;
+      }
+    };
+    updateJob.setSystem(true);
+    updateJob.setRule(project);
+  }
+
+  /**
+   * Starts to follow the changes of the project, the markers of definitions are expected to exist already
+   * @param fileDefinitionsMap definitions of each scanned file in the order of the scan
+   * @param definitions all definitions merged
+   */
+  @SuppressWarnings("javadoc")
+  public static void start(IProject project, Map<IResource, OfbizDefinitions> fileDefinitionsMap,
+      OfbizDefinitions definitions) throws CoreException {
+    stop(project);
+    OfbizLiveModel model = new OfbizLiveModel(project, fileDefinitionsMap, definitions);
+    OfbizLiveModel oldModel;
+    synchronized (OfbizLiveModel.class) {
+      oldModel = modelMap.put(project, model);
+    }
+    if (oldModel != null) {
+      oldModel.dispose();
+    }
+    ResourcesPlugin.getWorkspace().addResourceChangeListener(model,
+        IResourceChangeEvent.POST_CHANGE | IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
+  }
+
+  /**
+   * Stops following the changes of the project and deletes the markers created from the changes.
+   * The markers are deleted outside of the class lock, resourceChanged takes it while the workspace is locked
+   */
+  @SuppressWarnings("javadoc")
+  public static void stop(IProject project) throws CoreException {
+    OfbizLiveModel model;
+    synchronized (OfbizLiveModel.class) {
+      model = modelMap.remove(project);
+    }
+    if (model != null) {
+      model.dispose();
+      if (project.isAccessible()) {
+        project.deleteMarkers(LIVE_MARKER, true, IResource.DEPTH_INFINITE);
+      }
+    }
+  }
+
+  private void dispose() {
+    ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+    updateJob.cancel();
+  }
+
+  public void resourceChanged(IResourceChangeEvent event) {
+    if (event.getType() != IResourceChangeEvent.POST_CHANGE) {
+      if (project.equals(event.getResource())) {
+        synchronized (OfbizLiveModel.class) {
+          if (modelMap.get(project) == this) {
+            modelMap.remove(project);
+          }
+        }
+        dispose();
+      }
+      return;
+    }
+    IResourceDelta projectDelta = event.getDelta() == null ? null : event.getDelta().findMember(project.getFullPath());
+    if (projectDelta == null) {
+      return;
+    }
+    final Set<IResource> changedFiles = new LinkedHashSet<IResource>();
+    try {
+      projectDelta.accept(new IResourceDeltaVisitor() {
+        public boolean visit(IResourceDelta delta) throws CoreException {
+          IResource resource = delta.getResource();
+          if (resource.getType() != IResource.FILE) {
+            return !resource.isDerived();
+          }
+          boolean isChanged = delta.getKind() == IResourceDelta.ADDED || delta.getKind() == IResourceDelta.REMOVED
+              || (delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0;
+          if (isChanged && OfbizSpecificXmlParser.isOfbizFile(resource)) {
+            changedFiles.add(resource);
+          }
+          return false;
+        }
+      });
+    }
+    catch (CoreException e) {
+      Log.error("Can not process changes of " + project.getName(), e);
+      return;
+    }
+    if (!changedFiles.isEmpty()) {
+      synchronized (changedFileSet) {
+        changedFileSet.addAll(changedFiles);
+      }
+      updateJob.schedule(UPDATE_DELAY_MILLIS);
+    }
+  }
+
+  private synchronized void update() throws CoreException {
+    Set<IResource> changedFiles;
+    synchronized (changedFileSet) {
+      changedFiles = new LinkedHashSet<IResource>(changedFileSet);
+      changedFileSet.clear();
+    }
+    for (IResource file : changedFiles) {
+      if (file.exists() && !file.isDerived()) {
+        fileDefinitionsMap.put(file, helper.extractDefinitions(file));
+      }
+      else {
+        fileDefinitionsMap.remove(file);
+      }
+    }
+
+    OfbizDefinitions definitions = new OfbizDefinitions();
+    for (OfbizDefinitions fileDefinitions : fileDefinitionsMap.values()) {
+      definitions.addAll(fileDefinitions);
+    }
+    Map<String, UnusedItem> newUnusedItemMap = getUnusedItems(definitions);
+
+    int changedItemCount = 0;
+    for (Map.Entry<String, UnusedItem> entry : unusedItemMap.entrySet()) {
+      if (!newUnusedItemMap.containsKey(entry.getKey())) {
+        deleteMarkers(entry.getValue());
+        changedItemCount++;
+      }
+    }
+    for (Map.Entry<String, UnusedItem> entry : newUnusedItemMap.entrySet()) {
+      if (!unusedItemMap.containsKey(entry.getKey())) {
+        createMarker(entry.getValue());
+        changedItemCount++;
+      }
+    }
+    unusedItemMap = newUnusedItemMap;
+    Log.info("Ofbiz markers updated for " + changedFiles.size() + " changed files, " + changedItemCount
+        + " items changed");
+  }
+
+  /** The rules of OfbizSpecificSearchManager that do not need searches */
+  private static Map<String, UnusedItem> getUnusedItems(OfbizDefinitions definitions) {
+    Map<String, UnusedItem> itemMap = new HashMap<String, UnusedItem>();
+    OfbizUsageRules rules = new OfbizUsageRules(definitions, null);
+
+    for (Map.Entry<String, String> entry : definitions.ftlMap.entrySet()) {
+      if (!rules.isFtlUsed(entry.getKey())) {
+        addItem(itemMap, entry.getKey(), new ItemLocation(entry.getValue()), OfbizMessages.UNUSED_FTL_MESSAGE);
+      }
+    }
+    for (Map.Entry<String, String> entry : definitions.bshOrGroovyMap.entrySet()) {
+      if (!rules.isBshOrGroovyFileUsed(entry.getKey())) {
+        addItem(itemMap, entry.getKey(), new ItemLocation(entry.getValue()),
+            OfbizMessages.UNUSED_BSH_OR_GROOVY_MESSAGE);
+      }
+    }
+    for (Map.Entry<String, ReferenceAndLocation> entry : definitions.viewDefinitionMap.entrySet()) {
+      String viewName = entry.getKey();
+      if (!rules.isViewUsed(viewName)) {
+        addItem(itemMap, viewName, entry.getValue(), OfbizMessages.UNUSED_VIEW_MESSAGE);
+      }
+      if (!rules.isScreenOfViewDefined(viewName)) {
+        addItem(itemMap, viewName, entry.getValue(), OfbizMessages.VIEW_WITHOUT_SCREEN_MESSAGE);
+      }
+    }
+    for (Map.Entry<String, ItemLocation> entry : definitions.screenDefinitionMap.entrySet()) {
+      if (!rules.isScreenUsed(entry.getKey())) {
+        addItem(itemMap, entry.getKey(), entry.getValue(), OfbizMessages.UNUSED_SCREEN_MESSAGE);
+      }
+    }
+    return itemMap;
+  }
+
+  private static void addItem(Map<String, UnusedItem> itemMap, String name, ItemLocation location, String message) {
+    itemMap.put(message + "#" + name, new UnusedItem(name, location, message));
+  }
+
+  /** @return the start tag at the position recorded while parsing, or searches the view/screen if it is not known */
+  private static NonJavaIMember getMember(UnusedItem item) throws CoreException {
+    if (item.message.equals(OfbizMessages.UNUSED_SCREEN_MESSAGE)) {
+      return OfbizSpecificSearchManager.getNonJavaIMemberForScreen(item.name, item.location);
+    }
+    if (item.message.equals(OfbizMessages.UNUSED_VIEW_MESSAGE)
+        || item.message.equals(OfbizMessages.VIEW_WITHOUT_SCREEN_MESSAGE)) {
+      return OfbizSpecificSearchManager.getNonJavaIMemberForView(item.name, item.location);
+    }
+    return NonJavaIMember.create(item.location);
+  }
+
+  private static void createMarker(UnusedItem item) throws CoreException {
+    if (!item.resource.exists()) {
+      return;
+    }
+    NonJavaIMember member = getMember(item);
+    IMarker marker = item.resource.createMarker(LIVE_MARKER);
+    marker.setAttributes(new String[] { IMarker.MESSAGE, IMarker.SEVERITY, IMarker.LINE_NUMBER, IMarker.CHAR_START,
+        IMarker.CHAR_END }, new Object[] { item.message, Integer.valueOf(IMarker.SEVERITY_WARNING),
+        Integer.valueOf(Math.max(1, member.getLineNumber())), Integer.valueOf(member.getOffset()),
+        Integer.valueOf(member.getOffset() + member.getLength()) });
+  }
+
+  /** Deletes the markers of the item, created by this class or by a previous "Analyze Ofbiz" run */
+  private static void deleteMarkers(UnusedItem item) throws CoreException {
+    if (!item.resource.exists()) {
+      return;
+    }
+    int lineNumber = Math.max(1, getMember(item).getLineNumber());
+    for (String markerType : new String[] { UCD_MARKER, LIVE_MARKER }) {
+      for (IMarker marker : item.resource.findMarkers(markerType, true, IResource.DEPTH_ZERO)) {
+        if (item.message.equals(marker.getAttribute(IMarker.MESSAGE))
+            && marker.getAttribute(IMarker.LINE_NUMBER, 1) == lineNumber) {
+          marker.delete();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,213 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ucdetector.util.IntIntMap;
+import org.ucdetector.util.OfbizDefinitions;
+import org.ucdetector.util.ReferenceAndLocation;
+import org.ucdetector.util.SymbolTable;
+
+/**
+ * Services, views, screens, ftl and bsh/groovy files with the references between them, to find the items that
+ * are only used by other unused items (e.g. a screen of a view that is not referenced from any request-map).
+ *
+ * Roots are the items used from outside: views of request-maps, services called from controllers, secas or
+ * java code, and items referenced from places where the referencing item is not known.
+ *
+ * The names of each kind are in a SymbolTable, the nodes of a kind are added together, so the node of a name is
+ * the first node of the kind + the id of the name. Looking up an item like "screen:a/S.xml#s1" does not allocate.
+ *
+ * Does not use eclipse, see OfbizUsageRules.
+ */
+public class OfbizReferenceGraph {
+
+  private static final int NO_NODE = -1;
+
+  private static final String[] KIND_PREFIXES = { OfbizDefinitions.SERVICE_ITEM, OfbizDefinitions.VIEW_ITEM,
+      OfbizDefinitions.SCREEN_ITEM, OfbizDefinitions.FTL_ITEM, OfbizDefinitions.SCRIPT_ITEM };
+  private static final int SERVICE = 0;
+  private static final int VIEW = 1;
+  private static final int SCREEN = 2;
+  private static final int FTL = 3;
+  private static final int SCRIPT = 4;
+
+  private final ReferenceGraph graph = new ReferenceGraph();
+  private final SymbolTable[] kindSymbols = new SymbolTable[KIND_PREFIXES.length];
+  private final int[] kindFirstNode = new int[KIND_PREFIXES.length];
+
+  public OfbizReferenceGraph(OfbizDefinitions definitions, StringLiteralIndex serviceNameLiteralIndex) {
+    //--- nodes ----------------------------------------------
+    addNodes(SERVICE, definitions.serviceNameAndFilePathMap.keySet());
+    addNodes(VIEW, definitions.viewDefinitionMap.keySet());
+    addNodes(SCREEN, definitions.screenDefinitionMap.keySet());
+
+    //ftls with the same file name are linked: firstFtlNodeByFileName -> nextFtlNodeWithSameName[...]
+    SymbolTable ftlFileNames = new SymbolTable();
+    IntIntMap firstFtlNodeByFileName = new IntIntMap();
+    int[] nextFtlNodeWithSameName = new int[definitions.ftlMap.size()];
+    startKind(FTL);
+    for (String pathToFile : definitions.ftlMap.keySet()) {
+      int nodeCountBefore = graph.getNodeCount();
+      int node = addNode(FTL, pathToFile);
+      if (graph.getNodeCount() > nodeCountBefore) {
+        int fileNameId = ftlFileNames.intern(pathToFile.substring(pathToFile.lastIndexOf('/') + 1));
+        nextFtlNodeWithSameName[node - kindFirstNode[FTL]] = firstFtlNodeByFileName.put(fileNameId, node, NO_NODE);
+      }
+    }
+    addNodes(SCRIPT, definitions.bshOrGroovyMap.keySet());
+
+    //--- edges ----------------------------------------------
+    for (Map.Entry<String, ReferenceAndLocation> entry : definitions.viewDefinitionMap.entrySet()) {
+      addEdge(getNode(VIEW, entry.getKey()), getNode(SCREEN, entry.getValue().referencedItem));
+    }
+    for (Map.Entry<String, Set<String>> entry : definitions.usageMap.entrySet()) {
+      int from = getNode(entry.getKey());
+      for (String usedItem : entry.getValue()) {
+        addEdge(from, getNode(usedItem));
+      }
+    }
+    for (Map.Entry<String, Set<String>> entry : definitions.ftlIncludeMap.entrySet()) {
+      int from = getNode(FTL, entry.getKey());
+      if (from == NO_NODE) {
+        continue;
+      }
+      for (String includedPath : entry.getValue()) {
+        if (includedPath.startsWith("*")) {
+          int fileNameId = ftlFileNames.getId(includedPath, 1, includedPath.length());
+          int to = fileNameId < 0 ? NO_NODE : firstFtlNodeByFileName.get(fileNameId, NO_NODE);
+          for (; to != NO_NODE; to = nextFtlNodeWithSameName[to - kindFirstNode[FTL]]) {
+            graph.addEdge(from, to);
+          }
+        }
+        else {
+          addEdge(from, getNode(FTL, includedPath));
+        }
+      }
+    }
+
+    //--- roots ----------------------------------------------
+    addRoots(VIEW, definitions.referencedViewList, false);
+    addRoots(SERVICE, definitions.referencedServiceList, false);
+    //the referencing item is not known for all references (e.g. screen without name)
+    addRoots(SCREEN, definitions.referencedScreenList, true);
+    addRoots(FTL, definitions.referencedFtlList, true);
+    addRoots(SCRIPT, definitions.referencedBshOrGroovyList, true);
+    if (serviceNameLiteralIndex != null) {
+      for (String serviceName : definitions.serviceNameAndFilePathMap.keySet()) {
+        addServiceCalls(serviceName, serviceNameLiteralIndex);
+      }
+    }
+  }
+
+  /**
+   * "serviceName" in the indexed (xml) files is a call from outside the graph, one occurrence is the service
+   * definition itself. The calls from bsh/groovy files are in the usageMap.
+   */
+  private void addServiceCalls(String serviceName, StringLiteralIndex serviceNameLiteralIndex) {
+    if (serviceNameLiteralIndex.getOccurrences(serviceName).size() > 1) {
+      graph.addRoot(getNode(SERVICE, serviceName));
+    }
+  }
+
+  private void startKind(int kind) {
+    kindSymbols[kind] = new SymbolTable();
+    kindFirstNode[kind] = graph.getNodeCount();
+  }
+
+  private void addNodes(int kind, Collection<String> names) {
+    startKind(kind);
+    for (String name : names) {
+      addNode(kind, name);
+    }
+  }
+
+  /** Only for the kind started last */
+  private int addNode(int kind, String name) {
+    SymbolTable symbols = kindSymbols[kind];
+    int sizeBefore = symbols.size();
+    int id = symbols.intern(name);
+    if (id == sizeBefore) {
+      graph.addNode();
+    }
+    return kindFirstNode[kind] + id;
+  }
+
+  private int getNode(int kind, String name) {
+    return getNode(kind, name, 0);
+  }
+
+  private int getNode(int kind, String text, int start) {
+    int id = kindSymbols[kind].getId(text, start, text.length());
+    return id < 0 ? NO_NODE : kindFirstNode[kind] + id;
+  }
+
+  /** @return node of an item like "screen:a/S.xml#s1" */
+  private int getNode(String item) {
+    for (int kind = 0; kind < KIND_PREFIXES.length; kind++) {
+      if (item.startsWith(KIND_PREFIXES[kind])) {
+        return getNode(kind, item, KIND_PREFIXES[kind].length());
+      }
+    }
+    return NO_NODE;
+  }
+
+  /** Edges to items that are not defined in the project are ignored */
+  private void addEdge(int from, int to) {
+    if (from != NO_NODE && to != NO_NODE) {
+      graph.addEdge(from, to);
+    }
+  }
+
+  private void addRoots(int kind, Collection<String> referencedNames, boolean onlyWithoutReferrer) {
+    for (String name : referencedNames) {
+      int node = getNode(kind, name);
+      if (node != NO_NODE && (!onlyWithoutReferrer || graph.getReferrerCount(node) == 0)) {
+        graph.addRoot(node);
+      }
+    }
+  }
+
+  private String getItem(int node) {
+    for (int kind = KIND_PREFIXES.length - 1; kind >= 0; kind--) {
+      if (node >= kindFirstNode[kind]) {
+        return KIND_PREFIXES[kind] + kindSymbols[kind].getSymbol(node - kindFirstNode[kind]);
+      }
+    }
+    throw new IllegalArgumentException("Unknown node: " + node);
+  }
+
+  /**
+   * One pass over the graph.
+   * @return items that are referenced, but only from items not reachable from any root
+   */
+  @SuppressWarnings("javadoc")
+  public List<String> getItemsReferencedOnlyFromUnusedItems() {
+    BitSet reachable = graph.findReachable();
+    List<String> unusedItemList = new ArrayList<String>();
+    for (int node = reachable.nextClearBit(0); node < graph.getNodeCount(); node = reachable.nextClearBit(node + 1)) {
+      if (graph.getReferrerCount(node) > 0) {
+        unusedItemList.add(getItem(node));
+      }
+    }
+    return unusedItemList;
+  }
+
+  public int getNodeCount() {
+    return graph.getNodeCount();
+  }
+
+  public int getEdgeCount() {
+    return graph.getEdgeCount();
+  }
+}
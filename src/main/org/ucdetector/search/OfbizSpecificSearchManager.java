@@ -7,19 +7,27 @@
 package org.ucdetector.search;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.IMethod;
 import org.ucdetector.Log;
 import org.ucdetector.report.ReportParam;
-import org.ucdetector.search.SimpleSearch.SearchResult;
-import org.ucdetector.util.MarkerFactory;
+import org.ucdetector.util.ItemLocation;
 import org.ucdetector.util.NonJavaIMember;
+import org.ucdetector.util.OfbizDefinitions;
+import org.ucdetector.util.OfbizMarkerBuffer;
+import org.ucdetector.util.OfbizMessages;
+import org.ucdetector.util.OfbizStats;
 import org.ucdetector.util.ReferenceAndLocation;
 
 /**
@@ -28,19 +36,55 @@ import org.ucdetector.util.ReferenceAndLocation;
  */
 public class OfbizSpecificSearchManager /*extends SearchManager*/{
 
-  private int markerCreated = 0;
+  //the independent search phases can run at the same time, see OfbizOptions.getSearchThreadCount
+  private final AtomicInteger markerCreated = new AtomicInteger();
   private final LineManger lineManger = new LineManger();
-  private final MarkerFactory markerFactory;
+  private final OfbizMarkerBuffer markerFactory;
 
-  private final List<IStatus> exceptionListDuringSearch = new ArrayList<IStatus>();
+  private final List<IStatus> exceptionListDuringSearch = Collections.synchronizedList(new ArrayList<IStatus>());
 
-  public OfbizSpecificSearchManager(MarkerFactory markerFactory) {
+  /** Items of a phase between two calls of the BatchListener */
+  static final int BATCH_SIZE = 100;
+  private volatile BatchListener batchListener;
+
+  /** Told on the thread of a phase after each batch of items, e.g. to publish the markers found so far */
+  public interface BatchListener {
+    void batchDone() throws CoreException;
+  }
+
+  public OfbizSpecificSearchManager(OfbizMarkerBuffer markerFactory) {
     this.markerFactory = markerFactory;
     ReportParam.lineManager = lineManger;// Hack :-(
   }
 
   public int getMarkerCreated() {
-    return markerCreated;
+    return markerCreated.get();
+  }
+
+  /** Counts the marker for the phase running on the current thread as well, see OfbizStats.count */
+  private void countMarker() {
+    markerCreated.incrementAndGet();
+    OfbizStats.count(OfbizStats.MARKERS_CREATED, 1);
+  }
+
+  /** @param batchListener null for none, e.g. while the phases run concurrently */
+  @SuppressWarnings("javadoc")
+  public void setBatchListener(BatchListener batchListener) {
+    this.batchListener = batchListener;
+  }
+
+  /**
+   * Called before each item of a phase. The phase stops when the monitor is canceled (cancel of the job or time
+   * budget used up), the markers of the items before are correct.
+   */
+  private void startItem(int itemIndex, IProgressMonitor monitor) throws CoreException {
+    BatchListener listener = batchListener;
+    if (itemIndex > 0 && itemIndex % BATCH_SIZE == 0 && listener != null) {
+      listener.batchDone();
+    }
+    if (monitor.isCanceled()) {
+      throw new OperationCanceledException();
+    }
   }
 
   private static boolean hasOfbizServiceReference(IMethod method, Map<String, String> serviceMethodToNameMap) {
@@ -57,10 +101,12 @@ public class OfbizSpecificSearchManager /*extends SearchManager*/{
    */
   @SuppressWarnings({ "javadoc" })
   public void searchServices(List<IMethod> serviceList, Map<String, String> serviceMethodToNameMap,
-      UISearchProgressHelper progressHelper) throws CoreException {
+      UISearchProgressHelper progressHelper, IProgressMonitor monitor) throws CoreException {
 
+    int itemIndex = 0;
     for (IMethod method : serviceList) {
-      progressHelper.showProgress("service methods", markerCreated, exceptionListDuringSearch.size());
+      startItem(itemIndex++, monitor);
+      progressHelper.showProgress("service methods", markerCreated.get(), exceptionListDuringSearch.size());
 
       int line = lineManger.getLine(method);
       if (line == LineManger.LINE_NOT_FOUND) {
@@ -71,7 +117,7 @@ public class OfbizSpecificSearchManager /*extends SearchManager*/{
       if (!hasOfbizServiceReference(method, serviceMethodToNameMap)) {
         markerFactory.createReferenceMarkerOther(method, "[Ofbiz] Looks like a service but has no service definition!",
             line);
-        markerCreated++;
+        countMarker();
       }
     }
   }
@@ -80,26 +126,59 @@ public class OfbizSpecificSearchManager /*extends SearchManager*/{
    * Check whether the service is
    * - referenced from a controller/seca 
    * - called from anywhere 
+   * 
+   * The literal index contains every "serviceName" of the xml files of the scanned project, the literals of the
+   * scripts are in scriptLiteralSet. The rest of the workspace is searched with one pass for all services that are
+   * not used in the project (to find calls from other projects).
+   * @param monitor stops the phase, cancels the search of the workspace
    */
   @SuppressWarnings("javadoc")
-  public void searchServicesDefinitions(Map<String, IResource> serviceNameToFilePathMap,
-      Set<String> referencedServiceList, UISearchProgressHelper progressHelper) throws CoreException {
+  public void searchServicesDefinitions(OfbizUsageRules rules, ProjectLiteralIndex serviceNameLiteralIndex,
+      UISearchProgressHelper progressHelper, IProgressMonitor monitor) throws CoreException {
 
+    Map<String, String> serviceNameToFilePathMap = rules.getDefinitions().serviceNameAndFilePathMap;
+    List<String> candidateList = new ArrayList<String>();
+    int itemIndex = 0;
     for (String serviceName : serviceNameToFilePathMap.keySet()) {
-      progressHelper.showProgress("service definitions", markerCreated, exceptionListDuringSearch.size());
+      startItem(itemIndex++, monitor);
+      progressHelper.showProgress("service definitions", markerCreated.get(), exceptionListDuringSearch.size());
 
-      if (referencedServiceList.contains(serviceName)) {
-        continue;
+      if (!rules.isServiceUsedInProject(serviceName)) {
+        candidateList.add(serviceName);
       }
-      List<SearchResult> resultList = SimpleSearch.searchTextSimple("\"" + serviceName + "\"", new String[] { "*.xml",
-          "*.bsh", "*.java" });
+    }
+    if (candidateList.isEmpty()) {
+      return;
+    }
+
+    List<String> quotedCandidateList = new ArrayList<String>();
+    for (String serviceName : candidateList) {
+      quotedCandidateList.add("\"" + serviceName + "\"");
+    }
+    IResource[] indexedRoots = serviceNameLiteralIndex == null ? new IResource[0]
+        : new IResource[] { serviceNameLiteralIndex.getIndexedRoot() };
+    Map<String, List<SearchResult>> otherResultMap = SimpleSearch.searchTextSimple(quotedCandidateList, new String[] {
+        "*.xml", "*.bsh", "*.groovy", "*.java" }, indexedRoots, monitor);
+
+    itemIndex = 0;
+    for (String serviceName : candidateList) {
+      startItem(itemIndex++, monitor);
+      List<SearchResult> resultList = new ArrayList<SearchResult>();
+      if (serviceNameLiteralIndex != null) {
+        resultList.addAll(serviceNameLiteralIndex.getOccurrences(serviceName));
+      }
+      List<SearchResult> otherResultList = otherResultMap.get("\"" + serviceName + "\"");
+      if (otherResultList != null) {
+        resultList.addAll(otherResultList);
+      }
+
       if (resultList.size() == 1) {
         SearchResult sr = resultList.get(0);
-        NonJavaIMember serviceDefinitionMember = new NonJavaIMember(serviceNameToFilePathMap.get(serviceName),
-            sr.offset, sr.length, sr.lineNumber);
-        markerFactory.createReferenceMarker(serviceDefinitionMember, "[Ofbiz] The service \"" + serviceName
-            + "\" is not called from anywhere!", sr.lineNumber, 0);
-        markerCreated++;
+        NonJavaIMember serviceDefinitionMember = NonJavaIMember.create(new ItemLocation(serviceNameToFilePathMap
+            .get(serviceName), sr.offset, sr.length, sr.lineNumber));
+        markerFactory.createReferenceMarker(serviceDefinitionMember, OfbizMessages
+            .getUnusedServiceMessage(serviceName), sr.lineNumber, 0);
+        countMarker();
 
         Log.info("Service: " + serviceName + " is not used");
       }
@@ -109,29 +188,23 @@ public class OfbizSpecificSearchManager /*extends SearchManager*/{
   /**
    * Check whether the ftl file 
    * - is referenced from a screen
-   * - included/imported from another ftl
+   * - included/imported from another ftl (see OfbizDefinitions.ftlIncludeMap)
    */
   @SuppressWarnings("javadoc")
-  public void searchFtls(Set<NonJavaIMember> ftlList, Set<String> referencedFtlList,
-      UISearchProgressHelper progressHelper) throws CoreException {
-
-    for (NonJavaIMember ftlMember : ftlList) {
-      progressHelper.showProgress("ftls", markerCreated, exceptionListDuringSearch.size());
-
-      if (!referencedFtlList.contains(ftlMember.getPathToFile())) {
+  public void searchFtls(OfbizUsageRules rules, UISearchProgressHelper progressHelper, IProgressMonitor monitor)
+      throws CoreException {
 
-        //second chance search for include statement (it would be probably faster to read the ftl files
-        //earlier, but that would add a lot of complexity and it is not super important)
-        boolean isIncluded = SimpleSearch.searchTextRegularExpression(
-            "<#(include|import) \".*" + ftlMember.getFileName() + "\"", new String[] { "*.ftl" }).size() > 0;
+    int itemIndex = 0;
+    for (Map.Entry<String, String> entry : rules.getDefinitions().ftlMap.entrySet()) {
+      startItem(itemIndex++, monitor);
+      progressHelper.showProgress("ftls", markerCreated.get(), exceptionListDuringSearch.size());
 
-        if (!isIncluded) {
-          markerFactory.createReferenceMarker(ftlMember,
-              "[Ofbiz] This file is not referenced from screen definitions neither included from other files!", 1, 0);
-          markerCreated++;
+      if (!rules.isFtlUsed(entry.getKey())) {
+        markerFactory.createReferenceMarker(NonJavaIMember.create(new ItemLocation(entry.getValue())),
+            OfbizMessages.UNUSED_FTL_MESSAGE, 1, 0);
+        countMarker();
 
-          Log.info("Ftl: " + ftlMember.getPathToFile() + " is not used");
-        }
+        Log.info("Ftl: " + entry.getKey() + " is not used");
       }
     }
   }
@@ -141,18 +214,20 @@ public class OfbizSpecificSearchManager /*extends SearchManager*/{
    * - referenced from a screen
    */
   @SuppressWarnings("javadoc")
-  public void searchBshOrGroovyFiles(Set<NonJavaIMember> bshOrGroovyList, Set<String> referencedBshOrGroovyList,
-      UISearchProgressHelper progressHelper) throws CoreException {
+  public void searchBshOrGroovyFiles(OfbizUsageRules rules, UISearchProgressHelper progressHelper,
+      IProgressMonitor monitor) throws CoreException {
 
-    for (NonJavaIMember bshOrGroovyMember : bshOrGroovyList) {
-      progressHelper.showProgress("bsh/groovy files", markerCreated, exceptionListDuringSearch.size());
+    int itemIndex = 0;
+    for (Map.Entry<String, String> entry : rules.getDefinitions().bshOrGroovyMap.entrySet()) {
+      startItem(itemIndex++, monitor);
+      progressHelper.showProgress("bsh/groovy files", markerCreated.get(), exceptionListDuringSearch.size());
 
-      if (!referencedBshOrGroovyList.contains(bshOrGroovyMember.getPathToFile())) {
-        markerFactory.createReferenceMarker(bshOrGroovyMember,
-            "[Ofbiz] This file is not referenced from screen definitions!", 1, 0);
-        markerCreated++;
+      if (!rules.isBshOrGroovyFileUsed(entry.getKey())) {
+        markerFactory.createReferenceMarker(NonJavaIMember.create(new ItemLocation(entry.getValue())),
+            OfbizMessages.UNUSED_BSH_OR_GROOVY_MESSAGE, 1, 0);
+        countMarker();
 
-        Log.info("Bsh: " + bshOrGroovyMember.getPathToFile() + " is not used");
+        Log.info("Bsh: " + entry.getKey() + " is not used");
       }
     }
   }
@@ -164,39 +239,64 @@ public class OfbizSpecificSearchManager /*extends SearchManager*/{
    * @throws CoreException 
    */
   @SuppressWarnings({ "javadoc" })
-  public void searchViews(Map<String, ReferenceAndLocation> viewDefinitionMap, Set<String> referencedViewList,
-      Map<String, IResource> screenNameAndFilePathMap, UISearchProgressHelper progressHelper) throws CoreException {
+  public void searchViews(OfbizUsageRules rules, UISearchProgressHelper progressHelper, IProgressMonitor monitor)
+      throws CoreException {
 
     //view references
+    Map<String, ReferenceAndLocation> viewDefinitionMap = rules.getDefinitions().viewDefinitionMap;
+    int itemIndex = 0;
     for (String viewName : viewDefinitionMap.keySet()) {
-      progressHelper.showProgress("views", markerCreated, exceptionListDuringSearch.size());
+      startItem(itemIndex++, monitor);
+      progressHelper.showProgress("views", markerCreated.get(), exceptionListDuringSearch.size());
 
-      if (!referencedViewList.contains(viewName)) {
-        NonJavaIMember viewIMember = getNonJavaIMemberForViewDefinition(viewName,
-            viewDefinitionMap.get(viewName).location);
-        markerFactory.createReferenceMarker(viewIMember, "[Ofbiz] This view is not referenced!",
-            viewIMember.getLineNumber(), 0);
-        markerCreated++;
+      if (!rules.isViewUsed(viewName)) {
+        NonJavaIMember viewIMember = getNonJavaIMemberForView(viewName, viewDefinitionMap.get(viewName));
+        markerFactory.createReferenceMarker(viewIMember, OfbizMessages.UNUSED_VIEW_MESSAGE,
+            Math.max(1, viewIMember.getLineNumber()), 0);
+        countMarker();
 
         Log.info("View: " + viewName + " is not used");
       }
 
-      if (!screenNameAndFilePathMap.containsKey(viewDefinitionMap.get(viewName).referencedItem)) {
-        NonJavaIMember viewIMember = getNonJavaIMemberForViewDefinition(viewName,
-            viewDefinitionMap.get(viewName).location);
-        markerFactory.createReferenceMarker(viewIMember, "[Ofbiz] The screen of this view does not exists!",
-            viewIMember.getLineNumber(), 0);
-        markerCreated++;
+      if (!rules.isScreenOfViewDefined(viewName)) {
+        NonJavaIMember viewIMember = getNonJavaIMemberForView(viewName, viewDefinitionMap.get(viewName));
+        markerFactory.createReferenceMarker(viewIMember, OfbizMessages.VIEW_WITHOUT_SCREEN_MESSAGE,
+            Math.max(1, viewIMember.getLineNumber()), 0);
+        countMarker();
 
         Log.info("View's screen: " + viewDefinitionMap.get(viewName).referencedItem + " is not used");
       }
     }
   }
 
+  /**
+   * @return the start tag at the position recorded while parsing, or searches the view if it is not known (the file
+   * if it is not found either)
+   */
+  static NonJavaIMember getNonJavaIMemberForView(String viewNameFull, ItemLocation viewDefinition)
+      throws CoreException {
+    ItemLocation location = locateStartTag(viewDefinition);
+    if (location.lineNumber > 0) {
+      return NonJavaIMember.create(location);
+    }
+    NonJavaIMember viewIMember = getNonJavaIMemberForViewDefinition(viewNameFull, NonJavaIMember
+        .getFile(viewDefinition.path));
+    return viewIMember == null ? NonJavaIMember.create(viewDefinition) : viewIMember;
+  }
+
+  /** The xml files are not kept after parsing, the file is read again (see FileContentCache) for the marker */
+  private static ItemLocation locateStartTag(ItemLocation definition) throws CoreException {
+    if (definition.endLine <= 0) {
+      return definition;
+    }
+    String content = FileContentCache.getInstance().getText(NonJavaIMember.getFile(definition.path));
+    return content == null ? definition : new StartTagLocator(content).locate(definition);
+  }
+
   /**
    * viewName is sth like pathToFile#actualNameOfView
    */
-  private static NonJavaIMember getNonJavaIMemberForViewDefinition(String viewNameFull, IResource location)
+  static NonJavaIMember getNonJavaIMemberForViewDefinition(String viewNameFull, IResource location)
       throws CoreException {
     String viewName = viewNameFull.substring(viewNameFull.indexOf('#') + 1);
     List<SearchResult> resultList = SimpleSearch.searchTextRegularExpressionInResource("<view-map\\s*name=\""
@@ -221,27 +321,44 @@ public class OfbizSpecificSearchManager /*extends SearchManager*/{
 
   }
 
-  public void searchScreens(Map<String, IResource> screenNameAndFilePathMap, Set<String> referencedScreenList,
-      UISearchProgressHelper progressHelper) throws CoreException {
+  public void searchScreens(OfbizUsageRules rules, UISearchProgressHelper progressHelper, IProgressMonitor monitor)
+      throws CoreException {
 
-    for (String screenName : screenNameAndFilePathMap.keySet()) {
-      progressHelper.showProgress("screens", markerCreated, exceptionListDuringSearch.size());
+    Map<String, ItemLocation> screenDefinitionMap = rules.getDefinitions().screenDefinitionMap;
+    int itemIndex = 0;
+    for (String screenName : screenDefinitionMap.keySet()) {
+      startItem(itemIndex++, monitor);
+      progressHelper.showProgress("screens", markerCreated.get(), exceptionListDuringSearch.size());
 
-      if (!referencedScreenList.contains(screenName)) {
-        markerFactory.createReferenceMarker(
-            getNonJavaIMemberForScreenDefinition(screenName, screenNameAndFilePathMap.get(screenName)),
-            "[Ofbiz] This screen is not referenced from anywhere!", 1, 0);
-        markerCreated++;
+      if (!rules.isScreenUsed(screenName)) {
+        NonJavaIMember screenIMember = getNonJavaIMemberForScreen(screenName, screenDefinitionMap.get(screenName));
+        markerFactory.createReferenceMarker(screenIMember, OfbizMessages.UNUSED_SCREEN_MESSAGE,
+            Math.max(1, screenIMember.getLineNumber()), 0);
+        countMarker();
 
         Log.info("Screen: " + screenName + " is not used");
       }
     }
   }
 
+  /**
+   * @return the start tag at the position recorded while parsing, or searches the screen if it is not known
+   */
+  static NonJavaIMember getNonJavaIMemberForScreen(String screenNameFull, ItemLocation screenDefinition)
+      throws CoreException {
+    ItemLocation location = locateStartTag(screenDefinition);
+    if (location.lineNumber > 0) {
+      return NonJavaIMember.create(location);
+    }
+    NonJavaIMember screenIMember = getNonJavaIMemberForScreenDefinition(screenNameFull, NonJavaIMember
+        .getFile(screenDefinition.path));
+    return screenIMember == null ? NonJavaIMember.create(screenDefinition) : screenIMember;
+  }
+
   /**
    * viewName is sth like pathToFile#actualNameOfView
    */
-  private static NonJavaIMember getNonJavaIMemberForScreenDefinition(String screenNameFull, IResource location)
+  static NonJavaIMember getNonJavaIMemberForScreenDefinition(String screenNameFull, IResource location)
       throws CoreException {
     String screenName = screenNameFull.substring(screenNameFull.indexOf('#') + 1);
     List<SearchResult> resultList = SimpleSearch.searchTextRegularExpressionInResource("<screen\\s*name=\""
@@ -258,4 +375,71 @@ public class OfbizSpecificSearchManager /*extends SearchManager*/{
     return null;
 
   }
+
+  /**
+   * Check whether the service/screen/ftl/bsh/groovy file is used by something that is used itself, e.g. the screen
+   * of a view that is not referenced from any controller (see OfbizReferenceGraph). The items that are not
+   * referenced at all already got their markers from the other checks.
+   */
+  @SuppressWarnings("javadoc")
+  public void searchTransitivelyUnused(OfbizUsageRules rules, ProjectLiteralIndex serviceNameLiteralIndex,
+      UISearchProgressHelper progressHelper, IProgressMonitor monitor) throws CoreException {
+
+    OfbizReferenceGraph referenceGraph = rules.createReferenceGraph();
+    List<String> unusedItemList = referenceGraph.getItemsReferencedOnlyFromUnusedItems();
+    Log.info("Reference graph: " + referenceGraph.getNodeCount() + " items, " + referenceGraph.getEdgeCount()
+        + " references, " + unusedItemList.size() + " items used only by unused items");
+
+    Set<String> calledServiceSet = getServicesCalledFromOtherProjects(unusedItemList, serviceNameLiteralIndex,
+        monitor);
+
+    int itemIndex = 0;
+    for (String item : unusedItemList) {
+      startItem(itemIndex++, monitor);
+      progressHelper.showProgress("items used by unused items", markerCreated.get(), exceptionListDuringSearch.size());
+
+      if (item.startsWith(OfbizDefinitions.SERVICE_ITEM)
+          && calledServiceSet.contains(item.substring(OfbizDefinitions.SERVICE_ITEM.length()))) {
+        continue;
+      }
+      ItemLocation location = rules.getItemLocation(item);
+      if (location == null) {
+        continue;
+      }
+      NonJavaIMember member;
+      if (item.startsWith(OfbizDefinitions.SCREEN_ITEM)) {
+        member = getNonJavaIMemberForScreen(item.substring(OfbizDefinitions.SCREEN_ITEM.length()), location);
+      }
+      else {
+        member = NonJavaIMember.create(location);
+      }
+      markerFactory.createReferenceMarker(member, OfbizMessages.getOnlyUsedByUnusedItemsMessage(OfbizUsageRules
+          .getItemKind(item)), Math.max(1, member.getLineNumber()), 0);
+      countMarker();
+
+      Log.info("Item: " + item + " is only used by unused items");
+    }
+  }
+
+  /** The literal index covers only the analyzed project, the services are searched in the rest of the workspace */
+  private static Set<String> getServicesCalledFromOtherProjects(List<String> unusedItemList,
+      ProjectLiteralIndex serviceNameLiteralIndex, IProgressMonitor monitor) throws CoreException {
+    List<String> quotedServiceNameList = new ArrayList<String>();
+    for (String item : unusedItemList) {
+      if (item.startsWith(OfbizDefinitions.SERVICE_ITEM)) {
+        quotedServiceNameList.add("\"" + item.substring(OfbizDefinitions.SERVICE_ITEM.length()) + "\"");
+      }
+    }
+    Set<String> calledServiceSet = new HashSet<String>();
+    if (quotedServiceNameList.isEmpty() || serviceNameLiteralIndex == null) {
+      return calledServiceSet;
+    }
+    Map<String, List<SearchResult>> resultMap = SimpleSearch.searchTextSimple(quotedServiceNameList, new String[] {
+        "*.xml", "*.bsh", "*.groovy", "*.java" }, new IResource[] { serviceNameLiteralIndex.getIndexedRoot() },
+        monitor);
+    for (String quotedServiceName : resultMap.keySet()) {
+      calledServiceSet.add(quotedServiceName.substring(1, quotedServiceName.length() - 1));
+    }
+    return calledServiceSet;
+  }
 }
@@ -0,0 +1,146 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.util.Set;
+
+import org.ucdetector.util.ItemLocation;
+import org.ucdetector.util.OfbizDefinitions;
+import org.ucdetector.util.OfbizPaths;
+
+/**
+ * Decides which of the collected items are used. Does not use eclipse: OfbizSpecificSearchManager and
+ * OfbizLiveModel create markers for the unused items, OfbizHeadlessAnalyzer writes report lines.
+ *
+ * Can be used from more threads at the same time, once it is created.
+ */
+public class OfbizUsageRules {
+
+  private final OfbizDefinitions definitions;
+  private final StringLiteralIndex serviceNameLiteralIndex;
+  /** literals of the bsh/groovy files, they can be service calls */
+  private final Set<String> scriptLiteralSet;
+  private final Set<String> includedFtlSet;
+
+  /**
+   * @param definitions of the analyzed project, including the services called from java code (see
+   * OfbizDefinitions.addServicesCalledFromJava)
+   * @param serviceNameLiteralIndex "serviceName" in the xml files of the project, null if they are not indexed
+   */
+  @SuppressWarnings("javadoc")
+  public OfbizUsageRules(OfbizDefinitions definitions, StringLiteralIndex serviceNameLiteralIndex) {
+    this.definitions = definitions;
+    this.serviceNameLiteralIndex = serviceNameLiteralIndex;
+    this.scriptLiteralSet = definitions.getUsedItemNames(OfbizDefinitions.SERVICE_ITEM);
+    this.includedFtlSet = OfbizPaths.getIncludedFtls(definitions.ftlIncludeMap);
+  }
+
+  public OfbizDefinitions getDefinitions() {
+    return definitions;
+  }
+
+  public StringLiteralIndex getServiceNameLiteralIndex() {
+    return serviceNameLiteralIndex;
+  }
+
+  /**
+   * @return true if the service is referenced from a controller/seca, called from java code or a script, or
+   * "serviceName" is found in another indexed file than the definition. The other projects are not checked.
+   */
+  @SuppressWarnings("javadoc")
+  public boolean isServiceUsedInProject(String serviceName) {
+    if (definitions.referencedServiceList.contains(serviceName) || scriptLiteralSet.contains(serviceName)) {
+      return true;
+    }
+    return serviceNameLiteralIndex != null && serviceNameLiteralIndex.getOccurrences(serviceName).size() > 1;
+  }
+
+  /** @return true if the ftl is referenced from a screen or included/imported from another ftl */
+  @SuppressWarnings("javadoc")
+  public boolean isFtlUsed(String pathToFile) {
+    String fileName = pathToFile.substring(pathToFile.lastIndexOf('/') + 1);
+    return definitions.referencedFtlList.contains(pathToFile)
+        || OfbizPaths.isIncluded(pathToFile, fileName, includedFtlSet);
+  }
+
+  /** @return true if the bsh/groovy file is referenced from a screen */
+  @SuppressWarnings("javadoc")
+  public boolean isBshOrGroovyFileUsed(String pathToFile) {
+    return definitions.referencedBshOrGroovyList.contains(pathToFile);
+  }
+
+  /** @return true if the view is referenced from a controller */
+  @SuppressWarnings("javadoc")
+  public boolean isViewUsed(String viewName) {
+    return definitions.referencedViewList.contains(viewName);
+  }
+
+  /** @return true if the screen referenced from the view exists */
+  @SuppressWarnings("javadoc")
+  public boolean isScreenOfViewDefined(String viewName) {
+    return definitions.screenDefinitionMap.containsKey(definitions.viewDefinitionMap.get(viewName).referencedItem);
+  }
+
+  /** @return true if the screen is referenced from a view, another screen or a script */
+  @SuppressWarnings("javadoc")
+  public boolean isScreenUsed(String screenName) {
+    return definitions.referencedScreenList.contains(screenName);
+  }
+
+  /** @return the graph for the items that are only used by unused items */
+  @SuppressWarnings("javadoc")
+  public OfbizReferenceGraph createReferenceGraph() {
+    return new OfbizReferenceGraph(definitions, serviceNameLiteralIndex);
+  }
+
+  /** @return "service", "screen" or "file" for an item of OfbizReferenceGraph */
+  @SuppressWarnings("javadoc")
+  public static String getItemKind(String item) {
+    if (item.startsWith(OfbizDefinitions.SERVICE_ITEM)) {
+      return "service";
+    }
+    return item.startsWith(OfbizDefinitions.SCREEN_ITEM) ? "screen" : "file";
+  }
+
+  /**
+   * @return where an item of OfbizReferenceGraph is defined, the line number is 0 if it is not known. null for
+   * views (they are referenced only from request-maps, so they are never used only by unused items)
+   */
+  @SuppressWarnings("javadoc")
+  public ItemLocation getItemLocation(String item) {
+    if (item.startsWith(OfbizDefinitions.SERVICE_ITEM)) {
+      String serviceName = item.substring(OfbizDefinitions.SERVICE_ITEM.length());
+      return getServiceLocation(serviceName, definitions.serviceNameAndFilePathMap.get(serviceName));
+    }
+    if (item.startsWith(OfbizDefinitions.SCREEN_ITEM)) {
+      return definitions.screenDefinitionMap.get(item.substring(OfbizDefinitions.SCREEN_ITEM.length()));
+    }
+    String path = null;
+    if (item.startsWith(OfbizDefinitions.FTL_ITEM)) {
+      path = definitions.ftlMap.get(item.substring(OfbizDefinitions.FTL_ITEM.length()));
+    }
+    else if (item.startsWith(OfbizDefinitions.SCRIPT_ITEM)) {
+      path = definitions.bshOrGroovyMap.get(item.substring(OfbizDefinitions.SCRIPT_ITEM.length()));
+    }
+    return path == null ? null : new ItemLocation(path);
+  }
+
+  /** @return position of "serviceName" in the file of the service definition */
+  private ItemLocation getServiceLocation(String serviceName, String path) {
+    if (path == null) {
+      return null;
+    }
+    if (serviceNameLiteralIndex != null) {
+      for (SearchResult occurrence : serviceNameLiteralIndex.getOccurrences(serviceName)) {
+        if (occurrence.path.equals(path)) {
+          return new ItemLocation(path, occurrence.offset, occurrence.length, occurrence.lineNumber);
+        }
+      }
+    }
+    return new ItemLocation(path);
+  }
+}
@@ -0,0 +1,147 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.Locator;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Streaming (SAX) version of the xpath expressions that were used to find the ofbiz specific elements.
+ * Only the names of the open elements are kept, so the memory does not depend on the size of the file.
+ *
+ * The matching elements are passed to the Listener, see the comments there for the matching paths.
+ */
+public class OfbizXmlHandler extends DefaultHandler {
+
+  /**
+   * Gets the attributes of the interesting elements, attributes can be null if they are missing.
+   * line and column are the position after the '>' of the start tag (like Locator reports them), -1 if unknown
+   */
+  @SuppressWarnings("javadoc")
+  public interface Listener {
+    /** /services/service */
+    void serviceDefinition(String name, String location, String invoke);
+
+    /** /site-conf/request-map/event[@type='service'] */
+    void serviceCallFromController(String invoke);
+
+    /** /site-conf/request-map/response[@type='view'] */
+    void viewReferenceFromController(String value);
+
+    /** /site-conf/view-map */
+    void viewDefinitionFromController(String name, String page, int line, int column);
+
+    /** /screens/screen/section//html-template */
+    void ftlReferenceFromScreen(String location);
+
+    /** /screens/screen/section/actions/script */
+    void bshOrGroovyReferenceFromScreen(String location);
+
+    /** /screens/screen */
+    void screenDefinition(String name, int line, int column);
+
+    /** /screens/screen/widgets/decorator-screen */
+    void screenReferenceFromScreen(String name, String location);
+
+    /** /service-eca/eca/action */
+    void serviceCallFromEca(String service);
+  }
+
+  /** Root elements of the files that can contain something interesting for the Listener */
+  private static final Set<String> OFBIZ_ROOT_ELEMENTS = new HashSet<String>(Arrays.asList("services", "site-conf",
+      "screens", "service-eca"));
+
+  private final Listener listener;
+  private final List<String> openElementList = new ArrayList<String>();
+  private Locator locator;
+
+  public OfbizXmlHandler(Listener listener) {
+    this.listener = listener;
+  }
+
+  @Override
+  public void setDocumentLocator(Locator documentLocator) {
+    this.locator = documentLocator;
+  }
+
+  @Override
+  public void startElement(String uri, String localName, String qName, Attributes attributes) {
+    openElementList.add(qName);
+    int depth = openElementList.size();
+    String root = openElementList.get(0);
+
+    if ("services".equals(root)) {
+      if (depth == 2 && "service".equals(qName)) {
+        listener.serviceDefinition(attributes.getValue("name"), attributes.getValue("location"),
+            attributes.getValue("invoke"));
+      }
+    }
+    else if ("site-conf".equals(root)) {
+      if (depth == 3 && isOpen(1, "request-map")) {
+        if ("event".equals(qName) && "service".equals(attributes.getValue("type"))) {
+          listener.serviceCallFromController(attributes.getValue("invoke"));
+        }
+        else if ("response".equals(qName) && "view".equals(attributes.getValue("type"))) {
+          listener.viewReferenceFromController(attributes.getValue("value"));
+        }
+      }
+      else if (depth == 2 && "view-map".equals(qName)) {
+        listener.viewDefinitionFromController(attributes.getValue("name"), attributes.getValue("page"), getLine(),
+            getColumn());
+      }
+    }
+    else if ("screens".equals(root)) {
+      if (depth == 2 && "screen".equals(qName)) {
+        listener.screenDefinition(attributes.getValue("name"), getLine(), getColumn());
+      }
+      else if (depth >= 4 && "html-template".equals(qName) && isOpen(1, "screen") && isOpen(2, "section")) {
+        listener.ftlReferenceFromScreen(attributes.getValue("location"));
+      }
+      else if (depth == 5 && "script".equals(qName) && isOpen(1, "screen") && isOpen(2, "section")
+          && isOpen(3, "actions")) {
+        listener.bshOrGroovyReferenceFromScreen(attributes.getValue("location"));
+      }
+      else if (depth == 4 && "decorator-screen".equals(qName) && isOpen(1, "screen") && isOpen(2, "widgets")) {
+        listener.screenReferenceFromScreen(attributes.getValue("name"), attributes.getValue("location"));
+      }
+    }
+    else if ("service-eca".equals(root)) {
+      if (depth == 3 && "action".equals(qName) && isOpen(1, "eca")) {
+        listener.serviceCallFromEca(attributes.getValue("service"));
+      }
+    }
+  }
+
+  @SuppressWarnings("javadoc")
+  public static boolean isOfbizRootElement(String qName) {
+    return OFBIZ_ROOT_ELEMENTS.contains(qName);
+  }
+
+  private int getLine() {
+    return locator == null ? -1 : locator.getLineNumber();
+  }
+
+  private int getColumn() {
+    return locator == null ? -1 : locator.getColumnNumber();
+  }
+
+  private boolean isOpen(int depth, String qName) {
+    return qName.equals(openElementList.get(depth));
+  }
+
+  @Override
+  public void endElement(String uri, String localName, String qName) {
+    openElementList.remove(openElementList.size() - 1);
+  }
+}
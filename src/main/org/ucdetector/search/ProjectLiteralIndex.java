@@ -0,0 +1,66 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+
+/** StringLiteralIndex of the files of a project or folder */
+public class ProjectLiteralIndex extends StringLiteralIndex {
+
+  private final IResource indexedRoot;
+  private int skippedFileCount;
+
+  /**
+   * @param indexedRoot the project or folder the indexed files belong to
+   * @param literalsToIndex only these literals are kept in the index (without the quotes)
+   */
+  public ProjectLiteralIndex(IResource indexedRoot, Set<String> literalsToIndex) {
+    super(literalsToIndex);
+    this.indexedRoot = indexedRoot;
+  }
+
+  public IResource getIndexedRoot() {
+    return indexedRoot;
+  }
+
+  public int getSkippedFileCount() {
+    return skippedFileCount;
+  }
+
+  /** xml files that can not call services are skipped, see OfbizDefinitionsExtractor.getLiteralSkipReason */
+  @SuppressWarnings("javadoc")
+  public void indexResource(IResource resource) throws CoreException {
+    if ("xml".equals(resource.getFileExtension()) && isSkipped((IFile) resource)) {
+      skippedFileCount++;
+      return;
+    }
+    String content = FileContents.read(resource);
+    if (content != null) {
+      indexContent(resource.getFullPath().toString(), content);
+    }
+  }
+
+  private static boolean isSkipped(IFile file) throws CoreException {
+    InputStream in = new BufferedInputStream(file.getContents(true));
+    try {
+      return OfbizDefinitionsExtractor.getLiteralSkipReason(in) != null;
+    }
+    catch (IOException e) {
+      return false;//FileContents.read reports it
+    }
+    finally {
+      FileContents.close(in);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.util.BitSet;
+
+/**
+ * Directed graph of int node ids (0..getNodeCount()-1), kept in int arrays instead of objects per node/edge.
+ * The edges are collected first, then turned into adjacency arrays (targets of node i are
+ * edgeTargets[edgeStart[i]..edgeStart[i + 1]-1]), so the reachability is one linear pass.
+ */
+public class ReferenceGraph {
+
+  private int nodeCount;
+  private int edgeCount;
+  private int[] edgeFrom = new int[64];
+  private int[] edgeTo = new int[64];
+  private final BitSet rootSet = new BitSet();
+
+  //built by build() after the last change
+  private int[] edgeStart;
+  private int[] edgeTargets;
+  private int[] referrerCount;
+
+  /** @return id of the new node */
+  public int addNode() {
+    edgeStart = null;
+    return nodeCount++;
+  }
+
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  public int getEdgeCount() {
+    return edgeCount;
+  }
+
+  /** from uses (references) to */
+  @SuppressWarnings("javadoc")
+  public void addEdge(int from, int to) {
+    checkNode(from);
+    checkNode(to);
+    if (edgeCount == edgeFrom.length) {
+      edgeFrom = grow(edgeFrom);
+      edgeTo = grow(edgeTo);
+    }
+    edgeFrom[edgeCount] = from;
+    edgeTo[edgeCount] = to;
+    edgeCount++;
+    edgeStart = null;
+  }
+
+  /** Entry point: used from outside the graph (request-map, seca, java code etc.) */
+  @SuppressWarnings("javadoc")
+  public void addRoot(int node) {
+    checkNode(node);
+    rootSet.set(node);
+  }
+
+  public boolean isRoot(int node) {
+    return rootSet.get(node);
+  }
+
+  /** @return number of edges pointing to the node (also from not reachable nodes) */
+  @SuppressWarnings("javadoc")
+  public int getReferrerCount(int node) {
+    build();
+    return referrerCount[node];
+  }
+
+  /**
+   * Breadth first walk from the roots, every node and edge is visited at most once
+   * @return nodes reachable from a root (including the roots)
+   */
+  @SuppressWarnings("javadoc")
+  public BitSet findReachable() {
+    build();
+    BitSet reachable = new BitSet(nodeCount);
+    int[] queue = new int[nodeCount];
+    int queueEnd = 0;
+    for (int node = rootSet.nextSetBit(0); node >= 0; node = rootSet.nextSetBit(node + 1)) {
+      reachable.set(node);
+      queue[queueEnd++] = node;
+    }
+    for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+      int node = queue[queueStart];
+      for (int i = edgeStart[node]; i < edgeStart[node + 1]; i++) {
+        int target = edgeTargets[i];
+        if (!reachable.get(target)) {
+          reachable.set(target);
+          queue[queueEnd++] = target;
+        }
+      }
+    }
+    return reachable;
+  }
+
+  /** Counting sort of the edges by their source */
+  private void build() {
+    if (edgeStart != null) {
+      return;
+    }
+    int[] start = new int[nodeCount + 1];
+    int[] referrers = new int[nodeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      start[edgeFrom[i] + 1]++;
+      referrers[edgeTo[i]]++;
+    }
+    for (int node = 0; node < nodeCount; node++) {
+      start[node + 1] += start[node];
+    }
+    int[] targets = new int[edgeCount];
+    int[] next = new int[nodeCount];
+    System.arraycopy(start, 0, next, 0, nodeCount);
+    for (int i = 0; i < edgeCount; i++) {
+      targets[next[edgeFrom[i]]++] = edgeTo[i];
+    }
+    edgeTargets = targets;
+    referrerCount = referrers;
+    edgeStart = start;
+  }
+
+  private void checkNode(int node) {
+    if (node < 0 || node >= nodeCount) {
+      throw new IllegalArgumentException("Unknown node: " + node);
+    }
+  }
+
+  private static int[] grow(int[] array) {
+    int[] newArray = new int[array.length * 2];
+    System.arraycopy(array, 0, newArray, 0, array.length);
+    return newArray;
+  }
+}
@@ -0,0 +1,22 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+/** Just a container for a found text, see SimpleSearch */
+public final class SearchResult {
+  public String path;
+  public int offset;
+  public int length;
+  public int lineNumber;
+
+  SearchResult(String path, int offset, int length, int lineNumber) {
+    this.path = path;
+    this.offset = offset;
+    this.length = length;
+    this.lineNumber = lineNumber;
+  }
+}
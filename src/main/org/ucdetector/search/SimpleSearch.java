@@ -7,141 +7,258 @@
 package org.ucdetector.search;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
-import org.eclipse.search.core.text.TextSearchEngine;
-import org.eclipse.search.core.text.TextSearchMatchAccess;
-import org.eclipse.search.core.text.TextSearchRequestor;
-import org.eclipse.search.ui.text.FileTextSearchScope;
-import org.ucdetector.Log;
 import org.ucdetector.UCDetectorPlugin;
+import org.ucdetector.util.OfbizStats;
 
-/** Helper class that simulate Eclipse's "File search" dialogue. */
+/**
+ * Helper class that simulate Eclipse's "File search" dialogue.
+ *
+ * Ascii patterns are searched in the bytes of the files (see FileBytes), the other patterns and files in encodings
+ * like UTF-16 in the decoded text. The contents are read through the FileContentCache, so a file searched again
+ * in the same run is not read again. The saved files are searched, not the unsaved changes of open editors.
+ *
+ * The workspace searches check the monitor before each file, a cancel throws OperationCanceledException, so
+ * the occurrences of a canceled search are never taken for a complete result.
+ */
 public class SimpleSearch {
 
-  public static final class SearchResult {
-    public String path;
-    public int offset;
-    public int length;
-    public int lineNumber;
-
-    SearchResult(String path, int offset, int length, int lineNumber) {
-      this.path = path;
-      this.offset = offset;
-      this.length = length;
-      this.lineNumber = lineNumber;
-    }
-  }
+  private static final FileContentCache contentCache = FileContentCache.getInstance();
 
   public static List<SearchResult> searchTextSimpleInResource(String stringToSearch, IResource resource)
       throws CoreException {
-
-    FileTextSearchScope scope = FileTextSearchScope.newSearchScope(new IResource[] { resource }, new String[] { "*" },
-        false);
     Pattern searchPattern = Pattern.compile(Pattern.quote(stringToSearch));
-    return search(scope, searchPattern);
-
+    return countSearch(searchFile(searchPattern, FileBytes.isAscii(stringToSearch), resource));
   }
 
-  public static List<SearchResult> searchTextSimple(String stringToSearch, String[] fileNamePattern)
-      throws CoreException {
-
-    FileTextSearchScope scope = FileTextSearchScope.newWorkspaceScope(fileNamePattern, false);
+  public static List<SearchResult> searchTextSimple(String stringToSearch, String[] fileNamePattern,
+      IProgressMonitor monitor) throws CoreException {
     Pattern searchPattern = Pattern.compile(Pattern.quote(stringToSearch));
-    return search(scope, searchPattern);
-
+    return countSearch(searchWorkspace(searchPattern, FileBytes.isAscii(stringToSearch), fileNamePattern, monitor));
   }
 
-  public static List<SearchResult> searchTextRegularExpressionInResource(String stringToSearch, IResource resource)
-      throws CoreException {
-    FileTextSearchScope scope = FileTextSearchScope.newSearchScope(new IResource[] { resource }, new String[] { "*" },
-        false);
-    Pattern searchPattern = Pattern.compile(stringToSearch);
-    return search(scope, searchPattern);
-  }
+  /**
+   * Searches all the strings with one pass over the workspace (see MultiPatternMatcher) instead of one search per
+   * string. Like the other searches the occurrences of the same string do not overlap.
+   * @param excludedRoots these resources (and everything below them) are not searched e.g. because they are indexed
+   * @param monitor checked for cancel before each file, may be null
+   * @return occurrences by searched string, strings without occurrence are not in the map
+   */
+  @SuppressWarnings("javadoc")
+  public static Map<String, List<SearchResult>> searchTextSimple(Collection<String> stringsToSearch,
+      String[] fileNamePattern, IResource[] excludedRoots, IProgressMonitor monitor) throws CoreException {
 
-  public static List<SearchResult> searchTextRegularExpression(String stringToSearch, String[] fileNamePattern)
-      throws CoreException {
-    FileTextSearchScope scope = FileTextSearchScope.newWorkspaceScope(fileNamePattern, false);
-    Pattern searchPattern = Pattern.compile(stringToSearch);
-    return search(scope, searchPattern);
+    MultiPatternMatcher matcher = new MultiPatternMatcher(stringsToSearch);
+    MultiMatchCollector collector = new MultiMatchCollector(matcher);
+    if (matcher.getPatternCount() > 0) {
+      MatchingFileVisitor visitor = new MatchingFileVisitor(fileNamePattern, excludedRoots);
+      try {
+        ResourcesPlugin.getWorkspace().getRoot().accept(visitor, IResource.NONE);
+        boolean isAsciiPatterns = true;
+        for (String stringToSearch : stringsToSearch) {
+          isAsciiPatterns &= FileBytes.isAscii(stringToSearch);
+        }
+        OfbizStats.count(OfbizStats.TEXT_SEARCHES, 1);
+        for (IResource file : visitor.matchingFiles) {
+          checkForCancel(monitor);
+          FileBytes fileBytes = isAsciiPatterns ? contentCache.getBytes(file) : null;
+          if (fileBytes != null) {
+            collector.collect(file.getFullPath().toString(), fileBytes, fileBytes);
+            continue;
+          }
+          String content = contentCache.getText(file);
+          if (content != null) {
+            collector.collect(file.getFullPath().toString(), content, null);
+          }
+        }
+      }
+      catch (OutOfMemoryError e) {
+        UCDetectorPlugin.handleOutOfMemoryError(e);
+      }
+    }
+    return collector.resultMap;
   }
 
-  private static List<SearchResult> search(FileTextSearchScope scope, Pattern searchPattern) throws CoreException {
-    MatchedLocationRequestor requestor = new MatchedLocationRequestor();
-    try {
-      TextSearchEngine.createDefault().search(scope, requestor, searchPattern, null);
+  /** Collects not derived files with matching names, skipping the excluded resources */
+  private static final class MatchingFileVisitor implements IResourceProxyVisitor {
+    final List<IResource> matchingFiles = new ArrayList<IResource>();
+    private final String[] fileNamePattern;
+    private final List<IResource> excludedRootList;
+
+    MatchingFileVisitor(String[] fileNamePattern, IResource[] excludedRoots) {
+      this.fileNamePattern = fileNamePattern;
+      this.excludedRootList = excludedRoots == null ? new ArrayList<IResource>() : Arrays.asList(excludedRoots);
     }
-    catch (OperationCanceledException e) {
-      Log.info("Text search canceled");
+
+    public boolean visit(IResourceProxy proxy) throws CoreException {
+      if (proxy.isDerived()) {
+        return false;
+      }
+      if (proxy.getType() != IResource.FILE) {
+        return proxy.getType() == IResource.ROOT || !excludedRootList.contains(proxy.requestResource());
+      }
+      if (isMatchingFileName(proxy.getName(), fileNamePattern)) {
+        matchingFiles.add(proxy.requestResource());
+      }
+      return false;
     }
-    catch (OutOfMemoryError e) {
-      UCDetectorPlugin.handleOutOfMemoryError(e);
+
+    /** Only patterns like "*" and "*.xml" are supported */
+    private static boolean isMatchingFileName(String fileName, String[] fileNamePattern) {
+      for (String pattern : fileNamePattern) {
+        if (pattern.startsWith("*") ? fileName.endsWith(pattern.substring(1)) : fileName.equals(pattern)) {
+          return true;
+        }
+      }
+      return false;
     }
-    return requestor.matchedFiles;
   }
 
-  private static final class MatchedLocationRequestor extends TextSearchRequestor {
-    final List<SearchResult> matchedFiles = new ArrayList<SearchResult>();
-
-    @Override
-    public boolean acceptPatternMatch(TextSearchMatchAccess matchAccess) throws CoreException {
-      int offset = matchAccess.getMatchOffset();
-      int length = matchAccess.getMatchLength();
-      int lineNumber = getLineNumber(offset, matchAccess);
-      String path = matchAccess.getFile().getFullPath().toString();
+  /** Turns the matches of a MultiPatternMatcher into SearchResults */
+  private static final class MultiMatchCollector implements MultiPatternMatcher.MatchListener {
+    final Map<String, List<SearchResult>> resultMap = new HashMap<String, List<SearchResult>>();
+    private final MultiPatternMatcher matcher;
+    private String path;
+    private CharSequence content;
+    /** same as content if the bytes are searched, null if the content is decoded */
+    private FileBytes fileBytes;
+    /** built at the first match of a decoded file */
+    private LineOffsetTable lineOffsetTable;
 
-      return matchedFiles.add(new SearchResult(path, offset, length, lineNumber));
+    MultiMatchCollector(MultiPatternMatcher matcher) {
+      this.matcher = matcher;
     }
 
-    private static int getLineNumber(int offset, TextSearchMatchAccess matchAccess) {
-      int lineNumber = 1;
-      int i = 0;
+    void collect(String pathToFile, CharSequence fileContent, FileBytes contentBytes) {
+      this.path = pathToFile;
+      this.content = fileContent;
+      this.fileBytes = contentBytes;
+      this.lineOffsetTable = null;
+      matcher.match(fileContent, this);
+    }
 
-      int contentLength = matchAccess.getFileContentLength();
-      while (i < Math.min(offset, contentLength)) {
-        if (matchAccess.getFileContentChar(i++) == '\n') {
-          lineNumber++;
+    public void patternMatched(int patternIndex, int matchIndex) {
+      String pattern = matcher.getPattern(patternIndex);
+      int offset = matchIndex;
+      int length = pattern.length();
+      if (fileBytes != null) {
+        offset = fileBytes.getCharOffset(matchIndex);
+        length = fileBytes.getCharOffset(matchIndex + pattern.length()) - offset;
+      }
+      List<SearchResult> resultList = resultMap.get(pattern);
+      if (resultList == null) {
+        resultList = new ArrayList<SearchResult>();
+        resultMap.put(pattern, resultList);
+      }
+      else {
+        SearchResult previous = resultList.get(resultList.size() - 1);
+        if (previous.path.equals(path) && previous.offset + previous.length > offset) {
+          return;//overlapping with the previous occurrence of the same string
+        }
+      }
+      int lineNumber;
+      if (fileBytes != null) {
+        lineNumber = fileBytes.getLineNumber(matchIndex);
+      }
+      else {
+        if (lineOffsetTable == null) {
+          lineOffsetTable = LineOffsetTable.create(content);
         }
+        lineNumber = lineOffsetTable.getLineNumber(offset);
       }
-      return lineNumber;
+      resultList.add(new SearchResult(path, offset, length, lineNumber));
+      OfbizStats.count(OfbizStats.MATCHES, 1);
     }
   }
 
-  public static List<String> searchRegularExpressionReturnWithSelection(String stringToSearch, IResource resource)
+  public static List<SearchResult> searchTextRegularExpressionInResource(String stringToSearch, IResource resource)
       throws CoreException {
+    Pattern searchPattern = Pattern.compile(stringToSearch);
+    return countSearch(searchFile(searchPattern, FileBytes.isAscii(stringToSearch), resource));
+  }
 
-    FileTextSearchScope scope = FileTextSearchScope.newSearchScope(new IResource[] { resource }, new String[] { "*" },
-        false);
+  public static List<SearchResult> searchTextRegularExpression(String stringToSearch, String[] fileNamePattern,
+      IProgressMonitor monitor) throws CoreException {
     Pattern searchPattern = Pattern.compile(stringToSearch);
-    MatchedSelectionRequestor requestor = new MatchedSelectionRequestor();
-    try {
-      TextSearchEngine.createDefault().search(scope, requestor, searchPattern, null);
+    return countSearch(searchWorkspace(searchPattern, FileBytes.isAscii(stringToSearch), fileNamePattern, monitor));
+  }
+
+  private static void checkForCancel(IProgressMonitor monitor) {
+    if (monitor != null && monitor.isCanceled()) {
+      throw new OperationCanceledException();
     }
-    catch (OperationCanceledException e) {
-      Log.info("Text search canceled");
+  }
+
+  /** Counts the search and its matches, see OfbizStats */
+  private static <T> List<T> countSearch(List<T> resultList) {
+    OfbizStats.count(OfbizStats.TEXT_SEARCHES, 1);
+    OfbizStats.count(OfbizStats.MATCHES, resultList.size());
+    return resultList;
+  }
+
+  private static List<SearchResult> searchWorkspace(Pattern searchPattern, boolean isAsciiPattern,
+      String[] fileNamePattern, IProgressMonitor monitor) throws CoreException {
+    List<SearchResult> resultList = new ArrayList<SearchResult>();
+    MatchingFileVisitor visitor = new MatchingFileVisitor(fileNamePattern, null);
+    try {
+      ResourcesPlugin.getWorkspace().getRoot().accept(visitor, IResource.NONE);
+      for (IResource file : visitor.matchingFiles) {
+        checkForCancel(monitor);
+        resultList.addAll(searchFile(searchPattern, isAsciiPattern, file));
+      }
     }
     catch (OutOfMemoryError e) {
       UCDetectorPlugin.handleOutOfMemoryError(e);
     }
-    return requestor.matchedSelection;
-
+    return resultList;
   }
 
-  private static final class MatchedSelectionRequestor extends TextSearchRequestor {
-    final List<String> matchedSelection = new ArrayList<String>();
-
-    @Override
-    public boolean acceptPatternMatch(TextSearchMatchAccess matchAccess) throws CoreException {
-      int offset = matchAccess.getMatchOffset();
-      int length = matchAccess.getMatchLength();
-
-      return matchedSelection.add(matchAccess.getFileContent(offset, length));
+  /**
+   * An ascii pattern is matched on the bytes if possible, only the offsets of the matches are converted
+   * @return the matches, none if the file can not be read
+   */
+  @SuppressWarnings("javadoc")
+  private static List<SearchResult> searchFile(Pattern searchPattern, boolean isAsciiPattern, IResource resource)
+      throws CoreException {
+    String path = resource.getFullPath().toString();
+    List<SearchResult> resultList = new ArrayList<SearchResult>();
+    FileBytes fileBytes = isAsciiPattern ? contentCache.getBytes(resource) : null;
+    if (fileBytes != null) {
+      Matcher matcher = searchPattern.matcher(fileBytes);
+      while (matcher.find()) {
+        int offset = fileBytes.getCharOffset(matcher.start());
+        int lineNumber = fileBytes.getLineNumber(matcher.start());
+        resultList.add(new SearchResult(path, offset, fileBytes.getCharOffset(matcher.end()) - offset, lineNumber));
+      }
+      return resultList;
+    }
+    String content = contentCache.getText(resource);
+    if (content == null) {
+      return resultList;
     }
+    Matcher matcher = searchPattern.matcher(content);
+    LineOffsetTable lineOffsetTable = null;
+    while (matcher.find()) {
+      if (lineOffsetTable == null) {
+        lineOffsetTable = LineOffsetTable.create(content);
+      }
+      int lineNumber = lineOffsetTable.getLineNumber(matcher.start());
+      resultList.add(new SearchResult(path, matcher.start(), matcher.end() - matcher.start(), lineNumber));
+    }
+    return resultList;
   }
-
 }
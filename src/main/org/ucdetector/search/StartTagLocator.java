@@ -0,0 +1,72 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import org.ucdetector.util.ItemLocation;
+
+/**
+ * Turns the position reported by the SAX Locator (after the '>' of the start tag) into the offset of the '<'. The
+ * files are parsed as streams, so this is done when the file is read again for an item that gets a marker.
+ */
+public class StartTagLocator {
+  private final CharSequence content;
+  private LineOffsetTable lineOffsetTable;
+
+  /** @param content text of the file without byte order mark, like the markers count the offsets */
+  @SuppressWarnings("javadoc")
+  public StartTagLocator(CharSequence content) {
+    this.content = content;
+  }
+
+  /**
+   * @param location with the Locator position, see ItemLocation.endLine
+   * @return the location with offset, length and line number of the start tag, without them if it is not found
+   */
+  @SuppressWarnings("javadoc")
+  public ItemLocation locate(ItemLocation location) {
+    int offset = getStartOffset(location.endLine, location.endColumn);
+    if (offset < 0) {
+      return new ItemLocation(location.path);
+    }
+    return new ItemLocation(location.path, offset, getLength(offset, location.endLine, location.endColumn),
+        getLineNumber(offset));
+  }
+
+  /** @return offset of the '<' of the start tag or -1 if the position does not point after a start tag */
+  public int getStartOffset(int line, int column) {
+    int end = getEndOffset(line, column);
+    if (end <= 0 || end > content.length() || content.charAt(end - 1) != '>') {
+      return -1;
+    }
+    //'<' can not be in an attribute value
+    int start = end - 1;
+    while (start >= 0 && content.charAt(start) != '<') {
+      start--;
+    }
+    return start;
+  }
+
+  public int getLength(int startOffset, int line, int column) {
+    return getEndOffset(line, column) - startOffset;
+  }
+
+  public int getLineNumber(int offset) {
+    return getLineOffsetTable().getLineNumber(offset);
+  }
+
+  private int getEndOffset(int line, int column) {
+    int lineStart = getLineOffsetTable().getLineStartOffset(line);
+    return lineStart < 0 || column < 1 ? -1 : lineStart + column - 1;
+  }
+
+  private LineOffsetTable getLineOffsetTable() {
+    if (lineOffsetTable == null) {
+      lineOffsetTable = LineOffsetTable.create(content);
+    }
+    return lineOffsetTable;
+  }
+}
@@ -0,0 +1,99 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index of double quoted string literals, e.g. "createOrder".
+ *
+ * Every file is read once and every text between two consecutive quotes is looked up in the set of
+ * interesting literals (e.g. the service names), so the result is the same as searching for "literal"
+ * in each file, but the files are not read again for each literal.
+ *
+ * Does not use eclipse, see ProjectLiteralIndex for the files of a project.
+ */
+public class StringLiteralIndex {
+
+  private final Set<String> literalsToIndex;
+  private final int maxLiteralLength;
+  private final Map<String, List<SearchResult>> occurrenceMap = new HashMap<String, List<SearchResult>>();
+
+  /**
+   * @param literalsToIndex only these literals are kept in the index (without the quotes)
+   */
+  public StringLiteralIndex(Set<String> literalsToIndex) {
+    this.literalsToIndex = literalsToIndex;
+    int max = 0;
+    for (String literal : literalsToIndex) {
+      max = Math.max(max, literal.length());
+    }
+    this.maxLiteralLength = max;
+  }
+
+  /** @param path is stored in the SearchResults */
+  @SuppressWarnings("javadoc")
+  public void indexContent(String path, String content) {
+    int lineNumber = 1;
+    int quoteLineNumber = 1;
+    int quoteOffset = -1;
+
+    for (int i = 0; i < content.length(); i++) {
+      char c = content.charAt(i);
+      if (c == '\n') {
+        lineNumber++;
+      }
+      else if (c == '"') {
+        if (quoteOffset >= 0 && i - quoteOffset > 1 && i - quoteOffset - 1 <= maxLiteralLength) {
+          String literal = content.substring(quoteOffset + 1, i);
+          if (literalsToIndex.contains(literal) && !isOverlapping(literal, path, quoteOffset)) {
+            addOccurrence(literal, new SearchResult(path, quoteOffset, i - quoteOffset + 1, quoteLineNumber));
+          }
+        }
+        //closing quote of a literal is the opening quote of the next candidate (like a text search would see it)
+        quoteOffset = i;
+        quoteLineNumber = lineNumber;
+      }
+    }
+  }
+
+  /** "a"a" contains "a" only once for a text search, the closing quote can not start the next occurrence */
+  private boolean isOverlapping(String literal, String path, int quoteOffset) {
+    List<SearchResult> occurrenceList = occurrenceMap.get(literal);
+    if (occurrenceList == null) {
+      return false;
+    }
+    SearchResult previous = occurrenceList.get(occurrenceList.size() - 1);
+    return previous.path.equals(path) && previous.offset + previous.length > quoteOffset;
+  }
+
+  private void addOccurrence(String literal, SearchResult occurrence) {
+    List<SearchResult> occurrenceList = occurrenceMap.get(literal);
+    if (occurrenceList == null) {
+      occurrenceList = new ArrayList<SearchResult>(1);
+      occurrenceMap.put(literal, occurrenceList);
+    }
+    occurrenceList.add(occurrence);
+  }
+
+  /**
+   * @return every place where "literal" was found (with the quotes), empty list if it was not found
+   */
+  @SuppressWarnings("javadoc")
+  public List<SearchResult> getOccurrences(String literal) {
+    List<SearchResult> occurrenceList = occurrenceMap.get(literal);
+    if (occurrenceList == null) {
+      return Collections.emptyList();
+    }
+    return occurrenceList;
+  }
+}
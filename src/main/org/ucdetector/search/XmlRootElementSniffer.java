@@ -0,0 +1,141 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.search;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Finds the name of the root element by reading only the beginning of an xml file, so files like
+ * build.xml or entity seed data do not need to be parsed to find out that they are not interesting.
+ */
+public class XmlRootElementSniffer {
+
+  /** Returned when the whole file was read and there is no element in it */
+  public static final String NO_ROOT_ELEMENT = "";
+
+  static final int SNIFF_SIZE = 4096;
+
+  private XmlRootElementSniffer() {
+    //only static methods
+  }
+
+  /**
+   * Reads at most SNIFF_SIZE bytes, and resets the stream to the beginning, so it can be parsed afterwards.
+   * @return name of the root element, NO_ROOT_ELEMENT or null if it can not be decided
+   * (e.g. very long comment at the beginning, or not ascii compatible encoding)
+   */
+  @SuppressWarnings("javadoc")
+  public static String readRootElementName(InputStream in) throws IOException {
+    byte[] buffer = new byte[SNIFF_SIZE];
+    in.mark(SNIFF_SIZE);
+    int length = 0;
+    int read = 0;
+    while (length < SNIFF_SIZE && (read = in.read(buffer, length, SNIFF_SIZE - length)) != -1) {
+      length += read;
+    }
+    in.reset();
+    return getRootElementName(buffer, length, read == -1);
+  }
+
+  static String getRootElementName(byte[] buffer, int length, boolean isWholeFile) {
+    int i = 0;
+    //utf-8 byte order mark
+    if (length >= 3 && (buffer[0] & 0xFF) == 0xEF && (buffer[1] & 0xFF) == 0xBB && (buffer[2] & 0xFF) == 0xBF) {
+      i = 3;
+    }
+    while (true) {
+      while (i < length && isWhitespace(buffer[i])) {
+        i++;
+      }
+      if (i >= length) {
+        return isWholeFile ? NO_ROOT_ELEMENT : null;
+      }
+      if (buffer[i] != '<' || i + 1 >= length) {
+        return null; //not ascii compatible, or text before the root: let the parser decide
+      }
+
+      if (startsWith(buffer, length, i, "<?")) {
+        i = indexOf(buffer, length, i + 2, "?>");
+      }
+      else if (startsWith(buffer, length, i, "<!--")) {
+        i = indexOf(buffer, length, i + 4, "-->");
+      }
+      else if (buffer[i + 1] == '!') {
+        i = endOfDoctype(buffer, length, i + 2);
+      }
+      else {
+        int nameStart = i + 1;
+        int nameEnd = nameStart;
+        while (nameEnd < length && !isWhitespace(buffer[nameEnd]) && buffer[nameEnd] != '>' && buffer[nameEnd] != '/') {
+          nameEnd++;
+        }
+        if (nameEnd == nameStart || (nameEnd == length && !isWholeFile)) {
+          return null;
+        }
+        return new String(buffer, nameStart, nameEnd - nameStart);//ascii only
+      }
+
+      if (i < 0) {
+        return isWholeFile ? NO_ROOT_ELEMENT : null;
+      }
+    }
+  }
+
+  /** <!DOCTYPE screens SYSTEM "x.dtd" [ <!ENTITY ...> ]> */
+  private static int endOfDoctype(byte[] buffer, int length, int start) {
+    int bracketDepth = 0;
+    byte quote = 0;
+    for (int i = start; i < length; i++) {
+      byte b = buffer[i];
+      if (quote != 0) {
+        if (b == quote) {
+          quote = 0;
+        }
+      }
+      else if (b == '"' || b == '\'') {
+        quote = b;
+      }
+      else if (b == '[') {
+        bracketDepth++;
+      }
+      else if (b == ']') {
+        bracketDepth--;
+      }
+      else if (b == '>' && bracketDepth <= 0) {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  /** @return index after the searched text or -1 */
+  private static int indexOf(byte[] buffer, int length, int start, String text) {
+    for (int i = start; i + text.length() <= length; i++) {
+      if (startsWith(buffer, length, i, text)) {
+        return i + text.length();
+      }
+    }
+    return -1;
+  }
+
+  private static boolean startsWith(byte[] buffer, int length, int start, String text) {
+    if (start + text.length() > length) {
+      return false;
+    }
+    for (int i = 0; i < text.length(); i++) {
+      if (buffer[start + i] != text.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+  }
+}
@@ -0,0 +1,85 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+/**
+ * Map from int to int without boxing (open addressing).
+ *
+ * Not thread safe.
+ */
+public class IntIntMap {
+
+  private int[] keys = new int[16];
+  private int[] values = new int[16];
+  private boolean[] used = new boolean[16];
+  private int size;
+
+  /** @return the previous value or missingValue if the key was not in the map */
+  @SuppressWarnings("javadoc")
+  public int put(int key, int value, int missingValue) {
+    int slot = findSlot(key);
+    if (used[slot]) {
+      int previous = values[slot];
+      values[slot] = value;
+      return previous;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    used[slot] = true;
+    size++;
+    if (size * 2 > keys.length) {
+      rehash();
+    }
+    return missingValue;
+  }
+
+  /** @return value of the key or missingValue if the key is not in the map */
+  @SuppressWarnings("javadoc")
+  public int get(int key, int missingValue) {
+    int slot = findSlot(key);
+    return used[slot] ? values[slot] : missingValue;
+  }
+
+  public boolean containsKey(int key) {
+    return used[findSlot(key)];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private int findSlot(int key) {
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (used[slot] && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void rehash() {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    boolean[] oldUsed = used;
+    keys = new int[oldKeys.length * 2];
+    values = new int[oldKeys.length * 2];
+    used = new boolean[oldKeys.length * 2];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        int slot = findSlot(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+        used[slot] = true;
+      }
+    }
+  }
+
+  private static int mix(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,84 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+/**
+ * Set of ints without boxing (open addressing). The elements keep the order they were added in, get(index)
+ * iterates them. Removing is not supported.
+ *
+ * Not thread safe.
+ */
+public class IntSet {
+
+  private int[] elements = new int[4];
+  /** index + 1 of the element or 0 for an empty slot */
+  private int[] slots = new int[8];
+  private int size;
+
+  /** @return false if the element was in the set already */
+  @SuppressWarnings("javadoc")
+  public boolean add(int element) {
+    int slot = findSlot(element);
+    if (slots[slot] != 0) {
+      return false;
+    }
+    if (size == elements.length) {
+      int[] newElements = new int[size * 2];
+      System.arraycopy(elements, 0, newElements, 0, size);
+      elements = newElements;
+    }
+    elements[size] = element;
+    slots[slot] = ++size;
+    if (size * 2 > slots.length) {
+      rehash();
+    }
+    return true;
+  }
+
+  public boolean contains(int element) {
+    return slots[findSlot(element)] != 0;
+  }
+
+  /** @return the element added as index-th */
+  @SuppressWarnings("javadoc")
+  public int get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+    return elements[index];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private int findSlot(int element) {
+    int mask = slots.length - 1;
+    int slot = mix(element) & mask;
+    while (slots[slot] != 0 && elements[slots[slot] - 1] != element) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void rehash() {
+    slots = new int[slots.length * 2];
+    int mask = slots.length - 1;
+    for (int index = 0; index < size; index++) {
+      int slot = mix(elements[index]) & mask;
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = index + 1;
+    }
+  }
+
+  private static int mix(int element) {
+    int h = element * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,45 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+/** Just a container for the position of an item, see NonJavaIMember.create for the marker */
+public class ItemLocation {
+
+  /** workspace path of the file, like /project/applications/accounting/widget/Screens.xml */
+  public final String path;
+  /** position of the definition in the file, lineNumber is 0 if it is not known */
+  public final int offset;
+  public final int length;
+  public final int lineNumber;
+  /**
+   * position after the '>' of the start tag like the SAX Locator reports it while parsing, endLine is 0 if it is not
+   * known. The offset is only searched for the items that get a marker, see StartTagLocator.locate
+   */
+  public final int endLine;
+  public final int endColumn;
+
+  public ItemLocation(String path) {
+    this(path, 0, 0, 0);
+  }
+
+  public ItemLocation(String path, int offset, int length, int lineNumber) {
+    this(path, offset, length, lineNumber, 0, 0);
+  }
+
+  public ItemLocation(String path, int endLine, int endColumn) {
+    this(path, 0, 0, 0, endLine, endColumn);
+  }
+
+  ItemLocation(String path, int offset, int length, int lineNumber, int endLine, int endColumn) {
+    this.path = path;
+    this.offset = offset;
+    this.length = length;
+    this.lineNumber = lineNumber;
+    this.endLine = endLine;
+    this.endColumn = endColumn;
+  }
+}
@@ -6,9 +6,12 @@
  */
 package org.ucdetector.util;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -49,10 +52,30 @@ public class NonJavaIMember implements IMember {
     this.lineNumber = lineNumber;
   }
 
+  /** @return member at a location of OfbizDefinitions */
+  @SuppressWarnings("javadoc")
+  public static NonJavaIMember create(ItemLocation location) {
+    return new NonJavaIMember(getFile(location.path), location.offset, location.length, location.lineNumber);
+  }
+
+  /** @return handle of the file with the workspace path, see ItemLocation.path */
+  @SuppressWarnings("javadoc")
+  public static IFile getFile(String path) {
+    return ResourcesPlugin.getWorkspace().getRoot().getFile(new Path(path));
+  }
+
   public int getLineNumber() {
     return lineNumber;
   }
 
+  public int getOffset() {
+    return offset;
+  }
+
+  public int getLength() {
+    return length;
+  }
+
   public IResource getResource() {
     return resource;
   }
@@ -88,7 +111,13 @@ public class NonJavaIMember implements IMember {
   }
 
   public String getPathToFile() {
-    return resource.getProjectRelativePath().toString().replaceFirst("applications", "").replaceFirst("hot-deploy", "");
+    return getPathToFile(resource.getProjectRelativePath().toString());
+  }
+
+  /** @return the path in the form used by the component:// references (e.g. /accounting/webapp/x.ftl) */
+  @SuppressWarnings("javadoc")
+  public static String getPathToFile(String projectRelativePath) {
+    return OfbizPaths.getPathToFile(projectRelativePath);
   }
 
   public String getFileName() {
@@ -0,0 +1,56 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The components of an ofbiz project, each is a folder containing an ofbiz-component.xml (like applications/order
+ * or framework/common). A component is named by its project relative folder, the names of ofbiz-component.xml are
+ * not needed to assign the files. Works on plain paths, like OfbizPaths.
+ */
+public class OfbizComponents {
+
+  public static final String COMPONENT_FILE_NAME = "ofbiz-component.xml";
+  /** The component of the files outside of every component, e.g. build files in the root of the project */
+  public static final String NO_COMPONENT = "";
+
+  /** project relative folders, the longest first so nested components win */
+  private final List<String> rootList = new ArrayList<String>();
+
+  /** @param projectRelativePath like "applications/order/ofbiz-component.xml" */
+  @SuppressWarnings("javadoc")
+  public void addComponentFile(String projectRelativePath) {
+    int slash = projectRelativePath.lastIndexOf('/');
+    String root = slash < 0 ? NO_COMPONENT : projectRelativePath.substring(0, slash);
+    if (rootList.contains(root)) {
+      return;
+    }
+    int i = 0;
+    while (i < rootList.size() && rootList.get(i).length() >= root.length()) {
+      i++;
+    }
+    rootList.add(i, root);
+  }
+
+  public int getComponentCount() {
+    return rootList.size();
+  }
+
+  /** @return the folder of the component containing the file (like "applications/order") or NO_COMPONENT */
+  @SuppressWarnings("javadoc")
+  public String getComponentRoot(String projectRelativePath) {
+    for (String root : rootList) {
+      if (root.length() == 0 || (projectRelativePath.startsWith(root) && projectRelativePath.length() > root.length()
+          && projectRelativePath.charAt(root.length()) == '/')) {
+        return root;
+      }
+    }
+    return NO_COMPONENT;
+  }
+}
@@ -0,0 +1,175 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Just a container for the services/screens etc. collected while scanning the project.
+ * The files can be scanned separately (see addAll), the result is the same as scanning them into one container
+ * as long as they are added in the same order.
+ *
+ * The files are kept as workspace paths (see ItemLocation), so it does not use eclipse and the headless analyzer
+ * collects into the same container.
+ *
+ * The names and paths are stored once in a SymbolTable, the sets and maps keep their ids (see SymbolSet and
+ * SymbolMap). Not thread safe, reading from more threads is fine once nothing is added.
+ */
+public class OfbizDefinitions {
+
+  //prefixes of the items in usageMap (and in OfbizReferenceGraph)
+  public static final String SERVICE_ITEM = "service:";
+  public static final String VIEW_ITEM = "view:";
+  public static final String SCREEN_ITEM = "screen:";
+  public static final String FTL_ITEM = "ftl:";
+  public static final String SCRIPT_ITEM = "script:";
+
+  private final SymbolTable symbols;
+
+  public final Map<String, String> serviceMethodToNameMap;
+  /** service name -> path of the file of the service definition */
+  public final Map<String, String> serviceNameAndFilePathMap;
+  public final Set<String> referencedServiceList;
+
+  /** getPathToFile -> path of the ftl */
+  public final Map<String, String> ftlMap;
+  public final Set<String> referencedFtlList;
+  /**
+   * ftl -> ftls included or imported by it (both as getPathToFile), or "*fileName" if the path is built at runtime
+   * and only the file name is known
+   */
+  public final Map<String, Set<String>> ftlIncludeMap;
+
+  /** getPathToFile -> path of the bsh/groovy file */
+  public final Map<String, String> bshOrGroovyMap;
+  public final Set<String> referencedBshOrGroovyList;
+
+  //controller-screen specific
+  public final Set<String> referencedViewList;
+  public final Map<String, ReferenceAndLocation> viewDefinitionMap;
+  public final Set<String> referencedScreenList;
+  /** screen name -> position of the screen element */
+  public final Map<String, ItemLocation> screenDefinitionMap;
+
+  /**
+   * Where the references of screens/ftls/bsh-groovy files come from, for the transitive check: item -> used items.
+   * Items are SCREEN_ITEM + screen name, FTL_ITEM/SCRIPT_ITEM + getPathToFile() or SERVICE_ITEM + service name (the
+   * literals of scripts, they are not always services). The references of views and ftl includes are in
+   * viewDefinitionMap and ftlIncludeMap.
+   */
+  public final Map<String, Set<String>> usageMap;
+
+  public OfbizDefinitions() {
+    this(new SymbolTable());
+  }
+
+  /** @param symbols shared with the other containers of the same run, see createSharingNames */
+  private OfbizDefinitions(SymbolTable symbols) {
+    this.symbols = symbols;
+    serviceMethodToNameMap = new SymbolMap<String>(symbols);
+    serviceNameAndFilePathMap = new SymbolMap<String>(symbols);
+    referencedServiceList = createNameSet();
+    ftlMap = new SymbolMap<String>(symbols);
+    referencedFtlList = createNameSet();
+    ftlIncludeMap = new SymbolMap<Set<String>>(symbols);
+    bshOrGroovyMap = new SymbolMap<String>(symbols);
+    referencedBshOrGroovyList = createNameSet();
+    referencedViewList = createNameSet();
+    viewDefinitionMap = new SymbolMap<ReferenceAndLocation>(symbols);
+    referencedScreenList = createNameSet();
+    screenDefinitionMap = new SymbolMap<ItemLocation>(symbols);
+    usageMap = new SymbolMap<Set<String>>(symbols);
+  }
+
+  /**
+   * The names are stored once for all the containers of a scan, and a file's own SymbolTable can be dropped once
+   * its definitions are copied (see addAll) into a container created here. The containers have to be filled from
+   * one thread then.
+   * @return empty container sharing the SymbolTable of this one
+   */
+  @SuppressWarnings("javadoc")
+  public OfbizDefinitions createSharingNames() {
+    return new OfbizDefinitions(symbols);
+  }
+
+  /** Later definitions win, like they would when the files are scanned one after the other */
+  @SuppressWarnings("javadoc")
+  public void addAll(OfbizDefinitions other) {
+    serviceMethodToNameMap.putAll(other.serviceMethodToNameMap);
+    serviceNameAndFilePathMap.putAll(other.serviceNameAndFilePathMap);
+    referencedServiceList.addAll(other.referencedServiceList);
+
+    ftlMap.putAll(other.ftlMap);
+    referencedFtlList.addAll(other.referencedFtlList);
+    for (Map.Entry<String, Set<String>> entry : other.ftlIncludeMap.entrySet()) {
+      Set<String> includedSet = createNameSet();
+      includedSet.addAll(entry.getValue());
+      ftlIncludeMap.put(entry.getKey(), includedSet);
+    }
+
+    bshOrGroovyMap.putAll(other.bshOrGroovyMap);
+    referencedBshOrGroovyList.addAll(other.referencedBshOrGroovyList);
+
+    referencedViewList.addAll(other.referencedViewList);
+    viewDefinitionMap.putAll(other.viewDefinitionMap);
+    referencedScreenList.addAll(other.referencedScreenList);
+    screenDefinitionMap.putAll(other.screenDefinitionMap);
+    for (Map.Entry<String, Set<String>> entry : other.usageMap.entrySet()) {
+      addUsage(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /** @return the names of the used items of one kind, e.g. getUsedItemNames(SERVICE_ITEM) */
+  @SuppressWarnings("javadoc")
+  public Set<String> getUsedItemNames(String itemPrefix) {
+    Set<String> nameSet = new HashSet<String>();
+    for (Set<String> usedSet : usageMap.values()) {
+      for (String usedItem : usedSet) {
+        if (usedItem.startsWith(itemPrefix)) {
+          nameSet.add(usedItem.substring(itemPrefix.length()));
+        }
+      }
+    }
+    return nameSet;
+  }
+
+  /**
+   * A service name found as string literal in java code is a call like dispatcher.runSync("createOrder", ctx), so
+   * these services are referenced and need no text search later.
+   * @param javaLiteralSet the string literals of the java files (raw source, without the quotes)
+   * @return number of services that were not referenced before
+   */
+  @SuppressWarnings("javadoc")
+  public int addServicesCalledFromJava(Set<String> javaLiteralSet) {
+    int calledCount = 0;
+    for (String serviceName : serviceNameAndFilePathMap.keySet()) {
+      if (javaLiteralSet.contains(serviceName) && referencedServiceList.add(serviceName)) {
+        calledCount++;
+      }
+    }
+    return calledCount;
+  }
+
+  /** @return empty set for the values of ftlIncludeMap and usageMap, it shares the names with this container */
+  @SuppressWarnings("javadoc")
+  public Set<String> createNameSet() {
+    return new SymbolSet(symbols);
+  }
+
+  @SuppressWarnings("javadoc")
+  public void addUsage(String item, Collection<String> usedItems) {
+    Set<String> usedSet = usageMap.get(item);
+    if (usedSet == null) {
+      usedSet = createNameSet();
+      usageMap.put(item, usedSet);
+    }
+    usedSet.addAll(usedItems);
+  }
+}
@@ -0,0 +1,166 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceRuleFactory;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
+import org.eclipse.jdt.core.IJavaElement;
+
+/**
+ * Collects the markers of a search phase and writes them in one workspace operation (see flush), so the markers
+ * view and the builders get one resource delta instead of one for each marker. The old markers of the selected
+ * elements are deleted in the same operation as the first markers, so they stay until there are new ones.
+ *
+ * The markers are created by the MarkerFactory of UCDetector, so they are in the reports as well. Markers can be
+ * added from more threads at the same time.
+ */
+public class OfbizMarkerBuffer {
+
+  /** Just a container, the parameters of MarkerFactory.createReferenceMarker(Other) */
+  private static final class MarkerDescriptor {
+    final IJavaElement element;
+    final String message;
+    final int line;
+    final int found;
+    /** createReferenceMarkerOther */
+    final boolean isOther;
+
+    MarkerDescriptor(IJavaElement element, String message, int line, int found, boolean isOther) {
+      this.element = element;
+      this.message = message;
+      this.line = line;
+      this.found = found;
+      this.isOther = isOther;
+    }
+  }
+
+  private final MarkerFactory markerFactory;
+  private final List<IJavaElement> deleteList = new ArrayList<IJavaElement>();
+  private final List<MarkerDescriptor> markerList = new ArrayList<MarkerDescriptor>();
+
+  public OfbizMarkerBuffer(MarkerFactory markerFactory) {
+    this.markerFactory = markerFactory;
+  }
+
+  /** Same as MarkerFactory.deleteMarkers, at flush */
+  @SuppressWarnings("javadoc")
+  public synchronized void deleteMarkers(IJavaElement javaElement) {
+    deleteList.add(javaElement);
+  }
+
+  /** Same as MarkerFactory.createReferenceMarker, at flush */
+  @SuppressWarnings("javadoc")
+  public synchronized void createReferenceMarker(IJavaElement element, String message, int line, int found) {
+    markerList.add(new MarkerDescriptor(element, message, line, found, false));
+  }
+
+  /** Same as MarkerFactory.createReferenceMarkerOther, at flush */
+  @SuppressWarnings("javadoc")
+  public synchronized void createReferenceMarkerOther(IJavaElement element, String message, int line) {
+    markerList.add(new MarkerDescriptor(element, message, line, 0, true));
+  }
+
+  /** @return number of markers waiting for flush */
+  @SuppressWarnings("javadoc")
+  public synchronized int getMarkerCount() {
+    return markerList.size();
+  }
+
+  /** @return project relative paths of the files of the markers waiting for flush, one for each marker */
+  @SuppressWarnings("javadoc")
+  public synchronized List<String> getMarkerFilePaths() {
+    List<String> pathList = new ArrayList<String>();
+    for (MarkerDescriptor marker : markerList) {
+      IResource resource = marker.element.getResource();
+      if (resource != null) {
+        pathList.add(resource.getProjectRelativePath().toString());
+      }
+    }
+    return pathList;
+  }
+
+  /**
+   * Deletes the old markers and creates the collected ones in one IWorkspaceRunnable, the notifications are sent
+   * at the end of it. The rule contains only the resources of the markers.
+   */
+  @SuppressWarnings("javadoc")
+  public void flush(IProgressMonitor monitor) throws CoreException {
+    final List<IJavaElement> flushedDeleteList;
+    final List<MarkerDescriptor> flushedMarkerList;
+    synchronized (this) {
+      if (deleteList.isEmpty() && markerList.isEmpty()) {
+        return;
+      }
+      flushedDeleteList = new ArrayList<IJavaElement>(deleteList);
+      flushedMarkerList = new ArrayList<MarkerDescriptor>(markerList);
+      deleteList.clear();
+      markerList.clear();
+    }
+
+    IWorkspace workspace = ResourcesPlugin.getWorkspace();
+    IWorkspaceRunnable runnable = new IWorkspaceRunnable() {
+      public void run(IProgressMonitor runMonitor) throws CoreException {
+        for (IJavaElement javaElement : flushedDeleteList) {
+          MarkerFactory.deleteMarkers(javaElement);
+        }
+        for (MarkerDescriptor marker : flushedMarkerList) {
+          if (marker.isOther) {
+            markerFactory.createReferenceMarkerOther(marker.element, marker.message, marker.line);
+          }
+          else {
+            markerFactory.createReferenceMarker(marker.element, marker.message, marker.line, marker.found);
+          }
+        }
+      }
+    };
+    workspace.run(runnable, getMarkerRule(workspace, flushedDeleteList, flushedMarkerList), IWorkspace.AVOID_UPDATE,
+        monitor);
+  }
+
+  private static ISchedulingRule getMarkerRule(IWorkspace workspace, List<IJavaElement> deleteList,
+      List<MarkerDescriptor> markerList) {
+    Set<IResource> resourceSet = new LinkedHashSet<IResource>();
+    for (IJavaElement javaElement : deleteList) {
+      addResource(resourceSet, javaElement);
+    }
+    for (MarkerDescriptor marker : markerList) {
+      addResource(resourceSet, marker.element);
+    }
+    IResourceRuleFactory ruleFactory = workspace.getRuleFactory();
+    List<ISchedulingRule> ruleList = new ArrayList<ISchedulingRule>();
+    for (IResource resource : resourceSet) {
+      ISchedulingRule rule = ruleFactory.markerRule(resource);
+      if (rule != null) {
+        ruleList.add(rule);
+      }
+    }
+    if (ruleList.isEmpty()) {
+      return null;//markers need no rule in most eclipse versions
+    }
+    return MultiRule.combine(ruleList.toArray(new ISchedulingRule[ruleList.size()]));
+  }
+
+  /** The resource of a NonJavaIMember is the file, for java elements it is the file or folder containing them */
+  private static void addResource(Set<IResource> resourceSet, IJavaElement javaElement) {
+    IResource resource = javaElement.getResource();
+    if (resource != null) {
+      resourceSet.add(resource);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+/**
+ * Texts of the ofbiz markers. Does not use eclipse, so the headless analyzer reports the same texts.
+ */
+public class OfbizMessages {
+  public static final String UNUSED_FTL_MESSAGE = "[Ofbiz] This file is not referenced from screen definitions"
+      + " neither included from other files!";
+  public static final String UNUSED_BSH_OR_GROOVY_MESSAGE = "[Ofbiz] This file is not referenced from screen"
+      + " definitions!";
+  public static final String UNUSED_VIEW_MESSAGE = "[Ofbiz] This view is not referenced!";
+  public static final String VIEW_WITHOUT_SCREEN_MESSAGE = "[Ofbiz] The screen of this view does not exists!";
+  public static final String UNUSED_SCREEN_MESSAGE = "[Ofbiz] This screen is not referenced from anywhere!";
+
+  private OfbizMessages() {
+    //only static methods
+  }
+
+  public static String getUnusedServiceMessage(String serviceName) {
+    return "[Ofbiz] The service \"" + serviceName + "\" is not called from anywhere!";
+  }
+
+  /** @param kind "service", "screen" or "file", see OfbizUsageRules.getItemKind */
+  @SuppressWarnings("javadoc")
+  public static String getOnlyUsedByUnusedItemsMessage(String kind) {
+    return "[Ofbiz] This " + kind + " is only used by unused items!";
+  }
+}
@@ -0,0 +1,89 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import org.ucdetector.Log;
+
+/**
+ * Options of the ofbiz analysis. They can be set as system properties, e.g. in eclipse.ini after -vmargs:
+ * -Dorg.ucdetector.ofbiz.scanThreads=1
+ */
+public class OfbizOptions {
+
+  private static final String PREFIX = "org.ucdetector.ofbiz.";
+
+  private OfbizOptions() {
+    //only static methods
+  }
+
+  /** @return number of threads used to parse the files of the project, 1 means no parallel scan */
+  public static int getScanThreadCount() {
+    return getInt("scanThreads", Runtime.getRuntime().availableProcessors(), 1);
+  }
+
+  /**
+   * @return number of threads running the search phases that do not depend on each other, 1 means one phase after
+   * the other
+   */
+  @SuppressWarnings("javadoc")
+  public static int getSearchThreadCount() {
+    return getInt("searchThreads", Runtime.getRuntime().availableProcessors(), 1);
+  }
+
+  /** @return true if the definitions of not changed files are taken from the result of the previous run */
+  public static boolean isScanCacheEnabled() {
+    return getBoolean("scanCache", true);
+  }
+
+  /** @return true if the markers of screens, views and ftl/bsh/groovy files are updated when the files change */
+  public static boolean isLiveUpdateEnabled() {
+    return getBoolean("liveUpdate", true);
+  }
+
+  /**
+   * @return true if the large files are mapped into memory for the text searches (see FileBytes). On windows a
+   * mapped file can not be saved until the mapping is garbage collected.
+   */
+  @SuppressWarnings("javadoc")
+  public static boolean isFileMappingEnabled() {
+    return getBoolean("fileMapping", true);
+  }
+
+  /** @return size of the contents kept for the text searches (see FileContentCache), 0 means nothing is kept */
+  @SuppressWarnings("javadoc")
+  public static int getContentCacheMegabytes() {
+    return getInt("contentCacheMegabytes", 32, 0);
+  }
+
+  /**
+   * @return seconds after which the search stops at the next item, 0 means no limit. The markers of the items
+   * checked so far are kept, see OfbizStats.getIncompleteCoverage
+   */
+  @SuppressWarnings("javadoc")
+  public static int getTimeBudgetSeconds() {
+    return getInt("timeBudgetSeconds", 0, 0);
+  }
+
+  private static boolean getBoolean(String name, boolean defaultValue) {
+    String value = System.getProperty(PREFIX + name);
+    return value == null ? defaultValue : Boolean.valueOf(value.trim()).booleanValue();
+  }
+
+  private static int getInt(String name, int defaultValue, int minValue) {
+    String value = System.getProperty(PREFIX + name);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Math.max(minValue, Integer.parseInt(value.trim()));
+    }
+    catch (NumberFormatException e) {
+      Log.warn("Invalid value for " + PREFIX + name + ": " + value + " using " + defaultValue);
+      return defaultValue;
+    }
+  }
+}
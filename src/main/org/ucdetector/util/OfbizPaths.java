@@ -0,0 +1,120 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * How the paths found in the ofbiz files are turned into the names of the items (the keys in OfbizDefinitions).
+ *
+ * Works on plain strings and does not use any eclipse class, so the headless analyzer uses the same rules.
+ */
+public class OfbizPaths {
+
+  public static final String COMPONENT_PREFIX = "component://";
+
+  private OfbizPaths() {
+    //only static methods
+  }
+
+  /** @return the path in the form used by the component:// references (e.g. /accounting/webapp/x.ftl) */
+  @SuppressWarnings("javadoc")
+  public static String getPathToFile(String projectRelativePath) {
+    return StringUtil.replaceFirst(StringUtil.replaceFirst(projectRelativePath, "applications", ""), "hot-deploy", "");
+  }
+
+  /** @return "/accounting/webapp/x.ftl" for "component://accounting/webapp/x.ftl" (ftl and script locations) */
+  @SuppressWarnings("javadoc")
+  public static String getPathOfLocation(String location) {
+    return StringUtil.replaceFirst(location, COMPONENT_PREFIX, "/");
+  }
+
+  /** @return "accounting/widget/Screens.xml" for "component://accounting/widget/Screens.xml" (screen locations) */
+  @SuppressWarnings("javadoc")
+  public static String getScreenFileOfLocation(String location) {
+    return StringUtil.removeAll(location, COMPONENT_PREFIX);
+  }
+
+  /**
+   * @param fullPath workspace path of the screen file, like /project/applications/accounting/widget/Screens.xml
+   * @return "accounting/widget/Screens.xml#", the screen names of the file start with it
+   */
+  @SuppressWarnings("javadoc")
+  public static String getScreenNamePrefix(String fullPath, String projectName) {
+    String path = StringUtil.removeAll(fullPath, "/" + projectName + "/applications/");
+    return StringUtil.removeAll(path, "/" + projectName + "/hot-deploy/") + "#";
+  }
+
+  //--- ftl includes ---------------------------------------------
+
+  /**
+   * The targets of the include directives (see OfbizScriptScanner) are resolved like freemarker does it:
+   * component:// and absolute paths from the ofbiz home, other paths from the folder of the ftl.
+   * @param includingFolder project relative path of the folder of the including ftl
+   * @return the included file as getPathToFile, "*fileName" if only the file name is known or null
+   */
+  @SuppressWarnings("javadoc")
+  public static String resolveFtlInclude(String includingFolder, String target) {
+    String fileName = target.substring(target.lastIndexOf('/') + 1);
+    if (target.indexOf("${") >= 0) {
+      return fileName.length() == 0 || fileName.indexOf("${") >= 0 ? null : "*" + fileName;
+    }
+    if (target.startsWith(COMPONENT_PREFIX)) {
+      return normalizePath(target.substring(COMPONENT_PREFIX.length()), true);
+    }
+    String projectRelativePath;
+    if (target.startsWith("/")) {
+      projectRelativePath = target.substring(1);
+    }
+    else {
+      projectRelativePath = includingFolder + "/" + target;
+    }
+    String normalized = normalizePath(projectRelativePath, false);
+    return normalized == null ? null : getPathToFile(normalized.substring(1));
+  }
+
+  /** @return "/a/b" for "a/./c/../b" or null if it goes above the root */
+  private static String normalizePath(String path, boolean isComponentPath) {
+    List<String> segmentList = new ArrayList<String>();
+    for (String segment : path.split("/")) {
+      if ("..".equals(segment)) {
+        if (segmentList.isEmpty() || (isComponentPath && segmentList.size() == 1)) {
+          return null;
+        }
+        segmentList.remove(segmentList.size() - 1);
+      }
+      else if (segment.length() > 0 && !".".equals(segment)) {
+        segmentList.add(segment);
+      }
+    }
+    StringBuilder normalized = new StringBuilder();
+    for (String segment : segmentList) {
+      normalized.append('/').append(segment);
+    }
+    return normalized.toString();
+  }
+
+  /** @return every included path and "*fileName" of the includes that are known only by file name */
+  @SuppressWarnings("javadoc")
+  public static Set<String> getIncludedFtls(Map<String, Set<String>> ftlIncludeMap) {
+    Set<String> includedFtlSet = new HashSet<String>();
+    for (Set<String> includedSet : ftlIncludeMap.values()) {
+      includedFtlSet.addAll(includedSet);
+    }
+    return includedFtlSet;
+  }
+
+  /** @param includedFtlSet see getIncludedFtls */
+  @SuppressWarnings("javadoc")
+  public static boolean isIncluded(String pathToFile, String fileName, Set<String> includedFtlSet) {
+    return includedFtlSet.contains(pathToFile) || includedFtlSet.contains("*" + fileName);
+  }
+}
@@ -0,0 +1,214 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.ucdetector.search.FileBytes;
+
+/**
+ * Finds everything the ftl, bsh and groovy files reference in one pass over the content.
+ *
+ * The references are string literals (in double or single quotes, on one line):
+ * <ul>
+ * <li>"component://order/widget/OrderScreens.xml#OrderHeader", a screen rendered from code</li>
+ * <li>"component://order/webapp/x.ftl" and "component://order/webapp/x.groovy", templates and scripts</li>
+ * <li>the target of &lt;#include "..."&gt; and &lt;#import "..." as x&gt; in ftl files</li>
+ * <li>"createOrder" in bsh/groovy files, it can be a service call like dispatcher.runSync("createOrder", ctx)</li>
+ * </ul>
+ *
+ * The rules use only ascii characters, so the undecoded bytes of a file (see FileBytes) give the same references
+ * as its text. Screens and service names found before are not created again. Does not use eclipse, so the
+ * headless analyzer uses it as well.
+ */
+public class OfbizScriptScanner {
+
+  private static final int MAX_SERVICE_NAME_LENGTH = 200;
+
+  /** Just a container, the references found in one file */
+  public static final class ScriptReferences {
+    /** like "order/widget/OrderScreens.xml#OrderHeader", the keys of the screen definitions */
+    public final List<String> renderedScreenList = new ArrayList<String>();
+    /** getPathOfLocation of the ftl locations */
+    public final List<String> ftlLocationList = new ArrayList<String>();
+    /** getPathOfLocation of the bsh/groovy locations */
+    public final List<String> scriptLocationList = new ArrayList<String>();
+    /** targets of the include and import directives as they are written, see OfbizPaths.resolveFtlInclude */
+    public final List<String> includeTargetList = new ArrayList<String>();
+    /** literals that can be service names, the names that are not services are ignored later */
+    public final Set<String> serviceNameCandidateSet = new HashSet<String>();
+  }
+
+  private OfbizScriptScanner() {
+    //only static methods
+  }
+
+  /**
+   * @param content the text, or the bytes of the file as FileBytes (only the found literals are decoded)
+   * @param isFtl include directives are searched in ftl files, service names only in bsh/groovy files
+   * @return the references of the file
+   */
+  @SuppressWarnings("javadoc")
+  public static ScriptReferences scan(CharSequence content, boolean isFtl) {
+    ScriptReferences references = new ScriptReferences();
+    //rendered screens and service names found before, they are looked up without creating a String
+    SymbolTable foundSymbols = new SymbolTable();
+    //last quote that can open a literal, like a text search the closing quote of a rejected text opens the next one
+    int doubleQuoteOffset = -1;
+    int singleQuoteOffset = -1;
+    for (int i = 0; i < content.length(); i++) {
+      char c = content.charAt(i);
+      if (c == '\n' || c == '\r') {
+        doubleQuoteOffset = -1;
+        singleQuoteOffset = -1;
+      }
+      else if (c == '\\') {
+        i++;//escaped quote
+      }
+      else if (c == '"') {
+        boolean isLiteral = doubleQuoteOffset >= 0
+            && addLiteral(content, doubleQuoteOffset + 1, i, isFtl, foundSymbols, references);
+        doubleQuoteOffset = isLiteral ? -1 : i;
+      }
+      else if (c == '\'') {
+        boolean isLiteral = singleQuoteOffset >= 0
+            && addLiteral(content, singleQuoteOffset + 1, i, isFtl, foundSymbols, references);
+        singleQuoteOffset = isLiteral ? -1 : i;
+      }
+    }
+    return references;
+  }
+
+  /** @return true if the text between start and end is a reference */
+  private static boolean addLiteral(CharSequence content, int start, int end, boolean isFtl,
+      SymbolTable foundSymbols, ScriptReferences references) {
+    if (isFtl && isIncludeDirective(content, start - 1)) {
+      references.includeTargetList.add(getText(content, start, end));
+      return true;
+    }
+    if (startsWith(content, start, end, OfbizPaths.COMPONENT_PREFIX)) {
+      int uriStart = start + OfbizPaths.COMPONENT_PREFIX.length();
+      if (isRenderedScreen(content, uriStart, end)) {
+        if (foundSymbols.getId(content, uriStart, end) < 0) {
+          String screenFile = getText(content, uriStart, end);
+          foundSymbols.intern(screenFile);
+          references.renderedScreenList.add(screenFile);
+        }
+        return true;
+      }
+      String location = getText(content, start, end);
+      if (location.indexOf(' ') >= 0 || location.indexOf('#') >= 0) {
+        return false;
+      }
+      if (location.endsWith(".ftl")) {
+        references.ftlLocationList.add(OfbizPaths.getPathOfLocation(location));
+        return true;
+      }
+      if (location.endsWith(".bsh") || location.endsWith(".groovy")) {
+        references.scriptLocationList.add(OfbizPaths.getPathOfLocation(location));
+        return true;
+      }
+      return false;
+    }
+    if (!isFtl && isServiceName(content, start, end)) {
+      if (foundSymbols.getId(content, start, end) < 0) {
+        String serviceName = getText(content, start, end);
+        foundSymbols.intern(serviceName);
+        references.serviceNameCandidateSet.add(serviceName);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /** @return the text between start and end, the bytes of FileBytes are decoded with the charset of the file */
+  private static String getText(CharSequence content, int start, int end) {
+    if (content instanceof FileBytes) {
+      return ((FileBytes) content).decode(start, end);
+    }
+    return content.subSequence(start, end).toString();
+  }
+
+  /** @return true for the quote of [&lt;[]#(include|import)\s+" */
+  private static boolean isIncludeDirective(CharSequence content, int quoteOffset) {
+    int end = quoteOffset;
+    while (end > 0 && isWhitespace(content.charAt(end - 1))) {
+      end--;
+    }
+    if (end == quoteOffset) {
+      return false;
+    }
+    for (String directive : new String[] { "#include", "#import" }) {
+      int start = end - directive.length();
+      if (start > 0 && startsWith(content, start, end, directive)) {
+        char open = content.charAt(start - 1);
+        return open == '<' || open == '[';
+      }
+    }
+    return false;
+  }
+
+  /** @return true for [\w-/.]+#\w+ between start and end (the part after component://) */
+  private static boolean isRenderedScreen(CharSequence content, int start, int end) {
+    int i = start;
+    while (i < end && (isWordChar(content.charAt(i)) || content.charAt(i) == '-' || content.charAt(i) == '/'
+        || content.charAt(i) == '.')) {
+      i++;
+    }
+    if (i == start || i == end || content.charAt(i) != '#') {
+      return false;
+    }
+    int nameStart = ++i;
+    while (i < end && isWordChar(content.charAt(i))) {
+      i++;
+    }
+    return i > nameStart && i == end;
+  }
+
+  private static boolean isServiceName(CharSequence content, int start, int end) {
+    if (end <= start || end - start > MAX_SERVICE_NAME_LENGTH) {
+      return false;
+    }
+    //ascii only, so the bytes of a file and its text give the same names
+    char first = content.charAt(start);
+    if (!((first >= 'a' && first <= 'z') || (first >= 'A' && first <= 'Z') || first == '_')) {
+      return false;
+    }
+    for (int i = start + 1; i < end; i++) {
+      char c = content.charAt(i);
+      if (!isWordChar(c) && c != '.' && c != '-') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Character.isWhitespace of the ascii characters */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || (c >= 0x09 && c <= 0x0D) || (c >= 0x1C && c <= 0x1F);
+  }
+
+  /** \w of the regular expressions */
+  private static boolean isWordChar(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+  }
+
+  private static boolean startsWith(CharSequence content, int start, int end, String prefix) {
+    if (end - start < prefix.length()) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length(); i++) {
+      if (content.charAt(start + i) != prefix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
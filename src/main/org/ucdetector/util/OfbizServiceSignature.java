@@ -0,0 +1,27 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+/** The parameters of the java methods implementing a service: (DispatchContext, Map) */
+public class OfbizServiceSignature {
+
+  private OfbizServiceSignature() {
+    //only static methods
+  }
+
+  /**
+   * @param paramTypes type signatures like IMethod.getParameterTypes() returns them (e.g. "QDispatchContext;")
+   * @return true if the parameters are a DispatchContext and a map
+   */
+  @SuppressWarnings("javadoc")
+  public static boolean isServiceParameterTypes(String[] paramTypes) {
+    return paramTypes.length == 2
+        && paramTypes[0].equals("QDispatchContext;")
+        && (paramTypes[1].equals("QMap<QString;QObject;>;") || paramTypes[1].equals("QMap<QString;+QObject;>;")
+            || paramTypes[1].equals("QMap<QString;*>;") || paramTypes[1].equals("QMap;"));
+  }
+}
@@ -0,0 +1,310 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Wall time, cpu time and counters of the phases of one run (scan, index and the searches), and the scan time and
+ * the number of dead items of each component.
+ *
+ * The counters are static, so the code reading and searching the files does not need to know the run: they are
+ * added to the phase running on the thread (see startThreadPhase), else to the phase of the run (nothing is counted
+ * outside of a run). Only one run at a time is measured, the counters can be added from any thread.
+ */
+public class OfbizStats {
+  //counters
+  public static final int FILES_VISITED = 0;
+  public static final int BYTES_READ = 1;
+  public static final int XML_PARSED = 2;
+  public static final int XML_SKIPPED = 3;
+  public static final int TEXT_SEARCHES = 4;
+  public static final int MATCHES = 5;
+  public static final int MARKERS_CREATED = 6;
+  /** files of the text searches found in the FileContentCache */
+  public static final int CONTENT_CACHE_HITS = 7;
+  public static final int CONTENT_CACHE_MISSES = 8;
+  /** nanoseconds, for the threads working for the phase thread */
+  public static final int CPU_NANOS_OF_OTHER_THREADS = 9;
+  private static final String[] COUNTER_NAMES = { "filesVisited", "bytesRead", "xmlParsed", "xmlSkipped",
+      "textSearches", "matches", "markersCreated", "contentCacheHits", "contentCacheMisses" };
+
+  //coverage of the item categories (one search phase each)
+  public static final String COVERED = "covered";
+  /** the phase was canceled, its markers are correct but some items are not checked */
+  public static final String PARTIAL = "partial";
+  public static final String NOT_COVERED = "notCovered";
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  private static volatile Phase currentPhase;
+  /** phases running next to currentPhase, e.g. the concurrent searches */
+  private static final ThreadLocal<Phase> threadPhase = new ThreadLocal<Phase>();
+
+  /** Just a container, cpuNanos is -1 if the jvm does not measure cpu time */
+  public static final class Phase {
+    public final String name;
+    private final AtomicLongArray counters = new AtomicLongArray(CPU_NANOS_OF_OTHER_THREADS + 1);
+    private final long startNanos;
+    private final long startCpuNanos;
+    long wallNanos;
+    long cpuNanos;
+
+    Phase(String name) {
+      this.name = name;
+      this.startNanos = System.nanoTime();
+      this.startCpuNanos = getCurrentThreadCpuNanos();
+    }
+
+    public long getCounter(int counter) {
+      return counters.get(counter);
+    }
+
+    public long getWallMillis() {
+      return wallNanos / 1000000;
+    }
+
+    public long getCpuMillis() {
+      return cpuNanos < 0 ? -1 : (cpuNanos + counters.get(CPU_NANOS_OF_OTHER_THREADS)) / 1000000;
+    }
+  }
+
+  /** Just a container, the part of the scan of one component (see OfbizComponentShard) */
+  public static final class Shard {
+    public final String component;
+    public final int fileCount;
+    public final boolean isReused;
+    private final long scanNanos;
+    int deadItemCount;
+
+    Shard(String component, int fileCount, boolean isReused, long scanNanos) {
+      this.component = component;
+      this.fileCount = fileCount;
+      this.isReused = isReused;
+      this.scanNanos = scanNanos;
+    }
+
+    /** @return time spent scanning the files of the shard on all scan threads */
+    @SuppressWarnings("javadoc")
+    public long getScanMillis() {
+      return scanNanos / 1000000;
+    }
+
+    public int getDeadItemCount() {
+      return deadItemCount;
+    }
+  }
+
+  private final String projectName;
+  private final Date start = new Date();
+  /** the thread phases are added from their threads */
+  private final List<Phase> phaseList = new CopyOnWriteArrayList<Phase>();
+  private final Map<String, String> coverageMap = new LinkedHashMap<String, String>();
+  private final Map<String, Shard> shardMap = new LinkedHashMap<String, Shard>();
+
+  public OfbizStats(String projectName) {
+    this.projectName = projectName;
+  }
+
+  /** @return cpu time of the current thread or -1 if it is not measured */
+  @SuppressWarnings("javadoc")
+  public static long getCurrentThreadCpuNanos() {
+    return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : -1;
+  }
+
+  /** Adds to the counter of the phase running on the current thread, or else of the running phase */
+  @SuppressWarnings("javadoc")
+  public static void count(int counter, long value) {
+    Phase phase = threadPhase.get();
+    if (phase == null) {
+      phase = currentPhase;
+    }
+    if (phase != null) {
+      phase.counters.addAndGet(counter, value);
+    }
+  }
+
+  /** Ends the running phase, so it has to be called from the same thread as endPhase */
+  @SuppressWarnings("javadoc")
+  public void startPhase(String name) {
+    endPhase();
+    Phase phase = new Phase(name);
+    phaseList.add(phase);
+    currentPhase = phase;
+  }
+
+  public void endPhase() {
+    Phase phase = currentPhase;
+    if (phase == null || !phaseList.contains(phase)) {
+      return;
+    }
+    currentPhase = null;
+    end(phase);
+  }
+
+  /**
+   * Starts a phase on the current thread while the phase of the run goes on, e.g. one of the searches running at
+   * the same time. The counters of the thread go to it until endThreadPhase is called from the same thread.
+   */
+  @SuppressWarnings("javadoc")
+  public void startThreadPhase(String name) {
+    Phase phase = new Phase(name);
+    phaseList.add(phase);
+    threadPhase.set(phase);
+  }
+
+  public void endThreadPhase() {
+    Phase phase = threadPhase.get();
+    if (phase == null) {
+      return;
+    }
+    threadPhase.remove();
+    end(phase);
+  }
+
+  private static void end(Phase phase) {
+    phase.wallNanos = System.nanoTime() - phase.startNanos;
+    long cpuNanos = getCurrentThreadCpuNanos();
+    phase.cpuNanos = cpuNanos < 0 || phase.startCpuNanos < 0 ? -1 : cpuNanos - phase.startCpuNanos;
+  }
+
+  public List<Phase> getPhases() {
+    return phaseList;
+  }
+
+  @SuppressWarnings("javadoc")
+  public void addShard(String component, int fileCount, boolean isReused, long scanNanos) {
+    shardMap.put(component, new Shard(component, fileCount, isReused, scanNanos));
+  }
+
+  /** Counts a marker for the shard of the component, markers outside of the scanned files are not counted */
+  @SuppressWarnings("javadoc")
+  public void countDeadItem(String component) {
+    Shard shard = shardMap.get(component);
+    if (shard != null) {
+      shard.deadItemCount++;
+    }
+  }
+
+  public Collection<Shard> getShards() {
+    return shardMap.values();
+  }
+
+  /** @param coverage COVERED, PARTIAL or NOT_COVERED */
+  @SuppressWarnings("javadoc")
+  public void setCoverage(String category, String coverage) {
+    coverageMap.put(category, coverage);
+  }
+
+  public boolean isComplete() {
+    return getIncompleteCoverage().length() == 0;
+  }
+
+  /** @return like "searchViews partial, searchScreens notCovered", empty if every category is covered */
+  @SuppressWarnings("javadoc")
+  public String getIncompleteCoverage() {
+    StringBuilder incomplete = new StringBuilder();
+    for (Map.Entry<String, String> entry : coverageMap.entrySet()) {
+      if (!COVERED.equals(entry.getValue())) {
+        incomplete.append(incomplete.length() == 0 ? "" : ", ").append(entry.getKey()).append(' ').append(
+            entry.getValue());
+      }
+    }
+    return incomplete.toString();
+  }
+
+  /** @return like "scan 1200 ms, index 300 ms, ..." */
+  @SuppressWarnings("javadoc")
+  public String getSummary() {
+    StringBuilder summary = new StringBuilder();
+    for (Phase phase : phaseList) {
+      summary.append(summary.length() == 0 ? "" : ", ").append(phase.name).append(' ').append(phase.getWallMillis())
+          .append(" ms");
+    }
+    return summary.toString();
+  }
+
+  public String toJson() {
+    StringBuilder json = new StringBuilder();
+    json.append("{\n");
+    json.append("  \"project\": ").append(quote(projectName)).append(",\n");
+    json.append("  \"start\": ").append(quote(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ").format(start)));
+    json.append(",\n  \"phases\": [");
+    for (int i = 0; i < phaseList.size(); i++) {
+      Phase phase = phaseList.get(i);
+      json.append(i == 0 ? "\n" : ",\n");
+      json.append("    {\"name\": ").append(quote(phase.name));
+      json.append(", \"wallMillis\": ").append(phase.getWallMillis());
+      json.append(", \"cpuMillis\": ").append(phase.getCpuMillis());
+      for (int counter = 0; counter < COUNTER_NAMES.length; counter++) {
+        json.append(", ").append(quote(COUNTER_NAMES[counter])).append(": ").append(phase.getCounter(counter));
+      }
+      json.append('}');
+    }
+    json.append("\n  ],\n  \"shards\": [");
+    int shardCount = 0;
+    for (Shard shard : shardMap.values()) {
+      json.append(shardCount++ == 0 ? "\n" : ",\n");
+      json.append("    {\"component\": ").append(quote(shard.component));
+      json.append(", \"files\": ").append(shard.fileCount);
+      json.append(", \"reused\": ").append(shard.isReused);
+      json.append(", \"scanMillis\": ").append(shard.getScanMillis());
+      json.append(", \"deadItems\": ").append(shard.deadItemCount).append('}');
+    }
+    json.append(shardCount == 0 ? "]" : "\n  ]");
+    json.append(",\n  \"complete\": ").append(isComplete());
+    json.append(",\n  \"coverage\": {");
+    int categoryCount = 0;
+    for (Map.Entry<String, String> entry : coverageMap.entrySet()) {
+      json.append(categoryCount++ == 0 ? "" : ", ").append(quote(entry.getKey()));
+      json.append(": ").append(quote(entry.getValue()));
+    }
+    json.append("}\n}\n");
+    return json.toString();
+  }
+
+  private static String quote(String text) {
+    StringBuilder quoted = new StringBuilder("\"");
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '"' || c == '\\') {
+        quoted.append('\\').append(c);
+      }
+      else if (c < 0x20) {
+        quoted.append(String.format("\\u%04x", Integer.valueOf(c)));
+      }
+      else {
+        quoted.append(c);
+      }
+    }
+    return quoted.append('"').toString();
+  }
+
+  public void writeJson(File file) throws IOException {
+    Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+    try {
+      writer.write(toJson());
+    }
+    finally {
+      writer.close();
+    }
+  }
+}
@@ -6,16 +6,19 @@
  */
 package org.ucdetector.util;
 
-import org.eclipse.core.resources.IResource;
-
 /** Just a container */
-public class ReferenceAndLocation {
+public class ReferenceAndLocation extends ItemLocation {
 
   public final String referencedItem;
-  public final IResource location;
 
-  public ReferenceAndLocation(String referencedItem, IResource location) {
+  public ReferenceAndLocation(String referencedItem, String path) {
+    this(referencedItem, path, 0, 0);
+  }
+
+  /** @param endLine see ItemLocation.endLine */
+  @SuppressWarnings("javadoc")
+  public ReferenceAndLocation(String referencedItem, String path, int endLine, int endColumn) {
+    super(path, endLine, endColumn);
     this.referencedItem = referencedItem;
-    this.location = location;
   }
 }
@@ -0,0 +1,42 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+/**
+ * Literal versions of String.replaceFirst/replaceAll, without compiling a regular expression on every call.
+ * The text is returned as it is (no copy) if it does not contain the part.
+ */
+public class StringUtil {
+
+  private StringUtil() {
+    //only static methods
+  }
+
+  @SuppressWarnings("javadoc")
+  public static String replaceFirst(String text, String part, String replacement) {
+    int index = text.indexOf(part);
+    if (index < 0) {
+      return text;
+    }
+    return text.substring(0, index) + replacement + text.substring(index + part.length());
+  }
+
+  @SuppressWarnings("javadoc")
+  public static String removeAll(String text, String part) {
+    int index = text.indexOf(part);
+    if (index < 0) {
+      return text;
+    }
+    StringBuilder result = new StringBuilder(text.length());
+    int start = 0;
+    for (; index >= 0; index = text.indexOf(part, start)) {
+      result.append(text, start, index);
+      start = index + part.length();
+    }
+    return result.append(text, start, text.length()).toString();
+  }
+}
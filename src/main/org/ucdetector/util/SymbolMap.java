@@ -0,0 +1,164 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map with names as keys, stored as the ids of a SymbolTable (see SymbolSet). The entries keep the order they were
+ * put in, removing is not supported.
+ *
+ * Not thread safe, reading from more threads is fine while nothing is put into the map or its SymbolTable.
+ */
+public class SymbolMap<V> extends AbstractMap<String, V> {
+
+  private static final int NO_INDEX = -1;
+
+  private final SymbolTable symbols;
+  private final IntIntMap indexById = new IntIntMap();
+  private int[] keyIds = new int[4];
+  private Object[] values = new Object[4];
+  private int size;
+
+  /** @param symbols shared with the other sets and maps of the same data */
+  @SuppressWarnings("javadoc")
+  public SymbolMap(SymbolTable symbols) {
+    this.symbols = symbols;
+  }
+
+  @Override
+  public V put(String key, V value) {
+    int id = symbols.intern(key);
+    int index = indexById.get(id, NO_INDEX);
+    if (index != NO_INDEX) {
+      V previous = getValue(index);
+      values[index] = value;
+      return previous;
+    }
+    if (size == keyIds.length) {
+      int[] newKeyIds = new int[size * 2];
+      System.arraycopy(keyIds, 0, newKeyIds, 0, size);
+      keyIds = newKeyIds;
+      Object[] newValues = new Object[size * 2];
+      System.arraycopy(values, 0, newValues, 0, size);
+      values = newValues;
+    }
+    keyIds[size] = id;
+    values[size] = value;
+    indexById.put(id, size++, NO_INDEX);
+    return null;
+  }
+
+  @Override
+  public V get(Object key) {
+    int index = getIndex(key);
+    return index == NO_INDEX ? null : getValue(index);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return getIndex(key) != NO_INDEX;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  private int getIndex(Object key) {
+    if (!(key instanceof String)) {
+      return NO_INDEX;
+    }
+    int id = symbols.getId((String) key);
+    return id < 0 ? NO_INDEX : indexById.get(id, NO_INDEX);
+  }
+
+  @SuppressWarnings("unchecked")
+  private V getValue(int index) {
+    return (V) values[index];
+  }
+
+  @Override
+  public Set<Map.Entry<String, V>> entrySet() {
+    return new AbstractSet<Map.Entry<String, V>>() {
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public Iterator<Map.Entry<String, V>> iterator() {
+        return new Iterator<Map.Entry<String, V>>() {
+          private int index;
+
+          public boolean hasNext() {
+            return index < size;
+          }
+
+          public Map.Entry<String, V> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            return new Entry(index++);
+          }
+
+          public void remove() {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+    };
+  }
+
+  /** Entry of the index-th key, like the entries of HashMap */
+  private final class Entry implements Map.Entry<String, V> {
+    private final int index;
+
+    Entry(int index) {
+      this.index = index;
+    }
+
+    public String getKey() {
+      return symbols.getSymbol(keyIds[index]);
+    }
+
+    public V getValue() {
+      return SymbolMap.this.getValue(index);
+    }
+
+    public V setValue(V value) {
+      V previous = getValue();
+      values[index] = value;
+      return previous;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      if (!(object instanceof Map.Entry<?, ?>)) {
+        return false;
+      }
+      Map.Entry<?, ?> other = (Map.Entry<?, ?>) object;
+      return getKey().equals(other.getKey())
+          && (getValue() == null ? other.getValue() == null : getValue().equals(other.getValue()));
+    }
+
+    @Override
+    public int hashCode() {
+      return getKey().hashCode() ^ (getValue() == null ? 0 : getValue().hashCode());
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+  }
+}
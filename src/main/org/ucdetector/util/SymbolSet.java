@@ -0,0 +1,70 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set of names stored as the ids of a SymbolTable, so a name shared by more sets is stored once and contains()
+ * does not allocate. The names keep the order they were added in, removing is not supported.
+ *
+ * Not thread safe, reading from more threads is fine while nothing is added to the set or to its SymbolTable.
+ */
+public class SymbolSet extends AbstractSet<String> {
+
+  private final SymbolTable symbols;
+  private final IntSet ids = new IntSet();
+
+  /** @param symbols shared with the other sets and maps of the same data */
+  @SuppressWarnings("javadoc")
+  public SymbolSet(SymbolTable symbols) {
+    this.symbols = symbols;
+  }
+
+  @Override
+  public boolean add(String name) {
+    return ids.add(symbols.intern(name));
+  }
+
+  @Override
+  public boolean contains(Object name) {
+    if (!(name instanceof String)) {
+      return false;
+    }
+    int id = symbols.getId((String) name);
+    return id >= 0 && ids.contains(id);
+  }
+
+  @Override
+  public int size() {
+    return ids.size();
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    return new Iterator<String>() {
+      private int index;
+
+      public boolean hasNext() {
+        return index < ids.size();
+      }
+
+      public String next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return symbols.getSymbol(ids.get(index++));
+      }
+
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+}
@@ -0,0 +1,128 @@
+/**
+ * This program and the
+ * accompanying materials are made available under the terms of the Eclipse
+ * Public License v1.0 which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.ucdetector.util;
+
+/**
+ * Gives every distinct name an int id (0, 1, 2... in the order of intern), so the names are stored only once and
+ * the rest of the data can use the ids. getId() can look up a part of a longer string without creating a
+ * substring.
+ *
+ * Not thread safe.
+ */
+public class SymbolTable {
+
+  private static final int NOT_FOUND = -1;
+
+  private String[] symbols = new String[16];
+  private int[] symbolHashes = new int[16];
+  /** open addressing, id + 1 of the symbol or 0 for an empty slot */
+  private int[] slots = new int[32];
+  private int size;
+
+  /** @return id of the name, a new one if the name was not interned yet */
+  @SuppressWarnings("javadoc")
+  public int intern(String name) {
+    int hash = name.hashCode();
+    int slot = findSlot(name, 0, name.length(), hash);
+    if (slots[slot] != 0) {
+      return slots[slot] - 1;
+    }
+    if (size == symbols.length) {
+      String[] newSymbols = new String[size * 2];
+      System.arraycopy(symbols, 0, newSymbols, 0, size);
+      symbols = newSymbols;
+      int[] newSymbolHashes = new int[size * 2];
+      System.arraycopy(symbolHashes, 0, newSymbolHashes, 0, size);
+      symbolHashes = newSymbolHashes;
+    }
+    symbols[size] = name;
+    symbolHashes[size] = hash;
+    slots[slot] = ++size;
+    if (size * 2 > slots.length) {
+      rehash();
+    }
+    return size - 1;
+  }
+
+  /** @return id of the name or -1 if it was not interned */
+  @SuppressWarnings("javadoc")
+  public int getId(String name) {
+    return getId(name, 0, name.length());
+  }
+
+  /** @return id of text.subSequence(start, end) or -1 if it was not interned */
+  @SuppressWarnings("javadoc")
+  public int getId(CharSequence text, int start, int end) {
+    int slot = findSlot(text, start, end, hash(text, start, end));
+    return slots[slot] == 0 ? NOT_FOUND : slots[slot] - 1;
+  }
+
+  public String getSymbol(int id) {
+    if (id < 0 || id >= size) {
+      throw new IndexOutOfBoundsException("Unknown id: " + id);
+    }
+    return symbols[id];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** @return slot of the name, or the empty slot where it has to be inserted */
+  private int findSlot(CharSequence text, int start, int end, int hash) {
+    int mask = slots.length - 1;
+    int slot = mix(hash) & mask;
+    while (slots[slot] != 0) {
+      int id = slots[slot] - 1;
+      if (symbolHashes[id] == hash && regionEquals(symbols[id], text, start, end)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void rehash() {
+    int[] newSlots = new int[slots.length * 2];
+    int mask = newSlots.length - 1;
+    for (int id = 0; id < size; id++) {
+      int slot = mix(symbolHashes[id]) & mask;
+      while (newSlots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      newSlots[slot] = id + 1;
+    }
+    slots = newSlots;
+  }
+
+  /** Same as String.hashCode() of the part */
+  private static int hash(CharSequence text, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + text.charAt(i);
+    }
+    return hash;
+  }
+
+  /** Spreads the bits, the low bits of String.hashCode() are similar for similar paths */
+  private static int mix(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static boolean regionEquals(String symbol, CharSequence text, int start, int end) {
+    if (symbol.length() != end - start) {
+      return false;
+    }
+    for (int i = 0; i < symbol.length(); i++) {
+      if (symbol.charAt(i) != text.charAt(start + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}